@@ -0,0 +1,36 @@
+package com.kaba4cow.maplevel;
+
+import java.nio.file.Path;
+
+/**
+ * Receives the results of a {@link MapBatchParser} run. The methods are called on the thread that started the batch, in
+ * the order in which the files finish parsing.
+ */
+public interface MapBatchListener {
+
+	/**
+	 * Called when a file has been parsed. The level is not retained by the parser after this method returns.
+	 * 
+	 * @param path  the path of the parsed file
+	 * @param level the parsed level
+	 */
+	public void onParsed(Path path, MapLevel level);
+
+	/**
+	 * Called before {@link #onParsed(Path, MapLevel)} when a file parsed in recoverable mode contained malformed or skipped data.
+	 * Does nothing by default.
+	 * 
+	 * @param path        the path of the parsed file
+	 * @param diagnostics the errors found in the file
+	 */
+	public default void onDiagnostics(Path path, MapDiagnostics diagnostics) {}
+
+	/**
+	 * Called when a file could not be parsed. Does nothing by default.
+	 * 
+	 * @param path      the path of the file
+	 * @param exception the exception that occurred
+	 */
+	public default void onFailed(Path path, Exception exception) {}
+
+}
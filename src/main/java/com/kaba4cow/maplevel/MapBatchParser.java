@@ -0,0 +1,318 @@
+package com.kaba4cow.maplevel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.kaba4cow.maplevel.elements.MapProperties;
+import com.kaba4cow.maplevel.io.MapCompression;
+
+/**
+ * Parses many MAP files concurrently. At most {@link #getMaxInFlight()} files are parsed or waiting for delivery at any
+ * time, which bounds the memory used by a batch regardless of its size. Results are delivered to a
+ * {@link MapBatchListener} on the calling thread in completion order.
+ * <p>
+ * Compressed files are detected and decoded using {@link MapCompression}. Files are parsed on virtual threads when the
+ * running JDK supports them, otherwise on a work-stealing pool with {@link #getParallelism()} threads.
+ */
+public class MapBatchParser {
+
+	private int parallelism;
+	private int maxInFlight;
+	private boolean virtualThreads;
+	private Charset charset;
+	private String extension;
+	private boolean recoverable;
+	private Predicate<MapProperties> entityFilter;
+
+	/**
+	 * Creates a new batch parser using all available processors, keeping twice as many files in flight and reading files
+	 * with {@code .map} extension as UTF-8.
+	 */
+	public MapBatchParser() {
+		this.parallelism = Runtime.getRuntime().availableProcessors();
+		this.maxInFlight = 2 * this.parallelism;
+		this.virtualThreads = true;
+		this.charset = StandardCharsets.UTF_8;
+		this.extension = ".map";
+		this.recoverable = false;
+		this.entityFilter = null;
+	}
+
+	/**
+	 * Returns the number of threads of the fallback pool.
+	 * 
+	 * @return the parallelism
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of threads of the fallback pool.
+	 * 
+	 * @param parallelism the parallelism
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapBatchParser setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Parallelism must be positive");
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Returns the maximum number of files parsed or awaiting delivery at the same time.
+	 * 
+	 * @return the maximum number of files in flight
+	 */
+	public int getMaxInFlight() {
+		return this.maxInFlight;
+	}
+
+	/**
+	 * Sets the maximum number of files parsed or awaiting delivery at the same time.
+	 * 
+	 * @param maxInFlight the maximum number of files in flight
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapBatchParser setMaxInFlight(int maxInFlight) {
+		if (maxInFlight < 1)
+			throw new IllegalArgumentException("Max in flight must be positive");
+		this.maxInFlight = maxInFlight;
+		return this;
+	}
+
+	/**
+	 * Checks if virtual threads are used when available.
+	 * 
+	 * @return {@code true} if virtual threads are used when available, {@code false} otherwise
+	 */
+	public boolean isVirtualThreads() {
+		return this.virtualThreads;
+	}
+
+	/**
+	 * Sets whether virtual threads are used when the running JDK supports them.
+	 * 
+	 * @param virtualThreads {@code true} to use virtual threads when available
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapBatchParser setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+		return this;
+	}
+
+	/**
+	 * Returns the charset used to read the files.
+	 * 
+	 * @return the charset
+	 */
+	public Charset getCharset() {
+		return this.charset;
+	}
+
+	/**
+	 * Sets the charset used to read the files. Malformed input is replaced rather than reported.
+	 * 
+	 * @param charset the charset
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapBatchParser setCharset(Charset charset) {
+		this.charset = Objects.requireNonNull(charset, "Charset must not be null");
+		return this;
+	}
+
+	/**
+	 * Returns the extension of the files parsed when a directory is passed.
+	 * 
+	 * @return the file extension
+	 */
+	public String getExtension() {
+		return this.extension;
+	}
+
+	/**
+	 * Sets the extension of the files parsed when a directory is passed. The extension is matched case-insensitively.
+	 * 
+	 * @param extension the file extension
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapBatchParser setExtension(String extension) {
+		this.extension = Objects.requireNonNull(extension, "Extension must not be null");
+		return this;
+	}
+
+	/**
+	 * Checks whether files are parsed in recoverable mode.
+	 * 
+	 * @return {@code true} if malformed data is reported through
+	 *             {@link MapBatchListener#onDiagnostics(Path, MapDiagnostics)} instead of failing the file
+	 */
+	public boolean isRecoverable() {
+		return this.recoverable;
+	}
+
+	/**
+	 * Sets whether files are parsed in recoverable mode. In recoverable mode each file is parsed with its own
+	 * {@link MapDiagnostics} and is only reported as failed when an I/O error occurs or the maximum number of errors is
+	 * exceeded.
+	 * 
+	 * @param recoverable {@code true} to parse files in recoverable mode
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapBatchParser setRecoverable(boolean recoverable) {
+		this.recoverable = recoverable;
+		return this;
+	}
+
+	/**
+	 * Returns the filter deciding which entities of the parsed files are kept.
+	 * 
+	 * @return the entity filter, or {@code null} if all entities are kept
+	 */
+	public Predicate<MapProperties> getEntityFilter() {
+		return this.entityFilter;
+	}
+
+	/**
+	 * Sets the filter deciding which entities of the parsed files are kept, see
+	 * {@link MapParserOptions#setEntityFilter(Predicate)}. The filter is called concurrently and must be thread-safe.
+	 * 
+	 * @param entityFilter the entity filter, or {@code null} to keep all entities
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapBatchParser setEntityFilter(Predicate<MapProperties> entityFilter) {
+		this.entityFilter = entityFilter;
+		return this;
+	}
+
+	/**
+	 * Parses all files with the configured extension in the specified directory and its subdirectories, in path order.
+	 * 
+	 * @param directory the directory to parse the files of
+	 * @param listener  the listener to deliver the results to
+	 * 
+	 * @return the number of successfully parsed files
+	 * 
+	 * @throws IOException if the directory cannot be read or the calling thread is interrupted
+	 */
+	public int parse(Path directory, MapBatchListener listener) throws IOException {
+		Objects.requireNonNull(directory, "Directory must not be null");
+		String extension = this.extension.toLowerCase(Locale.ROOT);
+		List<Path> paths;
+		try (Stream<Path> stream = Files.walk(directory)) {
+			paths = stream.filter(Files::isRegularFile)
+					.filter(path -> path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(extension)).sorted()
+					.collect(Collectors.toList());
+		}
+		return this.parse(paths, listener);
+	}
+
+	/**
+	 * Parses the specified files.
+	 * 
+	 * @param paths    the paths of the files to parse
+	 * @param listener the listener to deliver the results to
+	 * 
+	 * @return the number of successfully parsed files
+	 * 
+	 * @throws IOException if the calling thread is interrupted
+	 */
+	public int parse(Collection<Path> paths, MapBatchListener listener) throws IOException {
+		Objects.requireNonNull(paths, "Paths must not be null");
+		Objects.requireNonNull(listener, "Listener must not be null");
+		ExecutorService executor = this.createExecutor();
+		CompletionService<MapBatchResult> completion = new ExecutorCompletionService<>(executor);
+		Iterator<Path> iterator = paths.iterator();
+		int inFlight = 0;
+		int parsed = 0;
+		try {
+			while (iterator.hasNext() || inFlight > 0) {
+				while (iterator.hasNext() && inFlight < this.maxInFlight) {
+					Path path = iterator.next();
+					completion.submit(() -> this.parse(path));
+					inFlight++;
+				}
+				MapBatchResult result = completion.take().get();
+				inFlight--;
+				if (Objects.isNull(result.exception)) {
+					if (Objects.nonNull(result.diagnostics)
+							&& (result.diagnostics.hasErrors() || result.diagnostics.hasWarnings()))
+						listener.onDiagnostics(result.path, result.diagnostics);
+					listener.onParsed(result.path, result.level);
+					parsed++;
+				} else
+					listener.onFailed(result.path, result.exception);
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Batch parsing interrupted");
+		} catch (ExecutionException exception) {
+			throw new IllegalStateException(exception.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+		return parsed;
+	}
+
+	private MapBatchResult parse(Path path) {
+		MapDiagnostics diagnostics = this.recoverable ? new MapDiagnostics() : null;
+		MapParserOptions options = new MapParserOptions().setDiagnostics(diagnostics)
+				.setEntityFilter(this.entityFilter).setSource(path.toString());
+		try (InputStream input = Files.newInputStream(path)) {
+			return new MapBatchResult(path, MapCompression.parse(input, null, this.charset, options), diagnostics, null);
+		} catch (IOException | RuntimeException exception) {
+			return new MapBatchResult(path, null, diagnostics, exception);
+		}
+	}
+
+	private ExecutorService createExecutor() {
+		if (this.virtualThreads)
+			try {
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException | RuntimeException exception) {}
+		return Executors.newWorkStealingPool(this.parallelism);
+	}
+
+	private static class MapBatchResult {
+
+		private final Path path;
+		private final MapLevel level;
+		private final MapDiagnostics diagnostics;
+		private final Exception exception;
+
+		private MapBatchResult(Path path, MapLevel level, MapDiagnostics diagnostics, Exception exception) {
+			this.path = path;
+			this.level = level;
+			this.diagnostics = diagnostics;
+			this.exception = exception;
+		}
+
+	}
+
+}
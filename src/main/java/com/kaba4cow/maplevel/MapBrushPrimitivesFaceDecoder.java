@@ -0,0 +1,73 @@
+package com.kaba4cow.maplevel;
+
+import java.util.Objects;
+
+import com.kaba4cow.maplevel.elements.MapAxis;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.geometry.MapPlane;
+
+/**
+ * Decodes Quake 3 brush primitive faces of {@code brushDef} blocks:
+ * {@code ( x y z ) ( x y z ) ( x y z ) ( ( xx xy xo ) ( yx yy yo ) ) texture contents flags value}. The texture matrix
+ * is defined in normalized texture space, so it is converted to unit texel axes and scales using the texture sizes of
+ * the parser options.
+ */
+class MapBrushPrimitivesFaceDecoder implements MapFaceDecoder {
+
+	@Override
+	public void decode(MapLineTokenizer tokens, MapFace face, MapParserOptions options) {
+		MapValveFaceDecoder.decodePoint(tokens, face.getPoint1());
+		MapValveFaceDecoder.decodePoint(tokens, face.getPoint2());
+		MapValveFaceDecoder.decodePoint(tokens, face.getPoint3());
+		float xx = tokens.nextFloat();
+		float xy = tokens.nextFloat();
+		float xo = tokens.nextFloat();
+		float yx = tokens.nextFloat();
+		float yy = tokens.nextFloat();
+		float yo = tokens.nextFloat();
+		String texture = tokens.nextToken();
+		face.setTexture(texture);
+		double nx = 0.0;
+		double ny = 0.0;
+		double nz = 1.0;
+		MapPlane plane = MapPlane.of(face);
+		if (Objects.nonNull(plane)) {
+			nx = MapBrushPrimitivesFaceDecoder.snap(plane.getNormalX());
+			ny = MapBrushPrimitivesFaceDecoder.snap(plane.getNormalY());
+			nz = MapBrushPrimitivesFaceDecoder.snap(plane.getNormalZ());
+		}
+		double rotationY = -Math.atan2(nz, Math.sqrt(ny * ny + nx * nx));
+		double rotationZ = Math.atan2(ny, nx);
+		double sx = -Math.sin(rotationZ);
+		double sy = Math.cos(rotationZ);
+		double sz = 0.0;
+		double tx = -Math.cos(rotationZ) * Math.sin(rotationY);
+		double ty = -Math.sin(rotationZ) * Math.sin(rotationY);
+		double tz = -Math.cos(rotationY);
+		float width = Math.max(1, options.getTextureSizes().getWidth(texture));
+		float height = Math.max(1, options.getTextureSizes().getHeight(texture));
+		float scaleX = MapBrushPrimitivesFaceDecoder.setAxis(face.getAxisU(), (xx * sx + xy * tx) * width,
+				(xx * sy + xy * ty) * width, (xx * sz + xy * tz) * width, xo * width);
+		float scaleY = MapBrushPrimitivesFaceDecoder.setAxis(face.getAxisV(), (yx * sx + yy * tx) * height,
+				(yx * sy + yy * ty) * height, (yx * sz + yy * tz) * height, yo * height);
+		face.getTransform().setRotation(0.0f).setScaleX(scaleX).setScaleY(scaleY);
+	}
+
+	private static float setAxis(MapAxis axis, double x, double y, double z, double offset) {
+		double length = Math.sqrt(x * x + y * y + z * z);
+		axis.setOffset((float) offset);
+		if (length == 0.0) {
+			axis.setX(0.0f).setY(0.0f).setZ(0.0f);
+			return 1.0f;
+		}
+		axis.setX((float) MapBrushPrimitivesFaceDecoder.snap(x / length))
+				.setY((float) MapBrushPrimitivesFaceDecoder.snap(y / length))
+				.setZ((float) MapBrushPrimitivesFaceDecoder.snap(z / length));
+		return (float) (1.0 / length);
+	}
+
+	private static double snap(double value) {
+		return Math.abs(value) < 1e-6 ? 0.0 : value;
+	}
+
+}
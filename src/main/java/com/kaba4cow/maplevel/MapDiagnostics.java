@@ -0,0 +1,137 @@
+package com.kaba4cow.maplevel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the errors found by {@link MapParser} in recoverable mode. When diagnostics are set in
+ * {@link MapParserOptions}, malformed properties are dropped, malformed brushes are skipped up to their closing brace
+ * and parsing continues. Parsing is aborted with the last error once more than {@link #getMaxErrors()} errors have been
+ * collected.
+ * <p>
+ * Content that the parser does not understand but can skip without losing data, such as stray lines between entities
+ * or brushes, is collected as warnings unless {@link MapParserOptions#setStrict(boolean)} is set. Warnings do not
+ * count towards the maximum number of errors.
+ * <p>
+ * Instances are not thread-safe and should not be shared between concurrently parsed files.
+ */
+public class MapDiagnostics {
+
+	private final List<MapParseException> errors;
+	private final List<MapParseException> warnings;
+	private int maxErrors;
+
+	/**
+	 * Creates new empty diagnostics collecting at most {@code 1000} errors.
+	 */
+	public MapDiagnostics() {
+		this.errors = new ArrayList<>();
+		this.warnings = new ArrayList<>();
+		this.maxErrors = 1000;
+	}
+
+	void report(MapParseException error) throws MapParseException {
+		this.errors.add(error);
+		if (this.errors.size() > this.maxErrors)
+			throw error;
+	}
+
+	void warn(MapParseException warning) {
+		this.warnings.add(warning);
+	}
+
+	/**
+	 * Returns an unmodifiable list of the collected errors in the order they were found.
+	 *
+	 * @return the list of errors
+	 */
+	public List<MapParseException> getErrors() {
+		return Collections.unmodifiableList(this.errors);
+	}
+
+	/**
+	 * Returns the number of collected errors.
+	 *
+	 * @return the number of errors
+	 */
+	public int getErrorCount() {
+		return this.errors.size();
+	}
+
+	/**
+	 * Checks whether any errors have been collected.
+	 *
+	 * @return {@code true} if there are errors
+	 */
+	public boolean hasErrors() {
+		return !this.errors.isEmpty();
+	}
+
+	/**
+	 * Returns an unmodifiable list of the collected warnings in the order they were found.
+	 *
+	 * @return the list of warnings
+	 */
+	public List<MapParseException> getWarnings() {
+		return Collections.unmodifiableList(this.warnings);
+	}
+
+	/**
+	 * Returns the number of collected warnings.
+	 *
+	 * @return the number of warnings
+	 */
+	public int getWarningCount() {
+		return this.warnings.size();
+	}
+
+	/**
+	 * Checks whether any warnings have been collected.
+	 *
+	 * @return {@code true} if there are warnings
+	 */
+	public boolean hasWarnings() {
+		return !this.warnings.isEmpty();
+	}
+
+	/**
+	 * Removes all collected errors and warnings.
+	 *
+	 * @return a reference to this object
+	 */
+	public MapDiagnostics clear() {
+		this.errors.clear();
+		this.warnings.clear();
+		return this;
+	}
+
+	/**
+	 * Returns the number of errors after which parsing is aborted.
+	 *
+	 * @return the maximum number of errors
+	 */
+	public int getMaxErrors() {
+		return this.maxErrors;
+	}
+
+	/**
+	 * Sets the number of errors after which parsing is aborted.
+	 *
+	 * @param maxErrors the maximum number of errors
+	 *
+	 * @return a reference to this object
+	 */
+	public MapDiagnostics setMaxErrors(int maxErrors) {
+		if (maxErrors < 0)
+			throw new IllegalArgumentException("Maximum number of errors must not be negative");
+		this.maxErrors = maxErrors;
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapDiagnostics [errors=%s, warnings=%s]", this.errors.size(), this.warnings.size());
+	}
+
+}
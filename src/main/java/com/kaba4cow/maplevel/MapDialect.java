@@ -0,0 +1,59 @@
+package com.kaba4cow.maplevel;
+
+/**
+ * Represents a MAP face format. Faces of every dialect are converted to the Valve220 texture model of
+ * {@link com.kaba4cow.maplevel.elements.MapFace}.
+ */
+public enum MapDialect {
+
+	/**
+	 * Valve220 faces with explicit texture axes.
+	 */
+	VALVE_220(new MapValveFaceDecoder()),
+
+	/**
+	 * Standard Quake, Quake 2 and Quake 3 faces with offset, rotation and scale.
+	 */
+	QUAKE(new MapQuakeFaceDecoder()),
+
+	/**
+	 * Quake 3 brush primitive faces of {@code brushDef} blocks with a texture matrix.
+	 */
+	BRUSH_PRIMITIVES(new MapBrushPrimitivesFaceDecoder());
+
+	private final MapFaceDecoder decoder;
+
+	private MapDialect(MapFaceDecoder decoder) {
+		this.decoder = decoder;
+	}
+
+	MapFaceDecoder getDecoder() {
+		return this.decoder;
+	}
+
+	/**
+	 * Detects the dialect of the specified face line of a regular brush block.
+	 * 
+	 * @param line the face line
+	 * 
+	 * @return {@link #VALVE_220} if a standalone square bracket follows the three points of the line, {@link #QUAKE}
+	 *         otherwise
+	 */
+	public static MapDialect detect(String line) {
+		int points = 0;
+		for (int i = 0; i < line.length(); i++) {
+			char character = line.charAt(i);
+			if (character == ')' && MapDialect.isStandalone(line, i))
+				points++;
+			else if (character == '[' && points >= 3 && MapDialect.isStandalone(line, i))
+				return MapDialect.VALVE_220;
+		}
+		return MapDialect.QUAKE;
+	}
+
+	private static boolean isStandalone(String line, int index) {
+		return (index == 0 || line.charAt(index - 1) <= ' ')
+				&& (index + 1 == line.length() || line.charAt(index + 1) <= ' ');
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.kaba4cow.maplevel;
+
+import com.kaba4cow.maplevel.elements.MapFace;
+
+/**
+ * Receives the faces of a {@link MapLevel} traversed with {@link MapLevel#forEachFace(MapFaceConsumer)}.
+ */
+@FunctionalInterface
+public interface MapFaceConsumer {
+
+	/**
+	 * Called for each face of the level.
+	 * 
+	 * @param entityIndex the index of the entity in the level
+	 * @param brushIndex  the index of the brush in the entity
+	 * @param faceIndex   the index of the face in the brush
+	 * @param face        the face
+	 */
+	public void accept(int entityIndex, int brushIndex, int faceIndex, MapFace face);
+
+}
@@ -0,0 +1,195 @@
+package com.kaba4cow.maplevel;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.elements.MapFace;
+
+/**
+ * A reusable cursor over all faces of a {@link MapLevel} in level order. Advancing the cursor allocates nothing, so a
+ * single instance can be kept and {@link #reset() reset} for repeated traversals. Faces are read with
+ * {@link MapBrush#readFace(int, MapFace)}, so prefab instances are not detached from their prefabs and their faces are
+ * returned in a single face owned by the cursor, which must not be modified. The level must not be structurally
+ * modified while the cursor is in use.
+ * 
+ * <pre>
+ * MapFaceCursor cursor = level.faces();
+ * while (cursor.next())
+ * 	process(cursor.getFace());
+ * </pre>
+ */
+public class MapFaceCursor {
+
+	private MapLevel level;
+	private MapEntity entity;
+	private MapBrush brush;
+	private MapFace face;
+	private final MapFace target;
+	private int entityIndex;
+	private int brushIndex;
+	private int faceIndex;
+
+	/**
+	 * Creates a new cursor over the faces of the specified level, positioned before the first face.
+	 * 
+	 * @param level the level to traverse
+	 */
+	public MapFaceCursor(MapLevel level) {
+		this.target = new MapFace();
+		this.reset(level);
+	}
+
+	/**
+	 * Positions the cursor before the first face of its level.
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapFaceCursor reset() {
+		this.entity = null;
+		this.brush = null;
+		this.face = null;
+		this.entityIndex = -1;
+		this.brushIndex = -1;
+		this.faceIndex = -1;
+		return this;
+	}
+
+	/**
+	 * Positions the cursor before the first face of the specified level.
+	 * 
+	 * @param level the level to traverse
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapFaceCursor reset(MapLevel level) {
+		this.level = Objects.requireNonNull(level, "Level must not be null");
+		return this.reset();
+	}
+
+	/**
+	 * Advances the cursor to the next face.
+	 * 
+	 * @return {@code true} if the cursor is positioned on a face, {@code false} if there are no more faces
+	 */
+	public boolean next() {
+		if (Objects.nonNull(this.brush) && ++this.faceIndex < this.brush.getFaceCount()) {
+			this.face = this.brush.readFace(this.faceIndex, this.target);
+			return true;
+		}
+		while (true) {
+			if (Objects.nonNull(this.entity) && ++this.brushIndex < this.entity.getBrushCount()) {
+				this.brush = this.entity.getBrush(this.brushIndex);
+				this.faceIndex = 0;
+				if (this.brush.getFaceCount() > 0) {
+					this.face = this.brush.readFace(0, this.target);
+					return true;
+				}
+			} else if (++this.entityIndex < this.level.getEntityCount()) {
+				this.entity = this.level.getEntity(this.entityIndex);
+				this.brush = null;
+				this.brushIndex = -1;
+			} else {
+				this.entityIndex = this.level.getEntityCount();
+				this.entity = null;
+				this.brush = null;
+				this.face = null;
+				return false;
+			}
+		}
+	}
+
+	private void check() {
+		if (Objects.isNull(this.face))
+			throw new NoSuchElementException("Cursor is not positioned on a face");
+	}
+
+	/**
+	 * Returns the level traversed by the cursor.
+	 * 
+	 * @return the level
+	 */
+	public MapLevel getLevel() {
+		return this.level;
+	}
+
+	/**
+	 * Returns the entity of the current face.
+	 * 
+	 * @return the entity
+	 * 
+	 * @throws NoSuchElementException if the cursor is not positioned on a face
+	 */
+	public MapEntity getEntity() {
+		this.check();
+		return this.entity;
+	}
+
+	/**
+	 * Returns the brush of the current face.
+	 * 
+	 * @return the brush
+	 * 
+	 * @throws NoSuchElementException if the cursor is not positioned on a face
+	 */
+	public MapBrush getBrush() {
+		this.check();
+		return this.brush;
+	}
+
+	/**
+	 * Returns the current face.
+	 * 
+	 * @return the face
+	 * 
+	 * @throws NoSuchElementException if the cursor is not positioned on a face
+	 */
+	public MapFace getFace() {
+		this.check();
+		return this.face;
+	}
+
+	/**
+	 * Returns the index of the entity of the current face in the level.
+	 * 
+	 * @return the entity index
+	 * 
+	 * @throws NoSuchElementException if the cursor is not positioned on a face
+	 */
+	public int getEntityIndex() {
+		this.check();
+		return this.entityIndex;
+	}
+
+	/**
+	 * Returns the index of the brush of the current face in its entity.
+	 * 
+	 * @return the brush index
+	 * 
+	 * @throws NoSuchElementException if the cursor is not positioned on a face
+	 */
+	public int getBrushIndex() {
+		this.check();
+		return this.brushIndex;
+	}
+
+	/**
+	 * Returns the index of the current face in its brush.
+	 * 
+	 * @return the face index
+	 * 
+	 * @throws NoSuchElementException if the cursor is not positioned on a face
+	 */
+	public int getFaceIndex() {
+		this.check();
+		return this.faceIndex;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapFaceCursor [entityIndex=%s, brushIndex=%s, faceIndex=%s]", this.entityIndex,
+				this.brushIndex, this.faceIndex);
+	}
+
+}
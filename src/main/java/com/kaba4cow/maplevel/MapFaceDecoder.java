@@ -0,0 +1,19 @@
+package com.kaba4cow.maplevel;
+
+import com.kaba4cow.maplevel.elements.MapFace;
+
+/**
+ * Decodes the tokens of a single face line of a specific {@link MapDialect}.
+ */
+interface MapFaceDecoder {
+
+	/**
+	 * Reads the face tokens into the specified face, converting the texture projection to the Valve220 model.
+	 * 
+	 * @param tokens  the tokenizer positioned at the start of the face line
+	 * @param face    the face to initialize
+	 * @param options the parser options
+	 */
+	public void decode(MapLineTokenizer tokens, MapFace face, MapParserOptions options);
+
+}
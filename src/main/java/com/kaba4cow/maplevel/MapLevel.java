@@ -3,10 +3,16 @@ package com.kaba4cow.maplevel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import com.kaba4cow.maplevel.elements.MapBrush;
 import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.profiling.MapEvent;
+import com.kaba4cow.maplevel.profiling.MapEventType;
+import com.kaba4cow.maplevel.profiling.MapProfiler;
 
 /**
  * Represents a collection of entities in a MAP file.
@@ -14,18 +20,20 @@ import com.kaba4cow.maplevel.elements.MapEntity;
 public class MapLevel implements MapElement {
 
 	private final List<MapEntity> entities;
+	private final List<MapEntity> entitiesView;
 
 	public MapLevel() {
 		this.entities = new ArrayList<>();
+		this.entitiesView = Collections.unmodifiableList(this.entities);
 	}
 
 	/**
-	 * Retrieves an unmodifiable list of entities in the model.
+	 * Retrieves an unmodifiable list of entities in the model. The list is a live view shared between calls.
 	 *
 	 * @return an unmodifiable list of {@link MapEntity} objects
 	 */
 	public List<MapEntity> getEntities() {
-		return Collections.unmodifiableList(this.entities);
+		return this.entitiesView;
 	}
 
 	/**
@@ -36,7 +44,13 @@ public class MapLevel implements MapElement {
 	 * @return a list of entities matching the predicate
 	 */
 	public List<MapEntity> getEntities(Predicate<MapEntity> predicate) {
-		return this.entities.stream().filter(predicate).collect(Collectors.toList());
+		List<MapEntity> result = new ArrayList<>();
+		for (int i = 0; i < this.entities.size(); i++) {
+			MapEntity entity = this.entities.get(i);
+			if (predicate.test(entity))
+				result.add(entity);
+		}
+		return result;
 	}
 
 	/**
@@ -105,6 +119,75 @@ public class MapLevel implements MapElement {
 		return this.entities.size();
 	}
 
+	/**
+	 * Returns the total number of faces of all brushes in the level.
+	 * 
+	 * @return the number of faces
+	 */
+	public int getFaceCount() {
+		int count = 0;
+		for (int e = 0; e < this.entities.size(); e++) {
+			MapEntity entity = this.entities.get(e);
+			for (int b = 0; b < entity.getBrushCount(); b++)
+				count += entity.getBrush(b).getFaceCount();
+		}
+		return count;
+	}
+
+	/**
+	 * Passes every face of the level to the specified consumer together with its entity, brush and face indices, in
+	 * level order. Faces are read with {@link MapBrush#readFace(int, MapFace)}, so prefab instances are not detached
+	 * from their prefabs and their faces are passed in a single face reused for the whole traversal, which must not be
+	 * modified. Apart from that face no objects are allocated during the traversal. The level must not be structurally
+	 * modified by the consumer.
+	 * 
+	 * @param consumer the consumer of the faces
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapLevel forEachFace(MapFaceConsumer consumer) {
+		Objects.requireNonNull(consumer, "Consumer must not be null");
+		MapFace target = null;
+		for (int e = 0; e < this.entities.size(); e++) {
+			MapEntity entity = this.entities.get(e);
+			for (int b = 0; b < entity.getBrushCount(); b++) {
+				MapBrush brush = entity.getBrush(b);
+				if (brush.isInstance() && Objects.isNull(target))
+					target = new MapFace();
+				for (int f = 0; f < brush.getFaceCount(); f++)
+					consumer.accept(e, b, f, brush.readFace(f, target));
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Creates a cursor over all faces of the level in level order. The cursor can be reused for later traversals by
+	 * calling {@link MapFaceCursor#reset()}.
+	 * 
+	 * @return a new cursor positioned before the first face
+	 */
+	public MapFaceCursor faces() {
+		return new MapFaceCursor(this);
+	}
+
+	/**
+	 * Returns the fingerprints of all entities, computing stale brush fingerprints in parallel first. The result is
+	 * indexed like {@link #getEntities()}. The level must not be modified during the computation.
+	 * 
+	 * @return an array of entity fingerprints
+	 * 
+	 * @see MapEntity#getFingerprint()
+	 */
+	public long[] getFingerprints() {
+		List<MapBrush> brushes = new ArrayList<>();
+		for (int i = 0; i < this.entities.size(); i++)
+			brushes.addAll(this.entities.get(i).getBrushes());
+		brushes.parallelStream().forEach(MapBrush::getFingerprint);
+		return IntStream.range(0, this.entities.size()).parallel()
+				.mapToLong(index -> this.entities.get(index).getFingerprint()).toArray();
+	}
+
 	/**
 	 * Converts the level to its MAP string representation.
 	 *
@@ -112,12 +195,15 @@ public class MapLevel implements MapElement {
 	 */
 	@Override
 	public String toMapString() {
-		StringBuilder builder = new StringBuilder();
-		for (int i = 0; i < this.entities.size(); i++) {
-			builder.append(String.format("// Entity %s\n", i));
-			builder.append(this.entities.get(i).toMapString());
+		try (MapEvent event = MapProfiler.begin(MapEventType.WRITE)) {
+			StringBuilder builder = new StringBuilder();
+			for (int i = 0; i < this.entities.size(); i++) {
+				builder.append(String.format("// Entity %s\n", i));
+				builder.append(this.entities.get(i).toMapString());
+			}
+			event.setLevel(this).setCharacters(builder.length());
+			return builder.toString();
 		}
-		return builder.toString();
 	}
 
 	@Override
@@ -0,0 +1,133 @@
+package com.kaba4cow.maplevel;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Splits a single MAP line into tokens separated by whitespace. The bracket characters {@code ( ) [ ]} are skipped when
+ * they stand alone between whitespace, so texture names containing brackets are kept whole. Numbers are parsed directly
+ * from the line without creating intermediate strings when they have a simple decimal form.
+ */
+class MapLineTokenizer {
+
+	private static final float[] FLOAT_POWERS = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f };
+	private static final long FLOAT_MANTISSA = 1L << 24;
+	private static final double[] DOUBLE_POWERS = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+			1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+	private static final long DOUBLE_MANTISSA = 1L << 53;
+
+	private String line;
+	private int position;
+	private int tokenStart;
+
+	MapLineTokenizer reset(String line) {
+		this.line = line;
+		this.position = 0;
+		this.tokenStart = 0;
+		return this;
+	}
+
+	int getTokenStart() {
+		return this.tokenStart;
+	}
+
+	boolean hasNext() {
+		this.skipDelimiters();
+		return this.position < this.line.length();
+	}
+
+	String nextToken() {
+		int end = this.nextEnd();
+		return this.line.substring(this.tokenStart, end);
+	}
+
+	float nextFloat() {
+		int end = this.nextEnd();
+		int index = this.tokenStart;
+		boolean negative = false;
+		char first = this.line.charAt(index);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			index++;
+		}
+		long mantissa = 0L;
+		int digits = 0;
+		int fraction = -1;
+		for (; index < end; index++) {
+			char character = this.line.charAt(index);
+			if (character >= '0' && character <= '9') {
+				mantissa = mantissa * 10L + (character - '0');
+				digits++;
+				if (fraction >= 0)
+					fraction++;
+				if (mantissa > MapLineTokenizer.FLOAT_MANTISSA)
+					break;
+			} else if (character == '.' && fraction < 0)
+				fraction = 0;
+			else
+				break;
+		}
+		if (index < end || digits == 0 || fraction >= MapLineTokenizer.FLOAT_POWERS.length)
+			return Float.parseFloat(this.line.substring(this.tokenStart, end));
+		float value = fraction > 0 ? mantissa / MapLineTokenizer.FLOAT_POWERS[fraction] : mantissa;
+		return negative ? -value : value;
+	}
+
+	double nextDouble() {
+		int end = this.nextEnd();
+		int index = this.tokenStart;
+		boolean negative = false;
+		char first = this.line.charAt(index);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			index++;
+		}
+		long mantissa = 0L;
+		int digits = 0;
+		int fraction = -1;
+		for (; index < end; index++) {
+			char character = this.line.charAt(index);
+			if (character >= '0' && character <= '9') {
+				mantissa = mantissa * 10L + (character - '0');
+				digits++;
+				if (fraction >= 0)
+					fraction++;
+				if (mantissa > MapLineTokenizer.DOUBLE_MANTISSA)
+					break;
+			} else if (character == '.' && fraction < 0)
+				fraction = 0;
+			else
+				break;
+		}
+		if (index < end || digits == 0 || fraction >= MapLineTokenizer.DOUBLE_POWERS.length)
+			return Double.parseDouble(this.line.substring(this.tokenStart, end));
+		double value = fraction > 0 ? mantissa / MapLineTokenizer.DOUBLE_POWERS[fraction] : mantissa;
+		return negative ? -value : value;
+	}
+
+	private int nextEnd() {
+		this.skipDelimiters();
+		this.tokenStart = this.position;
+		if (this.position >= this.line.length())
+			throw new NoSuchElementException("Unexpected end of line");
+		while (this.position < this.line.length() && this.line.charAt(this.position) > ' ')
+			this.position++;
+		return this.position;
+	}
+
+	private void skipDelimiters() {
+		int length = this.line.length();
+		while (this.position < length) {
+			char character = this.line.charAt(this.position);
+			if (character <= ' ' || MapLineTokenizer.isBracket(character)
+					&& (this.position + 1 == length || this.line.charAt(this.position + 1) <= ' '))
+				this.position++;
+			else
+				break;
+		}
+	}
+
+	private static boolean isBracket(char character) {
+		return character == '(' || character == ')' || character == '[' || character == ']';
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.kaba4cow.maplevel;
+
+import java.io.IOException;
+
+/**
+ * Signals malformed MAP data. Carries the position of the error in the source and the index of the entity and brush
+ * being parsed when it occurred.
+ */
+public class MapParseException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String reason;
+	private final int line;
+	private final int column;
+	private final int entityIndex;
+	private final int brushIndex;
+
+	/**
+	 * Creates a new parse exception.
+	 *
+	 * @param reason      the description of the error
+	 * @param line        the 1-based line of the error
+	 * @param column      the 1-based column of the error
+	 * @param entityIndex the index of the entity being parsed, or {@code -1}
+	 * @param brushIndex  the index of the brush within the entity being parsed, or {@code -1}
+	 * @param cause       the cause of the error, or {@code null}
+	 */
+	public MapParseException(String reason, int line, int column, int entityIndex, int brushIndex, Throwable cause) {
+		super(String.format("%s at line %s, column %s", reason, line, column), cause);
+		this.reason = reason;
+		this.line = line;
+		this.column = column;
+		this.entityIndex = entityIndex;
+		this.brushIndex = brushIndex;
+	}
+
+	/**
+	 * Returns the description of the error without its position.
+	 *
+	 * @return the description of the error
+	 */
+	public String getReason() {
+		return this.reason;
+	}
+
+	/**
+	 * Returns the 1-based line of the error.
+	 *
+	 * @return the line of the error
+	 */
+	public int getLine() {
+		return this.line;
+	}
+
+	/**
+	 * Returns the 1-based column of the error.
+	 *
+	 * @return the column of the error
+	 */
+	public int getColumn() {
+		return this.column;
+	}
+
+	/**
+	 * Returns the index of the entity being parsed when the error occurred.
+	 *
+	 * @return the index of the entity, or {@code -1} if the error occurred outside of an entity
+	 */
+	public int getEntityIndex() {
+		return this.entityIndex;
+	}
+
+	/**
+	 * Returns the index of the brush within its entity being parsed when the error occurred. Skipped patch blocks are
+	 * counted.
+	 *
+	 * @return the index of the brush, or {@code -1} if the error occurred outside of a brush
+	 */
+	public int getBrushIndex() {
+		return this.brushIndex;
+	}
+
+}
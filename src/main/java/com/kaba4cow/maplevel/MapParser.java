@@ -4,28 +4,63 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Predicate;
 
-import com.kaba4cow.maplevel.elements.MapAxis;
 import com.kaba4cow.maplevel.elements.MapBrush;
 import com.kaba4cow.maplevel.elements.MapEntity;
 import com.kaba4cow.maplevel.elements.MapFace;
-import com.kaba4cow.maplevel.elements.MapPoint;
-import com.kaba4cow.maplevel.elements.MapTransform;
+import com.kaba4cow.maplevel.elements.MapProperties;
+import com.kaba4cow.maplevel.profiling.MapEvent;
+import com.kaba4cow.maplevel.profiling.MapEventType;
+import com.kaba4cow.maplevel.profiling.MapProfiler;
 
 /**
  * A utility class for reading MAP data from {@link Reader} or strings and converting it to {@link MapLevel} objects.
+ * Valve220, standard Quake and Quake 3 brush primitive faces are supported, see {@link MapDialect}. Patch and
+ * {@code brushDef3} blocks cannot be represented and are skipped.
+ * <p>
+ * Malformed data is reported as {@link MapParseException} with its line and column. When {@link MapDiagnostics} are
+ * set in the options the errors are collected instead: malformed properties are dropped, malformed brushes are skipped
+ * up to their closing brace and parsing continues. Unexpected content between entities, properties, brushes and faces
+ * is skipped and recorded as a warning unless {@link MapParserOptions#setStrict(boolean)} is set.
+ * <p>
+ * Property values may span several lines and contain quotes escaped with a backslash. A backslash before the closing
+ * quote of a value, such as in {@code "C:\quake\gfx\"}, is kept as part of the value: a quote ends the value when only
+ * whitespace follows it on the line.
  */
 public class MapParser {
 
-	private static final Pattern PROPERTY_PATTERN = Pattern.compile("\"([^\"]*)\"\\s*\"([^\"]*)\"");
+	private final BufferedReader reader;
+	private final MapParserOptions options;
+	private final MapDiagnostics diagnostics;
+	private final MapLineTokenizer tokenizer;
+	private final StringBuilder builder;
+	private MapFaceDecoder decoder;
+	private String line;
+	private String pending;
+	private int lineNumber;
+	private long characters;
+	private int entityIndex;
+	private int brushIndex;
+	private boolean end;
 
-	private MapParser() {}
+	private MapParser(BufferedReader reader, MapParserOptions options) {
+		this.reader = reader;
+		this.options = options;
+		this.diagnostics = options.getDiagnostics();
+		this.tokenizer = new MapLineTokenizer();
+		this.builder = new StringBuilder();
+		this.decoder = Objects.isNull(options.getDialect()) ? null : options.getDialect().getDecoder();
+		this.line = null;
+		this.pending = null;
+		this.lineNumber = 0;
+		this.characters = 0L;
+		this.entityIndex = -1;
+		this.brushIndex = -1;
+		this.end = false;
+	}
 
 	/**
 	 * Reads the MAP data from the specified {@link Reader} and converts its contents to an {@link MapLevel} object. If the
@@ -41,27 +76,46 @@ public class MapParser {
 	 * @throws IOException if an I/O error occurs
 	 */
 	public static MapLevel parse(Reader source, MapLevel target) throws IOException {
+		return MapParser.parse(source, target, new MapParserOptions());
+	}
+
+	/**
+	 * Reads the MAP data from the specified {@link Reader} using the specified options and converts its contents to an
+	 * {@link MapLevel} object. If the {@code target} is not {@code null} its contents are cleared using
+	 * {@link MapLevel#clearEntities()}
+	 * 
+	 * @param source  the {@link Reader} to read the MAP data from
+	 * @param target  the {@link MapLevel} to convert the MAP data to, or {@code null}
+	 * @param options the parser options
+	 * 
+	 * @return the {@link MapLevel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException       if an I/O error occurs
+	 * @throws MapParseException if the data is malformed and no diagnostics are set in the options, or the maximum
+	 *                               number of errors of the diagnostics is exceeded
+	 */
+	public static MapLevel parse(Reader source, MapLevel target, MapParserOptions options) throws IOException {
 		Objects.requireNonNull(source, "Source must not be null");
+		Objects.requireNonNull(options, "Options must not be null");
 		if (Objects.isNull(target))
 			target = new MapLevel();
 		else
 			target.clearEntities();
-		BufferedReader reader = new BufferedReader(source);
-		String line;
-		while ((line = reader.readLine()) != null) {
-			line = line.trim();
-			if (line.isEmpty() || line.startsWith("//"))
-				continue;
-			else if (line.startsWith("{"))
-				MapParser.parseEntity(reader, target);
-		}
-		reader.close();
+		try (BufferedReader reader = new BufferedReader(source);
+				MapEvent event = MapProfiler.begin(MapEventType.PARSE)) {
+			event.setSource(options.getSource()).setLevel(target);
+			MapParser parser = new MapParser(reader, options);
+			parser.parseLevel(target);
+			event.setCharacters(parser.characters);
+		}
 		return target;
 	}
 
 	/**
 	 * Reads the MAP data from the specified string and converts its contents to an {@link MapLevel} object. If the
 	 * {@code target} is not {@code null} its contents are cleared using {@link MapLevel#clearEntities()}
+	 * {@link MapLevel#clearObjects()}
 	 * 
 	 * @param source the string to read the MAP data from
 	 * @param target the {@link MapLevel} to convert the MAP data to, or {@code null}
@@ -75,96 +129,308 @@ public class MapParser {
 		return MapParser.parse(new StringReader(source), target);
 	}
 
-	private static void parseEntity(BufferedReader reader, MapLevel level) throws IOException {
-		MapEntity entity = new MapEntity();
+	/**
+	 * Reads the MAP data from the specified string using the specified options and converts its contents to an
+	 * {@link MapLevel} object. If the {@code target} is not {@code null} its contents are cleared using
+	 * {@link MapLevel#clearEntities()}
+	 * 
+	 * @param source  the string to read the MAP data from
+	 * @param target  the {@link MapLevel} to convert the MAP data to, or {@code null}
+	 * @param options the parser options
+	 * 
+	 * @return the {@link MapLevel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException       if an I/O error occurs
+	 * @throws MapParseException if the data is malformed and no diagnostics are set in the options, or the maximum
+	 *                               number of errors of the diagnostics is exceeded
+	 */
+	public static MapLevel parse(String source, MapLevel target, MapParserOptions options) throws IOException {
+		return MapParser.parse(new StringReader(source), target, options);
+	}
+
+	private String nextLine() throws IOException {
 		String line;
-		while ((line = reader.readLine()) != null) {
-			line = line.trim();
-			if (line.isEmpty() || line.startsWith("//"))
-				continue;
-			else if (line.startsWith("{"))
-				MapParser.parseBrush(reader, entity);
-			else if (line.startsWith("}"))
-				break;
-			else if (line.startsWith("\""))
-				MapParser.parseProperty(line, entity);
+		while (Objects.nonNull(line = this.nextRawLine())) {
+			String trimmed = line.trim();
+			if (!trimmed.isEmpty() && !trimmed.startsWith("//")) {
+				this.line = line;
+				return trimmed;
+			}
 		}
-		level.addEntity(entity);
+		return null;
 	}
 
-	private static void parseProperty(String line, MapEntity entity) {
-		Matcher matcher = MapParser.PROPERTY_PATTERN.matcher(line);
-		if (matcher.matches()) {
-			String key = matcher.group(1);
-			String value = matcher.group(2);
-			entity.getProperties().set(key, value);
+	private String nextRawLine() throws IOException {
+		String line = this.pending;
+		if (Objects.nonNull(line))
+			this.pending = null;
+		else if (Objects.nonNull(line = this.reader.readLine())) {
+			this.lineNumber++;
+			this.characters += line.length() + 1;
 		}
+		else
+			this.end = true;
+		return line;
 	}
 
-	private static void parseBrush(BufferedReader reader, MapEntity entity) throws IOException {
-		MapBrush brush = new MapBrush();
+	private void parseLevel(MapLevel level) throws IOException {
+		String line;
+		int entityCount = 0;
+		while (Objects.nonNull(line = this.nextLine()))
+			if (line.startsWith("{")) {
+				this.entityIndex = entityCount++;
+				this.parseEntity(level);
+				this.entityIndex = -1;
+			} else
+				this.warn("Unexpected content outside of entity", this.lineNumber, this.getColumn(0));
+	}
+
+	private void parseEntity(MapLevel level) throws IOException {
+		MapEntity entity = new MapEntity();
+		long characters = this.characters;
+		try (MapEvent event = MapProfiler.begin(MapEventType.PARSE_ENTITY)) {
+			event.setSource(this.options.getSource()).setEntity(entity);
+			this.parseEntity(level, entity);
+			event.setCharacters(this.characters - characters);
+		}
+	}
+
+	private void parseEntity(MapLevel level, MapEntity entity) throws IOException {
+		int openLine = this.lineNumber;
+		int openColumn = this.getColumn(0);
+		Predicate<MapProperties> filter = this.options.getEntityFilter();
+		boolean accepted = Objects.isNull(filter);
 		String line;
-		while (Objects.nonNull(line = reader.readLine())) {
-			line = line.trim();
-			if (line.isEmpty() || line.startsWith("//"))
-				continue;
-			else if (line.startsWith("}"))
-				break;
-			else if (line.startsWith("("))
-				MapParser.parseFace(line, brush);
+		int brushCount = 0;
+		while (Objects.nonNull(line = this.nextLine())) {
+			if (line.startsWith("{")) {
+				if (!accepted && Objects.nonNull(filter))
+					accepted = filter.test(entity.getProperties());
+				filter = null;
+				this.brushIndex = brushCount++;
+				if (accepted)
+					this.parseBrush(entity);
+				else {
+					int brushLine = this.lineNumber;
+					int brushColumn = this.getColumn(0);
+					if (!this.skipBrush(line))
+						this.error("Unterminated brush", brushLine, brushColumn, null);
+				}
+				this.brushIndex = -1;
+			} else if (line.startsWith("}")) {
+				if (accepted || Objects.nonNull(filter) && filter.test(entity.getProperties()))
+					level.addEntity(entity);
+				return;
+			} else if (line.startsWith("\""))
+				this.parseProperty(line, entity);
+			else
+				this.warn("Unexpected content in entity", this.lineNumber, this.getColumn(0));
 		}
-		entity.addBrush(brush);
+		this.error("Unterminated entity", openLine, openColumn, null);
+		if (accepted || Objects.nonNull(filter) && filter.test(entity.getProperties()))
+			level.addEntity(entity);
 	}
 
-	private static void parseFace(String line, MapBrush brush) {
-		Iterator<String> tokens = MapParser.parseFaceTokens(line).iterator();
+	private boolean skipBrush(String line) throws IOException {
+		int depth = MapParser.countBraces(line, MapParser.skipWhitespace(line, 1), 1);
+		while (depth > 0 && Objects.nonNull(line = this.nextRawLine()))
+			depth = MapParser.countBraces(line, MapParser.skipWhitespace(line, 0), depth);
+		return depth <= 0;
+	}
 
-		MapFace face = new MapFace();
+	private static int countBraces(String line, int index, int depth) {
+		int length = line.length();
+		if (index >= length)
+			return depth;
+		char first = line.charAt(index);
+		if (first != '{' && first != '}' && !line.startsWith("brushDef", index) && !line.startsWith("patchDef", index))
+			return depth;
+		for (; index < length; index++) {
+			char character = line.charAt(index);
+			if (character == '{')
+				depth++;
+			else if (character == '}' && --depth == 0)
+				return 0;
+		}
+		return depth;
+	}
 
-		MapParser.initializePoint(face.getPoint1(), tokens);
-		MapParser.initializePoint(face.getPoint2(), tokens);
-		MapParser.initializePoint(face.getPoint3(), tokens);
+	private void parseProperty(String line, MapEntity entity) throws IOException {
+		int index = this.scanString(line, 1, true);
+		if (index < 0) {
+			this.error("Unterminated property key", this.lineNumber, this.getColumn(0), null);
+			return;
+		}
+		String key = this.builder.toString();
+		index = MapParser.skipWhitespace(line, index);
+		if (index >= line.length() || line.charAt(index) != '"') {
+			this.error("Missing property value", this.lineNumber, this.getColumn(index), null);
+			return;
+		}
+		int valueLine = this.lineNumber;
+		int valueColumn = this.getColumn(index);
+		index = this.scanString(line, index + 1, false);
+		while (index < 0) {
+			line = this.nextRawLine();
+			String trimmed = Objects.isNull(line) ? null : line.trim();
+			if (Objects.isNull(line) || trimmed.startsWith("{") || trimmed.startsWith("}")) {
+				this.pending = line;
+				this.error("Unterminated property value", valueLine, valueColumn, null);
+				return;
+			}
+			this.builder.append('\n');
+			this.line = line;
+			index = this.continueString(line, 0, false);
+		}
+		entity.getProperties().set(key, this.builder.toString());
+		index = MapParser.skipWhitespace(line, index);
+		if (index < line.length())
+			this.warn("Unexpected content after property", this.lineNumber, this.getColumn(index));
+	}
 
-		MapParser.initializeTexture(face, tokens);
+	private int scanString(String text, int index, boolean key) {
+		this.builder.setLength(0);
+		return this.continueString(text, index, key);
+	}
 
-		MapParser.initializeAxis(face.getAxisU(), tokens);
-		MapParser.initializeAxis(face.getAxisV(), tokens);
+	private int continueString(String text, int index, boolean key) {
+		int length = text.length();
+		while (index < length) {
+			char character = text.charAt(index++);
+			if (character == '"')
+				return index;
+			if (character == '\\' && index < length && text.charAt(index) == '"'
+					&& !MapParser.isClosing(text, index + 1, key))
+				character = text.charAt(index++);
+			this.builder.append(character);
+		}
+		return -1;
+	}
 
-		MapParser.initializeTransform(face.getTransform(), tokens);
+	private static boolean isClosing(String text, int index, boolean key) {
+		int next = MapParser.skipWhitespace(text, index);
+		if (next == text.length())
+			return true;
+		return key && next > index && text.charAt(next) == '"';
+	}
 
-		brush.addFace(face);
+	private static int skipWhitespace(String text, int index) {
+		while (index < text.length() && text.charAt(index) <= ' ')
+			index++;
+		return index;
 	}
 
-	private static List<String> parseFaceTokens(String line) {
-		List<String> tokens = new ArrayList<>();
-		String[] parts = line.split("\\s+");
-		for (String part : parts)
-			if (!part.isEmpty() && !part.matches("[()\\[\\]]"))
-				tokens.add(part);
-		return tokens;
+	private void parseBrush(MapEntity entity) throws IOException {
+		int openLine = this.lineNumber;
+		int openColumn = this.getColumn(0);
+		String line = this.nextLine();
+		if (Objects.isNull(line)) {
+			this.error("Unterminated brush", openLine, openColumn, null);
+			return;
+		}
+		if (line.startsWith("brushDef3") || line.startsWith("patchDef")) {
+			if (!this.skipBlock(line))
+				this.error("Unterminated brush", openLine, openColumn, null);
+			return;
+		}
+		MapBrush brush = new MapBrush();
+		boolean valid;
+		if (line.startsWith("brushDef")) {
+			valid = this.parsePrimitives(brush, line);
+			if (!this.end)
+				this.skipBlock(null);
+		} else
+			valid = this.parseFaces(brush, null, line);
+		if (this.end)
+			this.error("Unterminated brush", openLine, openColumn, null);
+		else if (valid)
+			entity.addBrush(brush);
+	}
+
+	private boolean parsePrimitives(MapBrush brush, String line) throws IOException {
+		if (line.indexOf('{') < 0) {
+			if (Objects.isNull(line = this.nextLine()))
+				return false;
+			if (!line.startsWith("{")) {
+				this.pending = this.line;
+				this.error("Expected brush primitive block", this.lineNumber, this.getColumn(0), null);
+				return false;
+			}
+		}
+		return this.parseFaces(brush, MapDialect.BRUSH_PRIMITIVES.getDecoder(), this.nextLine());
 	}
 
-	private static void initializePoint(MapPoint point, Iterator<String> tokens) {
-		point.setX(Float.parseFloat(tokens.next()));
-		point.setY(Float.parseFloat(tokens.next()));
-		point.setZ(Float.parseFloat(tokens.next()));
+	private boolean parseFaces(MapBrush brush, MapFaceDecoder decoder, String line) throws IOException {
+		for (; Objects.nonNull(line); line = this.nextLine()) {
+			if (line.startsWith("}"))
+				return true;
+			boolean valid;
+			if (line.startsWith("("))
+				valid = this.parseFace(line, brush, Objects.isNull(decoder) ? this.getDecoder(line) : decoder);
+			else
+				valid = this.warn("Unexpected content in brush", this.lineNumber, this.getColumn(0));
+			if (!valid) {
+				this.skipBlock(line.startsWith("(") ? null : line);
+				return false;
+			}
+		}
+		return false;
 	}
 
-	private static void initializeTexture(MapFace face, Iterator<String> tokens) {
-		face.setTexture(tokens.next());
+	private MapFaceDecoder getDecoder(String line) {
+		if (Objects.isNull(this.decoder))
+			this.decoder = MapDialect.detect(line).getDecoder();
+		return this.decoder;
 	}
 
-	private static void initializeAxis(MapAxis axis, Iterator<String> tokens) {
-		axis.setX(Float.parseFloat(tokens.next()));
-		axis.setY(Float.parseFloat(tokens.next()));
-		axis.setZ(Float.parseFloat(tokens.next()));
-		axis.setOffset(Float.parseFloat(tokens.next()));
+	private boolean skipBlock(String line) throws IOException {
+		int depth = 1;
+		do {
+			if (Objects.nonNull(line))
+				depth = MapParser.countBraces(line, 0, depth);
+		} while (depth > 0 && Objects.nonNull(line = this.nextLine()));
+		return depth <= 0;
 	}
 
-	private static void initializeTransform(MapTransform transform, Iterator<String> tokens) {
-		transform.setRotation(Float.parseFloat(tokens.next()));
-		transform.setScaleX(Float.parseFloat(tokens.next()));
-		transform.setScaleY(Float.parseFloat(tokens.next()));
+	private boolean parseFace(String line, MapBrush brush, MapFaceDecoder decoder) throws IOException {
+		MapFace face = new MapFace();
+		try {
+			decoder.decode(this.tokenizer.reset(line), face, this.options);
+		} catch (NoSuchElementException exception) {
+			this.error("Truncated face", this.lineNumber, this.getColumn(this.tokenizer.getTokenStart()), exception);
+			return false;
+		} catch (IllegalArgumentException exception) {
+			this.error("Invalid number in face", this.lineNumber, this.getColumn(this.tokenizer.getTokenStart()), exception);
+			return false;
+		}
+		brush.addFace(face);
+		return true;
+	}
+
+	private int getColumn(int offset) {
+		int leading = 0;
+		while (leading < this.line.length() && this.line.charAt(leading) <= ' ')
+			leading++;
+		return leading + offset + 1;
+	}
+
+	private void error(String reason, int line, int column, Throwable cause) throws MapParseException {
+		MapParseException exception = new MapParseException(reason, line, column, this.entityIndex, this.brushIndex, cause);
+		if (Objects.isNull(this.diagnostics))
+			throw exception;
+		this.diagnostics.report(exception);
+	}
+
+	private boolean warn(String reason, int line, int column) throws MapParseException {
+		if (this.options.isStrict()) {
+			this.error(reason, line, column, null);
+			return false;
+		}
+		if (Objects.nonNull(this.diagnostics))
+			this.diagnostics.warn(
+					new MapParseException(reason, line, column, this.entityIndex, this.brushIndex, null));
+		return true;
 	}
 
 }
@@ -0,0 +1,176 @@
+package com.kaba4cow.maplevel;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import com.kaba4cow.maplevel.elements.MapProperties;
+import com.kaba4cow.maplevel.mesh.MapTextureSizes;
+
+/**
+ * Contains the options of {@link MapParser}.
+ */
+public class MapParserOptions {
+
+	private MapDialect dialect;
+	private MapTextureSizes textureSizes;
+	private MapDiagnostics diagnostics;
+	private boolean strict;
+	private Predicate<MapProperties> entityFilter;
+	private String source;
+
+	/**
+	 * Creates new parser options that detect the dialect from the first brush, assume {@code 128x128} textures, fail on
+	 * the first error, skip unexpected content and accept all entities.
+	 */
+	public MapParserOptions() {
+		this.dialect = null;
+		this.textureSizes = MapTextureSizes.of(128, 128);
+		this.diagnostics = null;
+		this.strict = false;
+		this.entityFilter = null;
+		this.source = null;
+	}
+
+	/**
+	 * Returns the dialect of regular brush faces.
+	 * 
+	 * @return the dialect, or {@code null} if it is detected from the first face
+	 */
+	public MapDialect getDialect() {
+		return this.dialect;
+	}
+
+	/**
+	 * Sets the dialect of regular brush faces. Faces of {@code brushDef} blocks are always read as
+	 * {@link MapDialect#BRUSH_PRIMITIVES}.
+	 * 
+	 * @param dialect the dialect, or {@code null} to detect it from the first face
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapParserOptions setDialect(MapDialect dialect) {
+		this.dialect = dialect;
+		return this;
+	}
+
+	/**
+	 * Returns the texture sizes used to convert brush primitive texture matrices.
+	 * 
+	 * @return the texture sizes
+	 */
+	public MapTextureSizes getTextureSizes() {
+		return this.textureSizes;
+	}
+
+	/**
+	 * Sets the texture sizes used to convert brush primitive texture matrices.
+	 * 
+	 * @param textureSizes the texture sizes
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapParserOptions setTextureSizes(MapTextureSizes textureSizes) {
+		this.textureSizes = Objects.requireNonNull(textureSizes, "Texture sizes must not be null");
+		return this;
+	}
+
+	/**
+	 * Returns the diagnostics collecting the errors in recoverable mode.
+	 * 
+	 * @return the diagnostics, or {@code null} if parsing fails on the first error
+	 */
+	public MapDiagnostics getDiagnostics() {
+		return this.diagnostics;
+	}
+
+	/**
+	 * Sets the diagnostics collecting the errors. When set, the parser records each error and continues with the next
+	 * property, brush or entity, otherwise it throws a {@link MapParseException} on the first error.
+	 * 
+	 * @param diagnostics the diagnostics, or {@code null} to fail on the first error
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapParserOptions setDiagnostics(MapDiagnostics diagnostics) {
+		this.diagnostics = diagnostics;
+		return this;
+	}
+
+	/**
+	 * Checks whether unexpected content is treated as an error.
+	 * 
+	 * @return {@code true} if unexpected content is an error, {@code false} if it is skipped
+	 */
+	public boolean isStrict() {
+		return this.strict;
+	}
+
+	/**
+	 * Sets whether unexpected content is treated as an error. Unexpected content consists of lines outside of
+	 * entities, lines in entities or brushes that are neither properties, brushes nor faces, and text after a property.
+	 * By default such content is skipped and only recorded as a warning in the diagnostics if they are set. In strict
+	 * mode it is reported as an error, so the brush containing it is dropped.
+	 * 
+	 * @param strict {@code true} to treat unexpected content as an error
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapParserOptions setStrict(boolean strict) {
+		this.strict = strict;
+		return this;
+	}
+
+	/**
+	 * Returns the filter deciding which entities are kept.
+	 * 
+	 * @return the entity filter, or {@code null} if all entities are kept
+	 */
+	public Predicate<MapProperties> getEntityFilter() {
+		return this.entityFilter;
+	}
+
+	/**
+	 * Sets the filter deciding which entities are kept. The filter is tested against the properties of an entity once
+	 * its first brush starts, or at its end if it has no brushes, so properties written after the brushes are not seen
+	 * by the filter. The brushes of rejected entities are skipped by brace matching without being parsed, and rejected
+	 * entities are not added to the level.
+	 * 
+	 * @param entityFilter the entity filter, or {@code null} to keep all entities
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapParserOptions setEntityFilter(Predicate<MapProperties> entityFilter) {
+		this.entityFilter = entityFilter;
+		return this;
+	}
+
+	/**
+	 * Returns the name of the parsed file or resource.
+	 * 
+	 * @return the name of the source, or {@code null} if unknown
+	 */
+	public String getSource() {
+		return this.source;
+	}
+
+	/**
+	 * Sets the name of the parsed file or resource, reported in the profiling events of the parser, see
+	 * {@link com.kaba4cow.maplevel.profiling.MapProfiler}.
+	 * 
+	 * @param source the name of the source, or {@code null} if unknown
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapParserOptions setSource(String source) {
+		this.source = source;
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapParserOptions [dialect=%s, recoverable=%s, strict=%s, filtered=%s, source=%s]",
+				this.dialect, Objects.nonNull(this.diagnostics), this.strict, Objects.nonNull(this.entityFilter),
+				this.source);
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.kaba4cow.maplevel;
+
+import java.util.Objects;
+
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.geometry.MapPlane;
+
+/**
+ * Decodes standard Quake faces: {@code ( x y z ) ( x y z ) ( x y z ) texture offsetX offsetY rotation scaleX scaleY},
+ * optionally followed by Quake 2 and Quake 3 surface flags which are ignored. The texture axes are derived from the face
+ * plane and rotated the same way as the original Quake tools do.
+ */
+class MapQuakeFaceDecoder implements MapFaceDecoder {
+
+	private static final float[][] BASE_AXES = { //
+			{ 0, 0, 1 }, { 1, 0, 0 }, { 0, -1, 0 }, //
+			{ 0, 0, -1 }, { 1, 0, 0 }, { 0, -1, 0 }, //
+			{ 1, 0, 0 }, { 0, 1, 0 }, { 0, 0, -1 }, //
+			{ -1, 0, 0 }, { 0, 1, 0 }, { 0, 0, -1 }, //
+			{ 0, 1, 0 }, { 1, 0, 0 }, { 0, 0, -1 }, //
+			{ 0, -1, 0 }, { 1, 0, 0 }, { 0, 0, -1 } //
+	};
+
+	@Override
+	public void decode(MapLineTokenizer tokens, MapFace face, MapParserOptions options) {
+		MapValveFaceDecoder.decodePoint(tokens, face.getPoint1());
+		MapValveFaceDecoder.decodePoint(tokens, face.getPoint2());
+		MapValveFaceDecoder.decodePoint(tokens, face.getPoint3());
+		face.setTexture(tokens.nextToken());
+		float offsetX = tokens.nextFloat();
+		float offsetY = tokens.nextFloat();
+		float rotation = tokens.nextFloat();
+		float scaleX = tokens.nextFloat();
+		float scaleY = tokens.nextFloat();
+		float[] axisU = new float[3];
+		float[] axisV = new float[3];
+		MapQuakeFaceDecoder.computeAxes(MapPlane.of(face), rotation, axisU, axisV);
+		face.getAxisU().setX(axisU[0]).setY(axisU[1]).setZ(axisU[2]).setOffset(offsetX);
+		face.getAxisV().setX(axisV[0]).setY(axisV[1]).setZ(axisV[2]).setOffset(offsetY);
+		face.getTransform().setRotation(rotation).setScaleX(scaleX).setScaleY(scaleY);
+	}
+
+	private static void computeAxes(MapPlane plane, float rotation, float[] axisU, float[] axisV) {
+		int best = 0;
+		if (Objects.nonNull(plane)) {
+			double bestDot = 0.0;
+			for (int i = 0; i < 6; i++) {
+				float[] normal = MapQuakeFaceDecoder.BASE_AXES[i * 3];
+				double dot = plane.getNormalX() * normal[0] + plane.getNormalY() * normal[1]
+						+ plane.getNormalZ() * normal[2];
+				if (dot > bestDot) {
+					bestDot = dot;
+					best = i;
+				}
+			}
+		}
+		System.arraycopy(MapQuakeFaceDecoder.BASE_AXES[best * 3 + 1], 0, axisU, 0, 3);
+		System.arraycopy(MapQuakeFaceDecoder.BASE_AXES[best * 3 + 2], 0, axisV, 0, 3);
+		double sin;
+		double cos;
+		if (rotation == 0.0f) {
+			sin = 0.0;
+			cos = 1.0;
+		} else if (rotation == 90.0f) {
+			sin = 1.0;
+			cos = 0.0;
+		} else if (rotation == 180.0f) {
+			sin = 0.0;
+			cos = -1.0;
+		} else if (rotation == 270.0f) {
+			sin = -1.0;
+			cos = 0.0;
+		} else {
+			double angle = Math.toRadians(rotation);
+			sin = Math.sin(angle);
+			cos = Math.cos(angle);
+		}
+		int s = MapQuakeFaceDecoder.axisIndex(axisU);
+		int t = MapQuakeFaceDecoder.axisIndex(axisV);
+		MapQuakeFaceDecoder.rotate(axisU, s, t, sin, cos);
+		MapQuakeFaceDecoder.rotate(axisV, s, t, sin, cos);
+	}
+
+	private static int axisIndex(float[] axis) {
+		if (axis[0] != 0.0f)
+			return 0;
+		else if (axis[1] != 0.0f)
+			return 1;
+		else
+			return 2;
+	}
+
+	private static void rotate(float[] axis, int s, int t, double sin, double cos) {
+		double ns = cos * axis[s] - sin * axis[t];
+		double nt = sin * axis[s] + cos * axis[t];
+		axis[s] = (float) ns;
+		axis[t] = (float) nt;
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.kaba4cow.maplevel;
+
+import com.kaba4cow.maplevel.elements.MapAxis;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.elements.MapPoint;
+import com.kaba4cow.maplevel.elements.MapTransform;
+
+/**
+ * Decodes Valve220 faces: {@code ( x y z ) ( x y z ) ( x y z ) texture [ ux uy uz offset ] [ vx vy vz offset ] rotation
+ * scaleX scaleY}.
+ */
+class MapValveFaceDecoder implements MapFaceDecoder {
+
+	@Override
+	public void decode(MapLineTokenizer tokens, MapFace face, MapParserOptions options) {
+		MapValveFaceDecoder.decodePoint(tokens, face.getPoint1());
+		MapValveFaceDecoder.decodePoint(tokens, face.getPoint2());
+		MapValveFaceDecoder.decodePoint(tokens, face.getPoint3());
+		face.setTexture(tokens.nextToken());
+		MapValveFaceDecoder.decodeAxis(tokens, face.getAxisU());
+		MapValveFaceDecoder.decodeAxis(tokens, face.getAxisV());
+		MapTransform transform = face.getTransform();
+		transform.setRotation(tokens.nextFloat());
+		transform.setScaleX(tokens.nextFloat());
+		transform.setScaleY(tokens.nextFloat());
+	}
+
+	static void decodePoint(MapLineTokenizer tokens, MapPoint point) {
+		double x = tokens.nextDouble();
+		double y = tokens.nextDouble();
+		point.setExact(x, y, tokens.nextDouble());
+	}
+
+	private static void decodeAxis(MapLineTokenizer tokens, MapAxis axis) {
+		axis.setX(tokens.nextFloat());
+		axis.setY(tokens.nextFloat());
+		axis.setZ(tokens.nextFloat());
+		axis.setOffset(tokens.nextFloat());
+	}
+
+}
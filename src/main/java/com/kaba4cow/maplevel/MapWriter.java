@@ -0,0 +1,289 @@
+package com.kaba4cow.maplevel;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.profiling.MapEvent;
+import com.kaba4cow.maplevel.profiling.MapEventType;
+import com.kaba4cow.maplevel.profiling.MapProfiler;
+
+/**
+ * Writes the MAP string representation of a {@link MapLevel} in parallel. The level is split into chunks of about
+ * {@link #getChunkSize()} brushes, consecutive small entities are grouped into a single chunk and entities with many
+ * brushes are split into several chunks. Chunks are formatted and encoded on a {@link ForkJoinPool} and written to the
+ * target in their original order, so the output is identical to {@link MapLevel#toMapString()}. At most
+ * {@link #getMaxInFlight()} chunks are formatted or waiting to be written at any time, which bounds the memory used
+ * regardless of the size of the level.
+ */
+public class MapWriter {
+
+	private ForkJoinPool pool;
+	private int chunkSize;
+	private int maxInFlight;
+	private Charset charset;
+
+	/**
+	 * Creates a new writer using the common pool, chunks of {@code 256} brushes, four chunks in flight per thread of the
+	 * pool and UTF-8 encoding.
+	 */
+	public MapWriter() {
+		this.pool = ForkJoinPool.commonPool();
+		this.chunkSize = 256;
+		this.maxInFlight = 4 * this.pool.getParallelism();
+		this.charset = StandardCharsets.UTF_8;
+	}
+
+	/**
+	 * Returns the pool the chunks are formatted on.
+	 *
+	 * @return the pool
+	 */
+	public ForkJoinPool getPool() {
+		return this.pool;
+	}
+
+	/**
+	 * Sets the pool the chunks are formatted on.
+	 *
+	 * @param pool the pool
+	 *
+	 * @return a reference to this object
+	 */
+	public MapWriter setPool(ForkJoinPool pool) {
+		this.pool = Objects.requireNonNull(pool, "Pool must not be null");
+		return this;
+	}
+
+	/**
+	 * Returns the approximate number of brushes formatted by a single task.
+	 *
+	 * @return the number of brushes per chunk
+	 */
+	public int getChunkSize() {
+		return this.chunkSize;
+	}
+
+	/**
+	 * Sets the approximate number of brushes formatted by a single task. Each entity counts as one additional brush.
+	 *
+	 * @param chunkSize the number of brushes per chunk
+	 *
+	 * @return a reference to this object
+	 */
+	public MapWriter setChunkSize(int chunkSize) {
+		if (chunkSize < 1)
+			throw new IllegalArgumentException("Chunk size must be positive");
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	/**
+	 * Returns the maximum number of chunks formatted or waiting to be written at any time.
+	 *
+	 * @return the maximum number of chunks in flight
+	 */
+	public int getMaxInFlight() {
+		return this.maxInFlight;
+	}
+
+	/**
+	 * Sets the maximum number of chunks formatted or waiting to be written at any time.
+	 *
+	 * @param maxInFlight the maximum number of chunks in flight
+	 *
+	 * @return a reference to this object
+	 */
+	public MapWriter setMaxInFlight(int maxInFlight) {
+		if (maxInFlight < 1)
+			throw new IllegalArgumentException("Maximum number of chunks in flight must be positive");
+		this.maxInFlight = maxInFlight;
+		return this;
+	}
+
+	/**
+	 * Returns the charset used when writing to streams and files.
+	 *
+	 * @return the charset
+	 */
+	public Charset getCharset() {
+		return this.charset;
+	}
+
+	/**
+	 * Sets the charset used when writing to streams and files.
+	 *
+	 * @param charset the charset
+	 *
+	 * @return a reference to this object
+	 */
+	public MapWriter setCharset(Charset charset) {
+		this.charset = Objects.requireNonNull(charset, "Charset must not be null");
+		return this;
+	}
+
+	/**
+	 * Converts the specified level to its MAP string representation. The result is identical to
+	 * {@link MapLevel#toMapString()}. The level must not be modified while it is being converted.
+	 *
+	 * @param level the level to convert
+	 *
+	 * @return the MAP string representation of the level
+	 */
+	public String toMapString(MapLevel level) {
+		StringBuilder builder = new StringBuilder();
+		try {
+			this.write(level, null, Function.identity(), builder::append);
+		} catch (IOException exception) {
+			throw new IllegalStateException(exception);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Writes the MAP string representation of the specified level to a character stream. The stream is not closed. The
+	 * level must not be modified while it is being written.
+	 *
+	 * @param level  the level to write
+	 * @param target the stream to write to
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(MapLevel level, Writer target) throws IOException {
+		Objects.requireNonNull(target, "Target must not be null");
+		this.write(level, null, Function.identity(), target::write);
+	}
+
+	/**
+	 * Writes the MAP string representation of the specified level to a byte stream, encoded with
+	 * {@link #getCharset()}. Chunks are encoded in parallel. The stream is not closed. The level must not be modified
+	 * while it is being written.
+	 *
+	 * @param level  the level to write
+	 * @param target the stream to write to
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(MapLevel level, OutputStream target) throws IOException {
+		Objects.requireNonNull(target, "Target must not be null");
+		this.write(level, null, target);
+	}
+
+	/**
+	 * Writes the MAP string representation of the specified level to a file, encoded with {@link #getCharset()}. The
+	 * level must not be modified while it is being written.
+	 *
+	 * @param level  the level to write
+	 * @param target the path of the file to write to
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(MapLevel level, Path target) throws IOException {
+		Objects.requireNonNull(target, "Target must not be null");
+		try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(target))) {
+			this.write(level, target.toString(), output);
+		}
+	}
+
+	private void write(MapLevel level, String source, OutputStream target) throws IOException {
+		Charset charset = this.charset;
+		this.write(level, source, chunk -> chunk.getBytes(charset), target::write);
+	}
+
+	private <T> void write(MapLevel level, String source, Function<String, T> encoder, MapChunkSink<T> sink)
+			throws IOException {
+		Objects.requireNonNull(level, "Level must not be null");
+		try (MapEvent event = MapProfiler.begin(MapEventType.WRITE)) {
+			LongAdder characters = new LongAdder();
+			event.setSource(source).setLevel(level);
+			this.write(level, chunk -> {
+				characters.add(chunk.length());
+				return encoder.apply(chunk);
+			}, sink);
+			event.setCharacters(characters.sum());
+		}
+	}
+
+	private <T> void write(MapLevel level, Function<String, T> encoder, MapChunkSink<T> sink) throws IOException {
+		int entityCount = level.getEntityCount();
+		ArrayDeque<ForkJoinTask<T>> tasks = new ArrayDeque<>();
+		int entity = 0;
+		int brush = 0;
+		try {
+			while (entity < entityCount || !tasks.isEmpty()) {
+				while (entity < entityCount && tasks.size() < this.maxInFlight) {
+					int fromEntity = entity;
+					int fromBrush = brush;
+					int budget = this.chunkSize;
+					while (entity < entityCount && budget > 0) {
+						int brushCount = level.getEntity(entity).getBrushCount();
+						int count = Math.min(brushCount - brush, budget);
+						brush += count;
+						budget -= count;
+						if (brush == brushCount) {
+							entity++;
+							brush = 0;
+							budget--;
+						}
+					}
+					int toEntity = entity;
+					int toBrush = brush;
+					tasks.add(this.pool.submit(() -> encoder
+							.apply(MapWriter.format(level, fromEntity, fromBrush, toEntity, toBrush))));
+				}
+				sink.accept(tasks.poll().join());
+			}
+		} finally {
+			for (ForkJoinTask<T> task : tasks)
+				task.cancel(false);
+		}
+	}
+
+	private static String format(MapLevel level, int fromEntity, int fromBrush, int toEntity, int toBrush) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = fromEntity; i < toEntity || i == toEntity && toBrush > 0; i++) {
+			MapEntity entity = level.getEntity(i);
+			int brushCount = entity.getBrushCount();
+			int from = i == fromEntity ? fromBrush : 0;
+			int to = i == toEntity ? toBrush : brushCount;
+			if (from == 0) {
+				builder.append(String.format("// Entity %s\n", i));
+				builder.append("{\n");
+				builder.append(entity.getProperties().toMapString());
+			}
+			for (int j = from; j < to; j++) {
+				builder.append(String.format("// Brush %s\n", j));
+				builder.append(entity.getBrush(j).toMapString()).append("\n");
+			}
+			if (to == brushCount)
+				builder.append("}");
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapWriter [chunkSize=%s, maxInFlight=%s, charset=%s]", this.chunkSize, this.maxInFlight,
+				this.charset);
+	}
+
+	@FunctionalInterface
+	private interface MapChunkSink<T> {
+
+		void accept(T chunk) throws IOException;
+
+	}
+
+}
@@ -0,0 +1,233 @@
+package com.kaba4cow.maplevel.bsp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.geometry.MapBounds;
+import com.kaba4cow.maplevel.geometry.MapPlane;
+import com.kaba4cow.maplevel.geometry.MapPlaneTable;
+import com.kaba4cow.maplevel.geometry.MapPolygon;
+import com.kaba4cow.maplevel.geometry.MapPolygonizer;
+import com.kaba4cow.maplevel.profiling.MapEvent;
+import com.kaba4cow.maplevel.profiling.MapEventType;
+import com.kaba4cow.maplevel.profiling.MapProfiler;
+
+/**
+ * Builds {@link MapBspTree} objects from the face polygons of MAP brushes. Splitting planes are chosen among the face
+ * planes using a {@link MapBspHeuristic}, subtrees are built in parallel on a {@link ForkJoinPool}.
+ */
+public class MapBspBuilder {
+
+	private static final double WORLD_MARGIN = 64.0;
+
+	private MapBspHeuristic heuristic;
+	private int maxCandidates;
+	private int parallelThreshold;
+	private ForkJoinPool pool;
+
+	/**
+	 * Creates a new BSP builder using the {@link MapBspHeuristic#DEFAULT} heuristic and the common pool.
+	 */
+	public MapBspBuilder() {
+		this.heuristic = MapBspHeuristic.DEFAULT;
+		this.maxCandidates = 32;
+		this.parallelThreshold = 512;
+		this.pool = ForkJoinPool.commonPool();
+	}
+
+	/**
+	 * Returns the heuristic used to choose splitting planes.
+	 * 
+	 * @return the heuristic
+	 */
+	public MapBspHeuristic getHeuristic() {
+		return this.heuristic;
+	}
+
+	/**
+	 * Sets the heuristic used to choose splitting planes.
+	 * 
+	 * @param heuristic the heuristic
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapBspBuilder setHeuristic(MapBspHeuristic heuristic) {
+		this.heuristic = Objects.requireNonNull(heuristic, "Heuristic must not be null");
+		return this;
+	}
+
+	/**
+	 * Returns the maximum number of candidate planes evaluated at each node.
+	 * 
+	 * @return the maximum number of candidates
+	 */
+	public int getMaxCandidates() {
+		return this.maxCandidates;
+	}
+
+	/**
+	 * Sets the maximum number of candidate planes evaluated at each node. Candidates are sampled evenly from the polygons
+	 * of the node.
+	 * 
+	 * @param maxCandidates the maximum number of candidates
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapBspBuilder setMaxCandidates(int maxCandidates) {
+		this.maxCandidates = Math.max(1, maxCandidates);
+		return this;
+	}
+
+	/**
+	 * Returns the minimum number of polygons of a node for its subtrees to be built in parallel.
+	 * 
+	 * @return the parallel threshold
+	 */
+	public int getParallelThreshold() {
+		return this.parallelThreshold;
+	}
+
+	/**
+	 * Sets the minimum number of polygons of a node for its subtrees to be built in parallel.
+	 * 
+	 * @param parallelThreshold the parallel threshold
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapBspBuilder setParallelThreshold(int parallelThreshold) {
+		this.parallelThreshold = parallelThreshold;
+		return this;
+	}
+
+	/**
+	 * Returns the pool used to build subtrees in parallel.
+	 * 
+	 * @return the fork-join pool
+	 */
+	public ForkJoinPool getPool() {
+		return this.pool;
+	}
+
+	/**
+	 * Sets the pool used to build subtrees in parallel.
+	 * 
+	 * @param pool the fork-join pool
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapBspBuilder setPool(ForkJoinPool pool) {
+		this.pool = Objects.requireNonNull(pool, "Pool must not be null");
+		return this;
+	}
+
+	/**
+	 * Builds the tree of the world brushes of the specified level, that is the brushes of all entities with the
+	 * {@code worldspawn} class name.
+	 * 
+	 * @param level the level to build the tree of
+	 * 
+	 * @return the built tree
+	 */
+	public MapBspTree build(MapLevel level) {
+		Objects.requireNonNull(level, "Level must not be null");
+		List<MapBrush> brushes = new ArrayList<>();
+		for (int i = 0; i < level.getEntityCount(); i++) {
+			MapEntity entity = level.getEntity(i);
+			if (Objects.equals(entity.getProperties().get("classname"), "worldspawn"))
+				brushes.addAll(entity.getBrushes());
+		}
+		return this.build(brushes);
+	}
+
+	/**
+	 * Builds the tree of the specified brushes.
+	 * 
+	 * @param brushes the brushes to build the tree of
+	 * 
+	 * @return the built tree
+	 */
+	public MapBspTree build(List<MapBrush> brushes) {
+		Objects.requireNonNull(brushes, "Brushes must not be null");
+		try (MapEvent event = MapProfiler.begin(MapEventType.BSP)) {
+			event.setBrushes(brushes);
+			long start = System.nanoTime();
+			MapPlaneTable planeTable = new MapPlaneTable();
+			List<MapBspPolygon> polygons = new ArrayList<>();
+			MapPlane[][] brushPlanes = new MapPlane[brushes.size()][];
+			MapBounds[] brushBounds = new MapBounds[brushes.size()];
+			MapBounds world = null;
+			for (int i = 0; i < brushes.size(); i++) {
+				MapPlane[] planes = MapPolygonizer.planes(brushes.get(i));
+				MapPolygon[] faces = MapPolygonizer.polygonize(planes);
+				List<MapPlane> bounding = new ArrayList<>();
+				for (int j = 0; j < faces.length; j++)
+					if (Objects.nonNull(faces[j])) {
+						polygons.add(new MapBspPolygon(faces[j], planeTable.add(planes[j])));
+						bounding.add(planes[j]);
+					}
+				brushPlanes[i] = bounding.toArray(new MapPlane[0]);
+				brushBounds[i] = MapBounds.of(faces);
+				if (Objects.nonNull(brushBounds[i]))
+					world = Objects.isNull(world) ? brushBounds[i] : world.union(brushBounds[i]);
+			}
+			MapPlane[] planes = new MapPlane[planeTable.size()];
+			for (int i = 0; i < planes.length; i++)
+				planes[i] = planeTable.getPlane(i);
+			MapBspContext context = new MapBspContext(planes, MapBspBuilder.createWorldPlanes(world), brushPlanes,
+					brushBounds, this.heuristic, this.maxCandidates, this.parallelThreshold);
+			MapBspNode root = this.pool
+					.invoke(new MapBspTask(context, polygons.toArray(new MapBspPolygon[0]), new int[0]));
+			return MapBspBuilder.createTree(planeTable, planes, root, context, System.nanoTime() - start);
+		}
+	}
+
+	private static MapPlane[] createWorldPlanes(MapBounds world) {
+		if (Objects.isNull(world))
+			world = new MapBounds(0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+		double margin = MapBspBuilder.WORLD_MARGIN;
+		return new MapPlane[] { //
+				new MapPlane(1.0, 0.0, 0.0, world.getMaxX() + margin), //
+				new MapPlane(0.0, 1.0, 0.0, world.getMaxY() + margin), //
+				new MapPlane(0.0, 0.0, 1.0, world.getMaxZ() + margin), //
+				new MapPlane(-1.0, 0.0, 0.0, -world.getMinX() + margin), //
+				new MapPlane(0.0, -1.0, 0.0, -world.getMinY() + margin), //
+				new MapPlane(0.0, 0.0, -1.0, -world.getMinZ() + margin) //
+		};
+	}
+
+	private static MapBspTree createTree(MapPlaneTable planeTable, MapPlane[] planes, MapBspNode root,
+			MapBspContext context, long buildTime) {
+		List<MapBspNode> leaves = new ArrayList<>();
+		List<MapBspPortal> portals = new ArrayList<>();
+		int nodeCount = 0;
+		int solidLeafCount = 0;
+		Deque<MapBspNode> stack = new ArrayDeque<>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			MapBspNode node = stack.pop();
+			if (node.isLeaf()) {
+				node.setLeafIndex(leaves.size());
+				leaves.add(node);
+				if (node.isSolid())
+					solidLeafCount++;
+			} else {
+				nodeCount++;
+				portals.addAll(node.getPortals());
+				node.setPortals(null);
+				stack.push(node.getBack());
+				stack.push(node.getFront());
+			}
+		}
+		MapBspStatistics statistics = new MapBspStatistics(nodeCount, leaves.size(), solidLeafCount, portals.size(),
+				context.splits.sum(), context.maxDepth.get(), buildTime);
+		return new MapBspTree(planeTable, planes, root, leaves, portals, statistics);
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.kaba4cow.maplevel.bsp;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.kaba4cow.maplevel.geometry.MapBounds;
+import com.kaba4cow.maplevel.geometry.MapBoundsIndex;
+import com.kaba4cow.maplevel.geometry.MapPlane;
+
+/**
+ * Holds the immutable input and the shared counters of a single BSP construction.
+ */
+class MapBspContext {
+
+	final MapPlane[] planes;
+	final MapPlane[] worldPlanes;
+	final MapPlane[][] brushPlanes;
+	final MapBoundsIndex brushIndex;
+	final MapBspHeuristic heuristic;
+	final int maxCandidates;
+	final int parallelThreshold;
+
+	final LongAdder splits;
+	final AtomicInteger maxDepth;
+
+	MapBspContext(MapPlane[] planes, MapPlane[] worldPlanes, MapPlane[][] brushPlanes, MapBounds[] brushBounds,
+			MapBspHeuristic heuristic, int maxCandidates, int parallelThreshold) {
+		this.planes = planes;
+		this.worldPlanes = worldPlanes;
+		this.brushPlanes = brushPlanes;
+		this.brushIndex = new MapBoundsIndex(brushBounds);
+		this.heuristic = heuristic;
+		this.maxCandidates = maxCandidates;
+		this.parallelThreshold = parallelThreshold;
+		this.splits = new LongAdder();
+		this.maxDepth = new AtomicInteger();
+	}
+
+	boolean isSolid(double x, double y, double z) {
+		MapBounds point = new MapBounds(x, y, z, x, y, z);
+		boolean[] solid = new boolean[1];
+		this.brushIndex.query(point, MapPlane.EPSILON, brush -> {
+			if (!solid[0] && this.contains(this.brushPlanes[brush], x, y, z))
+				solid[0] = true;
+		});
+		return solid[0];
+	}
+
+	private boolean contains(MapPlane[] planes, double x, double y, double z) {
+		for (MapPlane plane : planes)
+			if (plane.distanceTo(x, y, z) >= -MapPlane.EPSILON)
+				return false;
+		return true;
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.kaba4cow.maplevel.bsp;
+
+import com.kaba4cow.maplevel.geometry.MapPlane;
+
+/**
+ * Estimates the cost of splitting a set of polygons by a candidate plane. The builder picks the candidate with the lowest
+ * cost.
+ */
+@FunctionalInterface
+public interface MapBspHeuristic {
+
+	/**
+	 * The default heuristic, penalizing split polygons eight times more than imbalance and preferring axial planes.
+	 */
+	public static final MapBspHeuristic DEFAULT = MapBspHeuristic.balanced(8.0, 1.0, 4.0);
+
+	/**
+	 * Calculates the cost of splitting by the specified plane.
+	 * 
+	 * @param plane    the candidate plane
+	 * @param front    the number of polygons in front of the plane
+	 * @param back     the number of polygons behind the plane
+	 * @param spanning the number of polygons crossing the plane
+	 * @param on       the number of polygons lying on the plane
+	 * 
+	 * @return the cost of the split
+	 */
+	public double cost(MapPlane plane, int front, int back, int spanning, int on);
+
+	/**
+	 * Creates a heuristic weighting the number of split polygons against the difference between the front and back sides.
+	 * 
+	 * @param splitWeight   the weight of each split polygon
+	 * @param balanceWeight the weight of the imbalance between the sides
+	 * @param axialBonus    the cost reduction for planes perpendicular to a coordinate axis
+	 * 
+	 * @return the heuristic
+	 */
+	public static MapBspHeuristic balanced(double splitWeight, double balanceWeight, double axialBonus) {
+		return (plane, front, back, spanning, on) -> {
+			double cost = splitWeight * spanning + balanceWeight * Math.abs(front - back);
+			double axis = Math.max(Math.abs(plane.getNormalX()),
+					Math.max(Math.abs(plane.getNormalY()), Math.abs(plane.getNormalZ())));
+			return axis > 1.0 - MapPlane.EPSILON ? cost - axialBonus : cost;
+		};
+	}
+
+}
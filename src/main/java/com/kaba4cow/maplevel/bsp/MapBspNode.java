@@ -0,0 +1,121 @@
+package com.kaba4cow.maplevel.bsp;
+
+import java.util.List;
+
+import com.kaba4cow.maplevel.geometry.MapBounds;
+
+/**
+ * Represents a node or a leaf of a {@link MapBspTree}. Nodes split space by a plane into a front and a back child,
+ * leaves are convex regions that are either solid or empty.
+ */
+public class MapBspNode {
+
+	private final int planeIndex;
+	private final MapBspNode front;
+	private final MapBspNode back;
+	private final boolean solid;
+	private final MapBounds bounds;
+	private int leafIndex;
+	private List<MapBspPortal> portals;
+
+	MapBspNode(int planeIndex, MapBspNode front, MapBspNode back) {
+		this.planeIndex = planeIndex;
+		this.front = front;
+		this.back = back;
+		this.solid = false;
+		this.bounds = null;
+		this.leafIndex = -1;
+	}
+
+	MapBspNode(boolean solid, MapBounds bounds) {
+		this.planeIndex = -1;
+		this.front = null;
+		this.back = null;
+		this.solid = solid;
+		this.bounds = bounds;
+		this.leafIndex = -1;
+	}
+
+	/**
+	 * Checks if this node is a leaf.
+	 * 
+	 * @return {@code true} if this node is a leaf, {@code false} otherwise
+	 */
+	public boolean isLeaf() {
+		return this.planeIndex < 0;
+	}
+
+	/**
+	 * Returns the index of the splitting plane in the plane table of the tree.
+	 * 
+	 * @return the plane index, or {@code -1} for leaves
+	 */
+	public int getPlaneIndex() {
+		return this.planeIndex;
+	}
+
+	/**
+	 * Returns the child in front of the splitting plane.
+	 * 
+	 * @return the front child, or {@code null} for leaves
+	 */
+	public MapBspNode getFront() {
+		return this.front;
+	}
+
+	/**
+	 * Returns the child behind the splitting plane.
+	 * 
+	 * @return the back child, or {@code null} for leaves
+	 */
+	public MapBspNode getBack() {
+		return this.back;
+	}
+
+	/**
+	 * Checks if this leaf lies inside a brush.
+	 * 
+	 * @return {@code true} if this is a solid leaf, {@code false} otherwise
+	 */
+	public boolean isSolid() {
+		return this.solid;
+	}
+
+	/**
+	 * Returns the bounds of this leaf, clamped to the bounds of the tree.
+	 * 
+	 * @return the leaf bounds, or {@code null} for nodes and degenerate leaves
+	 */
+	public MapBounds getBounds() {
+		return this.bounds;
+	}
+
+	/**
+	 * Returns the index of this leaf in {@link MapBspTree#getLeaves()}.
+	 * 
+	 * @return the leaf index, or {@code -1} for nodes
+	 */
+	public int getLeafIndex() {
+		return this.leafIndex;
+	}
+
+	void setLeafIndex(int leafIndex) {
+		this.leafIndex = leafIndex;
+	}
+
+	List<MapBspPortal> getPortals() {
+		return this.portals;
+	}
+
+	void setPortals(List<MapBspPortal> portals) {
+		this.portals = portals;
+	}
+
+	@Override
+	public String toString() {
+		if (this.isLeaf())
+			return String.format("MapBspNode [leaf=%s, solid=%s]", this.leafIndex, this.solid);
+		return String.format("MapBspNode [plane=%s]", this.planeIndex);
+	}
+
+}
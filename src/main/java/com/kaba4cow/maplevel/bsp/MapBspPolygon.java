@@ -0,0 +1,18 @@
+package com.kaba4cow.maplevel.bsp;
+
+import com.kaba4cow.maplevel.geometry.MapPolygon;
+
+/**
+ * A face polygon fragment tagged with the index of its plane.
+ */
+class MapBspPolygon {
+
+	final MapPolygon polygon;
+	final int planeIndex;
+
+	MapBspPolygon(MapPolygon polygon, int planeIndex) {
+		this.polygon = polygon;
+		this.planeIndex = planeIndex;
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.kaba4cow.maplevel.bsp;
+
+import com.kaba4cow.maplevel.geometry.MapPolygon;
+
+/**
+ * Represents a convex opening between two empty leaves of a {@link MapBspTree}.
+ */
+public class MapBspPortal {
+
+	private final MapPolygon polygon;
+	private final int planeIndex;
+	private final MapBspNode front;
+	private final MapBspNode back;
+
+	MapBspPortal(MapPolygon polygon, int planeIndex, MapBspNode front, MapBspNode back) {
+		this.polygon = polygon;
+		this.planeIndex = planeIndex;
+		this.front = front;
+		this.back = back;
+	}
+
+	/**
+	 * Returns the polygon of the portal.
+	 * 
+	 * @return the portal polygon
+	 */
+	public MapPolygon getPolygon() {
+		return this.polygon;
+	}
+
+	/**
+	 * Returns the index of the portal plane in the plane table of the tree. The plane faces the front leaf.
+	 * 
+	 * @return the plane index
+	 */
+	public int getPlaneIndex() {
+		return this.planeIndex;
+	}
+
+	/**
+	 * Returns the leaf in front of the portal plane.
+	 * 
+	 * @return the front leaf
+	 */
+	public MapBspNode getFront() {
+		return this.front;
+	}
+
+	/**
+	 * Returns the leaf behind the portal plane.
+	 * 
+	 * @return the back leaf
+	 */
+	public MapBspNode getBack() {
+		return this.back;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapBspPortal [plane=%s, front=%s, back=%s]", this.planeIndex, this.front.getLeafIndex(),
+				this.back.getLeafIndex());
+	}
+
+}
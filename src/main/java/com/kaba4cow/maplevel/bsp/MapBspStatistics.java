@@ -0,0 +1,107 @@
+package com.kaba4cow.maplevel.bsp;
+
+/**
+ * Contains statistics of a built {@link MapBspTree}.
+ */
+public class MapBspStatistics {
+
+	private final int nodeCount;
+	private final int leafCount;
+	private final int solidLeafCount;
+	private final int portalCount;
+	private final long splitCount;
+	private final int maxDepth;
+	private final long buildTime;
+
+	MapBspStatistics(int nodeCount, int leafCount, int solidLeafCount, int portalCount, long splitCount, int maxDepth,
+			long buildTime) {
+		this.nodeCount = nodeCount;
+		this.leafCount = leafCount;
+		this.solidLeafCount = solidLeafCount;
+		this.portalCount = portalCount;
+		this.splitCount = splitCount;
+		this.maxDepth = maxDepth;
+		this.buildTime = buildTime;
+	}
+
+	/**
+	 * Returns the number of inner nodes of the tree.
+	 * 
+	 * @return the number of nodes
+	 */
+	public int getNodeCount() {
+		return this.nodeCount;
+	}
+
+	/**
+	 * Returns the number of leaves of the tree.
+	 * 
+	 * @return the number of leaves
+	 */
+	public int getLeafCount() {
+		return this.leafCount;
+	}
+
+	/**
+	 * Returns the number of solid leaves of the tree.
+	 * 
+	 * @return the number of solid leaves
+	 */
+	public int getSolidLeafCount() {
+		return this.solidLeafCount;
+	}
+
+	/**
+	 * Returns the number of empty leaves of the tree.
+	 * 
+	 * @return the number of empty leaves
+	 */
+	public int getEmptyLeafCount() {
+		return this.leafCount - this.solidLeafCount;
+	}
+
+	/**
+	 * Returns the number of portals between empty leaves.
+	 * 
+	 * @return the number of portals
+	 */
+	public int getPortalCount() {
+		return this.portalCount;
+	}
+
+	/**
+	 * Returns the number of polygons split during the construction.
+	 * 
+	 * @return the number of split polygons
+	 */
+	public long getSplitCount() {
+		return this.splitCount;
+	}
+
+	/**
+	 * Returns the maximum depth of a leaf.
+	 * 
+	 * @return the maximum depth
+	 */
+	public int getMaxDepth() {
+		return this.maxDepth;
+	}
+
+	/**
+	 * Returns the wall-clock time taken to build the tree.
+	 * 
+	 * @return the build time in nanoseconds
+	 */
+	public long getBuildTime() {
+		return this.buildTime;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"MapBspStatistics [nodes=%s, leaves=%s, solidLeaves=%s, portals=%s, splits=%s, maxDepth=%s, buildTime=%s]",
+				this.nodeCount, this.leafCount, this.solidLeafCount, this.portalCount, this.splitCount, this.maxDepth,
+				this.buildTime);
+	}
+
+}
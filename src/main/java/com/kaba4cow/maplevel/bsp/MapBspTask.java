@@ -0,0 +1,209 @@
+package com.kaba4cow.maplevel.bsp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RecursiveTask;
+
+import com.kaba4cow.maplevel.geometry.MapBounds;
+import com.kaba4cow.maplevel.geometry.MapPlane;
+import com.kaba4cow.maplevel.geometry.MapPlaneTable;
+import com.kaba4cow.maplevel.geometry.MapPolygon;
+import com.kaba4cow.maplevel.geometry.MapPolygonizer;
+
+/**
+ * Builds the subtree of a set of polygons. Large subtrees fork their front side to the pool.
+ */
+class MapBspTask extends RecursiveTask<MapBspNode> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final MapBspContext context;
+	private final MapBspPolygon[] polygons;
+	private final int[] path;
+
+	MapBspTask(MapBspContext context, MapBspPolygon[] polygons, int[] path) {
+		this.context = context;
+		this.polygons = polygons;
+		this.path = path;
+	}
+
+	@Override
+	protected MapBspNode compute() {
+		if (this.polygons.length == 0)
+			return this.createLeaf();
+		int[] counts = new int[4];
+		int planeIndex = this.chooseSplitter(counts);
+		MapPlane plane = this.context.planes[planeIndex];
+		MapBspPolygon[] front = new MapBspPolygon[counts[0] + counts[2]];
+		MapBspPolygon[] back = new MapBspPolygon[counts[1] + counts[2]];
+		int frontCount = 0;
+		int backCount = 0;
+		MapPolygon[] parts = new MapPolygon[2];
+		for (MapBspPolygon polygon : this.polygons)
+			switch (polygon.polygon.classify(plane)) {
+				case MapPolygon.FRONT:
+					front[frontCount++] = polygon;
+					break;
+				case MapPolygon.BACK:
+					back[backCount++] = polygon;
+					break;
+				case MapPolygon.SPANNING:
+					polygon.polygon.split(plane, parts);
+					if (Objects.nonNull(parts[0]))
+						front[frontCount++] = new MapBspPolygon(parts[0], polygon.planeIndex);
+					if (Objects.nonNull(parts[1]))
+						back[backCount++] = new MapBspPolygon(parts[1], polygon.planeIndex);
+					this.context.splits.increment();
+					break;
+				default:
+					break;
+			}
+		MapBspTask frontTask = new MapBspTask(this.context, Arrays.copyOf(front, frontCount),
+				this.extendPath(MapPlaneTable.flip(planeIndex)));
+		MapBspTask backTask = new MapBspTask(this.context, Arrays.copyOf(back, backCount),
+				this.extendPath(planeIndex));
+		MapBspNode frontNode;
+		MapBspNode backNode;
+		if (this.polygons.length >= this.context.parallelThreshold) {
+			frontTask.fork();
+			backNode = backTask.compute();
+			frontNode = frontTask.join();
+		} else {
+			frontNode = frontTask.compute();
+			backNode = backTask.compute();
+		}
+		MapBspNode node = new MapBspNode(planeIndex, frontNode, backNode);
+		node.setPortals(this.createPortals(planeIndex, frontNode, backNode));
+		return node;
+	}
+
+	private int chooseSplitter(int[] counts) {
+		int[] candidates = new int[Math.min(this.polygons.length, this.context.maxCandidates)];
+		int candidateCount = 0;
+		int stride = Math.max(1, this.polygons.length / candidates.length);
+		for (int i = 0; i < this.polygons.length && candidateCount < candidates.length; i += stride) {
+			int planeIndex = this.polygons[i].planeIndex;
+			boolean duplicate = false;
+			for (int j = 0; j < candidateCount && !duplicate; j++)
+				duplicate = MapPlaneTable.isCoplanar(candidates[j], planeIndex);
+			if (!duplicate)
+				candidates[candidateCount++] = planeIndex;
+		}
+		int best = candidates[0];
+		double bestCost = Double.POSITIVE_INFINITY;
+		int[] current = new int[4];
+		for (int i = 0; i < candidateCount; i++) {
+			MapPlane plane = this.context.planes[candidates[i]];
+			Arrays.fill(current, 0);
+			for (MapBspPolygon polygon : this.polygons)
+				switch (polygon.polygon.classify(plane)) {
+					case MapPolygon.FRONT:
+						current[0]++;
+						break;
+					case MapPolygon.BACK:
+						current[1]++;
+						break;
+					case MapPolygon.SPANNING:
+						current[2]++;
+						break;
+					default:
+						current[3]++;
+						break;
+				}
+			double cost = this.context.heuristic.cost(plane, current[0], current[1], current[2], current[3]);
+			if (cost < bestCost) {
+				bestCost = cost;
+				best = candidates[i];
+				System.arraycopy(current, 0, counts, 0, 4);
+			}
+		}
+		return best;
+	}
+
+	private int[] extendPath(int planeIndex) {
+		int[] path = Arrays.copyOf(this.path, this.path.length + 1);
+		path[this.path.length] = planeIndex;
+		return path;
+	}
+
+	private MapPlane[] getVolumePlanes() {
+		MapPlane[] planes = Arrays.copyOf(this.context.worldPlanes, this.context.worldPlanes.length + this.path.length);
+		for (int i = 0; i < this.path.length; i++)
+			planes[this.context.worldPlanes.length + i] = this.context.planes[this.path[i]];
+		return planes;
+	}
+
+	private MapBspNode createLeaf() {
+		this.context.maxDepth.accumulateAndGet(this.path.length, Math::max);
+		MapPolygon[] volume = MapPolygonizer.polygonize(this.getVolumePlanes());
+		MapBounds bounds = MapBounds.of(volume);
+		if (Objects.isNull(bounds))
+			return new MapBspNode(false, null);
+		double x = 0.0;
+		double y = 0.0;
+		double z = 0.0;
+		int count = 0;
+		for (MapPolygon polygon : volume)
+			if (Objects.nonNull(polygon))
+				for (int i = 0; i < polygon.getVertexCount(); i++) {
+					x += polygon.getX(i);
+					y += polygon.getY(i);
+					z += polygon.getZ(i);
+					count++;
+				}
+		return new MapBspNode(this.context.isSolid(x / count, y / count, z / count), bounds);
+	}
+
+	private List<MapBspPortal> createPortals(int planeIndex, MapBspNode front, MapBspNode back) {
+		MapPlane plane = this.context.planes[planeIndex];
+		MapPolygon polygon = MapPolygon.of(plane);
+		for (MapPlane bound : this.getVolumePlanes())
+			if (Objects.nonNull(polygon))
+				polygon = polygon.clip(bound);
+		List<MapBspPortal> portals = new ArrayList<>();
+		if (Objects.isNull(polygon))
+			return portals;
+		List<MapPolygon> frontPieces = new ArrayList<>();
+		List<MapBspNode> frontLeaves = new ArrayList<>();
+		this.pushDown(polygon, front, frontPieces, frontLeaves);
+		List<MapPolygon> backPieces = new ArrayList<>();
+		List<MapBspNode> backLeaves = new ArrayList<>();
+		for (int i = 0; i < frontPieces.size(); i++) {
+			if (frontLeaves.get(i).isSolid())
+				continue;
+			backPieces.clear();
+			backLeaves.clear();
+			this.pushDown(frontPieces.get(i), back, backPieces, backLeaves);
+			for (int j = 0; j < backPieces.size(); j++)
+				if (!backLeaves.get(j).isSolid())
+					portals.add(new MapBspPortal(backPieces.get(j), planeIndex, frontLeaves.get(i), backLeaves.get(j)));
+		}
+		return portals;
+	}
+
+	private void pushDown(MapPolygon polygon, MapBspNode node, List<MapPolygon> pieces, List<MapBspNode> leaves) {
+		while (!node.isLeaf()) {
+			MapPlane plane = this.context.planes[node.getPlaneIndex()];
+			switch (polygon.classify(plane)) {
+				case MapPolygon.BACK:
+					node = node.getBack();
+					break;
+				case MapPolygon.SPANNING:
+					MapPolygon[] parts = new MapPolygon[2];
+					polygon.split(plane, parts);
+					this.pushDown(parts[0], node.getFront(), pieces, leaves);
+					polygon = parts[1];
+					node = node.getBack();
+					break;
+				default:
+					node = node.getFront();
+					break;
+			}
+		}
+		pieces.add(polygon);
+		leaves.add(node);
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.kaba4cow.maplevel.bsp;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.kaba4cow.maplevel.geometry.MapPlane;
+import com.kaba4cow.maplevel.geometry.MapPlaneTable;
+
+/**
+ * Represents a binary space partitioning tree built by {@link MapBspBuilder}.
+ */
+public class MapBspTree {
+
+	private final MapPlaneTable planeTable;
+	private final MapPlane[] planes;
+	private final MapBspNode root;
+	private final List<MapBspNode> leaves;
+	private final List<MapBspPortal> portals;
+	private final MapBspStatistics statistics;
+
+	MapBspTree(MapPlaneTable planeTable, MapPlane[] planes, MapBspNode root, List<MapBspNode> leaves,
+			List<MapBspPortal> portals, MapBspStatistics statistics) {
+		this.planeTable = planeTable;
+		this.planes = planes;
+		this.root = root;
+		this.leaves = leaves;
+		this.portals = portals;
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Returns the table of the planes referenced by the nodes and portals.
+	 * 
+	 * @return the plane table
+	 */
+	public MapPlaneTable getPlaneTable() {
+		return this.planeTable;
+	}
+
+	/**
+	 * Returns the plane at the specified index of the plane table.
+	 * 
+	 * @param index the index of the plane
+	 * 
+	 * @return the plane
+	 */
+	public MapPlane getPlane(int index) {
+		return this.planes[index];
+	}
+
+	/**
+	 * Returns the root node of the tree.
+	 * 
+	 * @return the root node
+	 */
+	public MapBspNode getRoot() {
+		return this.root;
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of leaves in depth-first order, front children first.
+	 * 
+	 * @return an unmodifiable list of leaves
+	 */
+	public List<MapBspNode> getLeaves() {
+		return Collections.unmodifiableList(this.leaves);
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of portals between empty leaves.
+	 * 
+	 * @return an unmodifiable list of portals
+	 */
+	public List<MapBspPortal> getPortals() {
+		return Collections.unmodifiableList(this.portals);
+	}
+
+	/**
+	 * Returns the statistics of the tree.
+	 * 
+	 * @return the tree statistics
+	 */
+	public MapBspStatistics getStatistics() {
+		return this.statistics;
+	}
+
+	/**
+	 * Finds the leaf containing the specified point.
+	 * 
+	 * @param x the x coordinate of the point
+	 * @param y the y coordinate of the point
+	 * @param z the z coordinate of the point
+	 * 
+	 * @return the leaf containing the point
+	 */
+	public MapBspNode findLeaf(double x, double y, double z) {
+		MapBspNode node = this.root;
+		while (!node.isLeaf())
+			node = this.planes[node.getPlaneIndex()].distanceTo(x, y, z) > 0.0 ? node.getFront() : node.getBack();
+		return node;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapBspTree [statistics=%s]", this.statistics);
+	}
+
+}
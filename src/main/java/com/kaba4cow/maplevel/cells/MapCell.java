@@ -0,0 +1,101 @@
+package com.kaba4cow.maplevel.cells;
+
+import com.kaba4cow.maplevel.geometry.MapBounds;
+
+/**
+ * An entry of the cell index of a file written by {@link MapCellWriter}. A cell is identified by its integer grid
+ * coordinates and stores the elements whose bounds have their center inside the grid cell. Elements are never split, so
+ * the bounds of a cell enclose all of its elements and may extend beyond its grid cell.
+ */
+public class MapCell {
+
+	private final int x;
+	private final int y;
+	private final int z;
+	private final MapBounds bounds;
+	private final int entityCount;
+	private final int brushCount;
+	private final long offset;
+	private final int length;
+
+	MapCell(int x, int y, int z, MapBounds bounds, int entityCount, int brushCount, long offset, int length) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.bounds = bounds;
+		this.entityCount = entityCount;
+		this.brushCount = brushCount;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	/**
+	 * Returns the x coordinate of the cell in the grid.
+	 *
+	 * @return the x coordinate of the cell
+	 */
+	public int getX() {
+		return this.x;
+	}
+
+	/**
+	 * Returns the y coordinate of the cell in the grid.
+	 *
+	 * @return the y coordinate of the cell
+	 */
+	public int getY() {
+		return this.y;
+	}
+
+	/**
+	 * Returns the z coordinate of the cell in the grid.
+	 *
+	 * @return the z coordinate of the cell
+	 */
+	public int getZ() {
+		return this.z;
+	}
+
+	/**
+	 * Returns the bounding box enclosing all elements of the cell.
+	 *
+	 * @return the bounding box
+	 */
+	public MapBounds getBounds() {
+		return this.bounds;
+	}
+
+	/**
+	 * Returns the number of entities stored in the cell. Worldspawn brushes of the cell are stored in a single entity
+	 * which is counted.
+	 *
+	 * @return the number of entities
+	 */
+	public int getEntityCount() {
+		return this.entityCount;
+	}
+
+	/**
+	 * Returns the number of brushes stored in the cell.
+	 *
+	 * @return the number of brushes
+	 */
+	public int getBrushCount() {
+		return this.brushCount;
+	}
+
+	long getOffset() {
+		return this.offset;
+	}
+
+	int getLength() {
+		return this.length;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapCell [x=%s, y=%s, z=%s, bounds=%s, entityCount=%s, brushCount=%s]", this.x, this.y,
+				this.z, this.bounds, this.entityCount, this.brushCount);
+	}
+
+}
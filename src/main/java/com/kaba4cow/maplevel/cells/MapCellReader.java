@@ -0,0 +1,291 @@
+package com.kaba4cow.maplevel.cells;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.MapParser;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.geometry.MapBounds;
+
+/**
+ * Loads regions of a file written by {@link MapCellWriter}. Opening a file reads only its header and cell index, loading
+ * a region reads and parses only the global section and the cells whose bounds intersect the region, so the cost of a
+ * load is proportional to the size of the region rather than to the size of the level. Cells of a region are read and
+ * parsed in parallel.
+ * <p>
+ * The worldspawn brushes of all loaded cells are merged into the worldspawn entity of the global section, all other
+ * entities are added in cell order. Instances are safe to use from multiple threads until they are closed.
+ */
+public class MapCellReader implements Closeable {
+
+	private final FileChannel channel;
+	private final double cellSize;
+	private final List<MapCell> cells;
+	private final Map<Long, MapCell> cellsByCoordinates;
+	private final long globalOffset;
+	private final int globalLength;
+	private final int globalEntityCount;
+
+	private MapCellReader(FileChannel channel) throws IOException {
+		this.channel = channel;
+		ByteBuffer header = this.read(0L, MapCellWriter.HEADER_SIZE);
+		if (header.getInt() != MapCellWriter.MAGIC)
+			throw new IOException("Not a cell file");
+		int version = header.getInt();
+		if (version != MapCellWriter.VERSION)
+			throw new IOException(String.format("Unsupported cell file version %s", version));
+		this.cellSize = header.getDouble();
+		int cellCount = header.getInt();
+		this.globalOffset = header.getLong();
+		this.globalLength = header.getInt();
+		this.globalEntityCount = header.getInt();
+		if (cellCount < 0 || this.globalLength < 0)
+			throw new IOException("Corrupted cell index");
+		ByteBuffer index = this.read(MapCellWriter.HEADER_SIZE, MapCellWriter.ENTRY_SIZE * cellCount);
+		List<MapCell> cells = new ArrayList<>(cellCount);
+		this.cellsByCoordinates = new HashMap<>();
+		for (int i = 0; i < cellCount; i++) {
+			int x = index.getInt();
+			int y = index.getInt();
+			int z = index.getInt();
+			MapBounds bounds = new MapBounds(index.getDouble(), index.getDouble(), index.getDouble(),
+					index.getDouble(), index.getDouble(), index.getDouble());
+			int entityCount = index.getInt();
+			int brushCount = index.getInt();
+			long offset = index.getLong();
+			int length = index.getInt();
+			if (length < 0)
+				throw new IOException("Corrupted cell index");
+			MapCell cell = new MapCell(x, y, z, bounds, entityCount, brushCount, offset, length);
+			cells.add(cell);
+			this.cellsByCoordinates.put(MapCellWriter.key(x, y, z), cell);
+		}
+		this.cells = Collections.unmodifiableList(cells);
+	}
+
+	/**
+	 * Opens the specified cell file and reads its cell index.
+	 *
+	 * @param source the path of the file to open
+	 *
+	 * @return the reader
+	 *
+	 * @throws IOException if an I/O error occurs or the file is not a valid cell file
+	 */
+	public static MapCellReader open(Path source) throws IOException {
+		FileChannel channel = FileChannel.open(source, StandardOpenOption.READ);
+		try {
+			return new MapCellReader(channel);
+		} catch (IOException | RuntimeException exception) {
+			channel.close();
+			throw exception;
+		}
+	}
+
+	/**
+	 * Returns the edge length of the cells.
+	 *
+	 * @return the cell size
+	 */
+	public double getCellSize() {
+		return this.cellSize;
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of all cells sorted by x, y and z coordinates.
+	 *
+	 * @return the list of cells
+	 */
+	public List<MapCell> getCells() {
+		return this.cells;
+	}
+
+	/**
+	 * Returns the cell at the specified grid coordinates.
+	 *
+	 * @param x the x coordinate of the cell
+	 * @param y the y coordinate of the cell
+	 * @param z the z coordinate of the cell
+	 *
+	 * @return the cell, or {@code null} if there are no elements in the cell
+	 */
+	public MapCell getCell(int x, int y, int z) {
+		if (!MapCellWriter.isCoordinate(x) || !MapCellWriter.isCoordinate(y) || !MapCellWriter.isCoordinate(z))
+			return null;
+		return this.cellsByCoordinates.get(MapCellWriter.key(x, y, z));
+	}
+
+	/**
+	 * Returns the number of entities in the global section.
+	 *
+	 * @return the number of global entities
+	 */
+	public int getGlobalEntityCount() {
+		return this.globalEntityCount;
+	}
+
+	/**
+	 * Retrieves the cells whose bounds intersect the specified bounding box.
+	 *
+	 * @param region the bounding box of the region
+	 *
+	 * @return the list of cells sorted by x, y and z coordinates
+	 */
+	public List<MapCell> query(MapBounds region) {
+		Objects.requireNonNull(region, "Region must not be null");
+		List<MapCell> result = new ArrayList<>();
+		for (MapCell cell : this.cells)
+			if (cell.getBounds().intersects(region, 0.0))
+				result.add(cell);
+		return result;
+	}
+
+	/**
+	 * Loads the global section only.
+	 *
+	 * @return the level containing the global section
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public MapLevel loadGlobal() throws IOException {
+		return this.parse(this.globalOffset, this.globalLength);
+	}
+
+	/**
+	 * Loads the global section and the cells whose bounds intersect the specified bounding box.
+	 *
+	 * @param region the bounding box of the region
+	 *
+	 * @return the level containing the region
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public MapLevel load(MapBounds region) throws IOException {
+		return this.load(this.query(region));
+	}
+
+	/**
+	 * Loads the global section and the cells whose bounds intersect the cube with the specified center and half extent.
+	 *
+	 * @param x      the x coordinate of the center
+	 * @param y      the y coordinate of the center
+	 * @param z      the z coordinate of the center
+	 * @param radius the half extent of the cube
+	 *
+	 * @return the level containing the region
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public MapLevel load(double x, double y, double z, double radius) throws IOException {
+		return this.load(new MapBounds(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius));
+	}
+
+	/**
+	 * Loads the global section and the specified cells.
+	 *
+	 * @param cells the cells to load
+	 *
+	 * @return the level containing the cells
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public MapLevel load(List<MapCell> cells) throws IOException {
+		Objects.requireNonNull(cells, "Cells must not be null");
+		MapLevel level = this.loadGlobal();
+		List<MapLevel> parsed;
+		try {
+			parsed = cells.parallelStream().map(cell -> {
+				try {
+					return this.parse(cell.getOffset(), cell.getLength());
+				} catch (IOException exception) {
+					throw new UncheckedIOException(exception);
+				}
+			}).collect(Collectors.toList());
+		} catch (UncheckedIOException exception) {
+			throw exception.getCause();
+		}
+		MapEntity worldspawn = null;
+		for (MapEntity entity : level.getEntities())
+			if (MapCellReader.isWorldspawn(entity)) {
+				worldspawn = entity;
+				break;
+			}
+		for (MapLevel cell : parsed)
+			for (MapEntity entity : cell.getEntities())
+				if (Objects.nonNull(worldspawn) && MapCellReader.isWorldspawn(entity))
+					for (int i = 0; i < entity.getBrushCount(); i++)
+						worldspawn.addBrush(entity.getBrush(i));
+				else
+					level.addEntity(entity);
+		return level;
+	}
+
+	/**
+	 * Loads the specified cell alone, without the global section.
+	 *
+	 * @param cell the cell to load
+	 *
+	 * @return the level containing the cell
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public MapLevel load(MapCell cell) throws IOException {
+		Objects.requireNonNull(cell, "Cell must not be null");
+		return this.parse(cell.getOffset(), cell.getLength());
+	}
+
+	private MapLevel parse(long offset, int length) throws IOException {
+		ByteBuffer buffer = this.read(offset, length);
+		return MapParser.parse(new String(buffer.array(), 0, length, StandardCharsets.UTF_8), null);
+	}
+
+	private ByteBuffer read(long offset, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		long position = offset;
+		while (buffer.hasRemaining()) {
+			int count = this.channel.read(buffer, position);
+			if (count < 0)
+				throw new EOFException("Unexpected end of cell file");
+			position += count;
+		}
+		((Buffer) buffer).flip();
+		return buffer;
+	}
+
+	/**
+	 * Closes the underlying file.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	static boolean isWorldspawn(MapEntity entity) {
+		return Objects.equals(entity.getProperties().get("classname"), "worldspawn");
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapCellReader [cellSize=%s, cells=%s]", this.cellSize, this.cells.size());
+	}
+
+}
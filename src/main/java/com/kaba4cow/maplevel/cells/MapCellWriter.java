@@ -0,0 +1,291 @@
+package com.kaba4cow.maplevel.cells;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.MapWriter;
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.geometry.MapBounds;
+import com.kaba4cow.maplevel.geometry.MapPolygonizer;
+
+/**
+ * A utility class for partitioning a {@link MapLevel} into a uniform grid of cells and writing them to a single file
+ * which can be loaded region by region with {@link MapCellReader}.
+ * <p>
+ * Brushes of the {@code worldspawn} entity are assigned to cells individually, all other entities are kept whole. Each
+ * element is assigned to the cell containing the center of its bounding box, so brushes straddling cell borders always
+ * end up in exactly one cell regardless of the order of the level. Brush entities are bounded by the union of their
+ * brushes, point entities by their {@code origin} property. Entities without bounds, degenerate worldspawn brushes and
+ * the properties of the worldspawn entity are stored in a global section loaded with every region.
+ * <p>
+ * The file is little-endian. It starts with {@link #MAGIC}, {@link #VERSION}, the cell size, the number of cells and
+ * the offset, length and entity count of the global section, followed by the cell index sorted by x, y and z
+ * coordinates and the MAP text of the global section and of every cell encoded as UTF-8.
+ */
+public class MapCellWriter {
+
+	/**
+	 * The magic number at the start of cell files, {@code MAPC} in little-endian byte order.
+	 */
+	public static final int MAGIC = 0x4350414D;
+
+	/**
+	 * The version of the cell file layout.
+	 */
+	public static final int VERSION = 1;
+
+	static final int HEADER_SIZE = 4 * Integer.BYTES + Double.BYTES + Long.BYTES + Integer.BYTES;
+	static final int ENTRY_SIZE = 6 * Integer.BYTES + 6 * Double.BYTES + Long.BYTES;
+	private static final int COORDINATE_LIMIT = 1 << 20;
+
+	private static final Comparator<MapCellBucket> BUCKET_ORDER = Comparator.comparingInt(MapCellBucket::getX)
+			.thenComparingInt(MapCellBucket::getY).thenComparingInt(MapCellBucket::getZ);
+
+	private MapCellWriter() {}
+
+	/**
+	 * Partitions the specified level into cells of the specified size and writes them to a file. The level must not be
+	 * modified while it is being written.
+	 *
+	 * @param level    the level to write
+	 * @param cellSize the edge length of the cells
+	 * @param target   the path of the file to write to
+	 *
+	 * @return the index of the written cells sorted by x, y and z coordinates
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static List<MapCell> write(MapLevel level, double cellSize, Path target) throws IOException {
+		Objects.requireNonNull(level, "Level must not be null");
+		Objects.requireNonNull(target, "Target must not be null");
+		if (!(cellSize > 0.0) || Double.isInfinite(cellSize))
+			throw new IllegalArgumentException("Cell size must be positive and finite");
+		MapLevel global = new MapLevel();
+		List<MapCellBucket> buckets = MapCellWriter.partition(level, cellSize, global);
+		List<MapCell> cells = new ArrayList<>(buckets.size());
+		MapWriter writer = new MapWriter();
+		try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			long dataOffset = MapCellWriter.HEADER_SIZE + (long) MapCellWriter.ENTRY_SIZE * buckets.size();
+			channel.position(dataOffset);
+			OutputStream output = new BufferedOutputStream(Channels.newOutputStream(channel));
+			long globalOffset = dataOffset;
+			writer.write(global, output);
+			output.flush();
+			long offset = channel.position();
+			int globalLength = MapCellWriter.length(globalOffset, offset);
+			for (MapCellBucket bucket : buckets) {
+				writer.write(bucket.toLevel(), output);
+				output.flush();
+				long end = channel.position();
+				cells.add(new MapCell(bucket.x, bucket.y, bucket.z, bucket.bounds, bucket.getEntityCount(),
+						bucket.brushCount, offset, MapCellWriter.length(offset, end)));
+				offset = end;
+			}
+			ByteBuffer buffer = ByteBuffer.allocate((int) dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MapCellWriter.MAGIC);
+			buffer.putInt(MapCellWriter.VERSION);
+			buffer.putDouble(cellSize);
+			buffer.putInt(cells.size());
+			buffer.putLong(globalOffset);
+			buffer.putInt(globalLength);
+			buffer.putInt(global.getEntityCount());
+			for (MapCell cell : cells) {
+				buffer.putInt(cell.getX());
+				buffer.putInt(cell.getY());
+				buffer.putInt(cell.getZ());
+				MapBounds bounds = cell.getBounds();
+				buffer.putDouble(bounds.getMinX());
+				buffer.putDouble(bounds.getMinY());
+				buffer.putDouble(bounds.getMinZ());
+				buffer.putDouble(bounds.getMaxX());
+				buffer.putDouble(bounds.getMaxY());
+				buffer.putDouble(bounds.getMaxZ());
+				buffer.putInt(cell.getEntityCount());
+				buffer.putInt(cell.getBrushCount());
+				buffer.putLong(cell.getOffset());
+				buffer.putInt(cell.getLength());
+			}
+			((Buffer) buffer).flip();
+			long position = 0L;
+			while (buffer.hasRemaining())
+				position += channel.write(buffer, position);
+		}
+		return Collections.unmodifiableList(cells);
+	}
+
+	private static List<MapCellBucket> partition(MapLevel level, double cellSize, MapLevel global) {
+		List<MapBrush> brushes = new ArrayList<>();
+		for (MapEntity entity : level.getEntities())
+			brushes.addAll(entity.getBrushes());
+		MapBounds[] brushBounds = new MapBounds[brushes.size()];
+		IntStream.range(0, brushBounds.length).parallel()
+				.forEach(index -> brushBounds[index] = MapBounds.of(MapPolygonizer.polygonize(brushes.get(index))));
+		Map<Long, MapCellBucket> buckets = new HashMap<>();
+		int brushIndex = 0;
+		for (MapEntity entity : level.getEntities()) {
+			int brushCount = entity.getBrushCount();
+			if (MapCellReader.isWorldspawn(entity)) {
+				MapEntity worldspawn = new MapEntity();
+				for (Map.Entry<String, String> property : entity.getProperties().getProperties().entrySet())
+					worldspawn.getProperties().set(property.getKey(), property.getValue());
+				for (int i = 0; i < brushCount; i++) {
+					MapBounds bounds = brushBounds[brushIndex + i];
+					if (Objects.isNull(bounds))
+						worldspawn.addBrush(entity.getBrush(i));
+					else
+						MapCellWriter.bucket(buckets, bounds, cellSize).addWorldspawnBrush(entity.getBrush(i), bounds);
+				}
+				global.addEntity(worldspawn);
+			} else {
+				MapBounds bounds = null;
+				for (int i = 0; i < brushCount; i++)
+					if (Objects.nonNull(brushBounds[brushIndex + i]))
+						bounds = Objects.isNull(bounds) ? brushBounds[brushIndex + i]
+								: bounds.union(brushBounds[brushIndex + i]);
+				if (brushCount == 0)
+					bounds = MapCellWriter.origin(entity);
+				if (Objects.isNull(bounds))
+					global.addEntity(entity);
+				else
+					MapCellWriter.bucket(buckets, bounds, cellSize).addEntity(entity, bounds);
+			}
+			brushIndex += brushCount;
+		}
+		List<MapCellBucket> sorted = new ArrayList<>(buckets.values());
+		sorted.sort(MapCellWriter.BUCKET_ORDER);
+		return sorted;
+	}
+
+	private static MapCellBucket bucket(Map<Long, MapCellBucket> buckets, MapBounds bounds, double cellSize) {
+		int x = MapCellWriter.coordinate(bounds.getCenterX(), cellSize);
+		int y = MapCellWriter.coordinate(bounds.getCenterY(), cellSize);
+		int z = MapCellWriter.coordinate(bounds.getCenterZ(), cellSize);
+		return buckets.computeIfAbsent(MapCellWriter.key(x, y, z), key -> new MapCellBucket(x, y, z));
+	}
+
+	static long key(int x, int y, int z) {
+		return (x & 0x1FFFFFL) << 42 | (y & 0x1FFFFFL) << 21 | z & 0x1FFFFFL;
+	}
+
+	static boolean isCoordinate(int coordinate) {
+		return coordinate > -MapCellWriter.COORDINATE_LIMIT && coordinate < MapCellWriter.COORDINATE_LIMIT;
+	}
+
+	private static int coordinate(double value, double cellSize) {
+		double coordinate = Math.floor(value / cellSize);
+		if (!(Math.abs(coordinate) < MapCellWriter.COORDINATE_LIMIT))
+			throw new IllegalArgumentException(String.format("Cell coordinate of %s out of range", value));
+		return (int) coordinate;
+	}
+
+	private static MapBounds origin(MapEntity entity) {
+		String origin = entity.getProperties().get("origin");
+		if (Objects.isNull(origin))
+			return null;
+		String[] components = origin.trim().split("\\s+");
+		if (components.length != 3)
+			return null;
+		try {
+			double x = Double.parseDouble(components[0]);
+			double y = Double.parseDouble(components[1]);
+			double z = Double.parseDouble(components[2]);
+			if (Double.isNaN(x + y + z) || Double.isInfinite(x + y + z))
+				return null;
+			return new MapBounds(x, y, z, x, y, z);
+		} catch (NumberFormatException exception) {
+			return null;
+		}
+	}
+
+	private static int length(long from, long to) {
+		if (to - from > Integer.MAX_VALUE)
+			throw new IllegalStateException("Cell exceeds 2 GiB");
+		return (int) (to - from);
+	}
+
+	private static class MapCellBucket {
+
+		private final int x;
+		private final int y;
+		private final int z;
+		private final List<MapEntity> entities;
+		private MapEntity worldspawn;
+		private MapBounds bounds;
+		private int brushCount;
+
+		private MapCellBucket(int x, int y, int z) {
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.entities = new ArrayList<>();
+			this.worldspawn = null;
+			this.bounds = null;
+			this.brushCount = 0;
+		}
+
+		private void addWorldspawnBrush(MapBrush brush, MapBounds bounds) {
+			if (Objects.isNull(this.worldspawn)) {
+				this.worldspawn = new MapEntity();
+				this.worldspawn.getProperties().set("classname", "worldspawn");
+			}
+			this.worldspawn.addBrush(brush);
+			this.include(bounds, 1);
+		}
+
+		private void addEntity(MapEntity entity, MapBounds bounds) {
+			this.entities.add(entity);
+			this.include(bounds, entity.getBrushCount());
+		}
+
+		private void include(MapBounds bounds, int brushCount) {
+			this.bounds = Objects.isNull(this.bounds) ? bounds : this.bounds.union(bounds);
+			this.brushCount += brushCount;
+		}
+
+		private MapLevel toLevel() {
+			MapLevel level = new MapLevel();
+			if (Objects.nonNull(this.worldspawn))
+				level.addEntity(this.worldspawn);
+			for (MapEntity entity : this.entities)
+				level.addEntity(entity);
+			return level;
+		}
+
+		private int getEntityCount() {
+			return this.entities.size() + (Objects.isNull(this.worldspawn) ? 0 : 1);
+		}
+
+		private int getX() {
+			return this.x;
+		}
+
+		private int getY() {
+			return this.y;
+		}
+
+		private int getZ() {
+			return this.z;
+		}
+
+	}
+
+}
@@ -0,0 +1,287 @@
+package com.kaba4cow.maplevel.csg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.geometry.MapBounds;
+import com.kaba4cow.maplevel.geometry.MapBoundsIndex;
+import com.kaba4cow.maplevel.geometry.MapPlane;
+import com.kaba4cow.maplevel.geometry.MapPolygon;
+import com.kaba4cow.maplevel.geometry.MapPolygonizer;
+import com.kaba4cow.maplevel.profiling.MapEvent;
+import com.kaba4cow.maplevel.profiling.MapEventType;
+import com.kaba4cow.maplevel.profiling.MapProfiler;
+
+/**
+ * A utility class for constructive solid geometry operations on MAP brushes. Level-wide operations process entities in
+ * parallel and use a {@link MapBoundsIndex} to find candidate brush pairs within each entity.
+ */
+public class MapCsg {
+
+	private static final double MIN_AREA = 0.01;
+
+	private MapCsg() {}
+
+	/**
+	 * Carves the cutter out of the specified brush.
+	 * 
+	 * @param brush  the brush to carve
+	 * @param cutter the brush to carve out
+	 * 
+	 * @return a list of new brushes covering the part of {@code brush} outside {@code cutter}, or a list containing only
+	 *             {@code brush} if the brushes do not overlap
+	 */
+	public static List<MapBrush> subtract(MapBrush brush, MapBrush cutter) {
+		return MapCsg.subtract(new MapCsgSolid(brush), new MapCsgSolid(cutter));
+	}
+
+	private static List<MapBrush> subtract(MapCsgSolid solid, MapCsgSolid cutter) {
+		if (solid.isEmpty() || cutter.isEmpty() || !solid.getBounds().intersects(cutter.getBounds(), -MapPlane.EPSILON))
+			return Collections.singletonList(solid.getBrush());
+		List<MapBrush> fragments = new ArrayList<>();
+		MapBrush inside = solid.getBrush();
+		MapFace target = cutter.getBrush().isInstance() ? new MapFace() : null;
+		for (int i = 0; i < cutter.getBrush().getFaceCount(); i++) {
+			if (Objects.isNull(cutter.getPlane(i)))
+				continue;
+			MapFace face = cutter.getBrush().readFace(i, target);
+			MapBrush front = MapCsg.prune(inside.copy().addFace(face.copy().flip()));
+			MapBrush back = MapCsg.prune(inside.copy().addFace(face.copy()));
+			if (Objects.isNull(back))
+				return Collections.singletonList(solid.getBrush());
+			if (Objects.nonNull(front))
+				fragments.add(front);
+			inside = back;
+		}
+		return fragments;
+	}
+
+	/**
+	 * Carves the cutter out of every brush of the specified level. Entities are processed in parallel.
+	 * 
+	 * @param level  the level to carve
+	 * @param cutter the brush to carve out
+	 * 
+	 * @return a reference to the level
+	 */
+	public static MapLevel subtract(MapLevel level, MapBrush cutter) {
+		try (MapEvent event = MapProfiler.begin(MapEventType.CSG)) {
+			event.setLevel(level);
+			MapCsgSolid solid = new MapCsgSolid(cutter);
+			IntStream.range(0, level.getEntityCount()).parallel().forEach(index -> {
+				MapEntity entity = level.getEntity(index);
+				List<MapBrush> brushes = new ArrayList<>();
+				for (int i = 0; i < entity.getBrushCount(); i++)
+					if (entity.getBrush(i) != cutter)
+						brushes.addAll(MapCsg.subtract(new MapCsgSolid(entity.getBrush(i)), solid));
+					else
+						brushes.add(cutter);
+				entity.clearBrushes();
+				for (MapBrush brush : brushes)
+					entity.addBrush(brush);
+			});
+			return level;
+		}
+	}
+
+	/**
+	 * Merges two touching brushes into one if their union is convex.
+	 * 
+	 * @param first  the first brush
+	 * @param second the second brush
+	 * 
+	 * @return the merged brush, or {@code null} if the brushes cannot be merged
+	 */
+	public static MapBrush merge(MapBrush first, MapBrush second) {
+		return MapCsg.merge(new MapCsgSolid(first), new MapCsgSolid(second));
+	}
+
+	private static MapBrush merge(MapCsgSolid first, MapCsgSolid second) {
+		if (first.isEmpty() || second.isEmpty() || first.hasDegenerateFaces() || second.hasDegenerateFaces())
+			return null;
+		int sharedFirst = -1;
+		int sharedSecond = -1;
+		for (int i = 0; i < first.getPlaneCount(); i++)
+			for (int j = 0; j < second.getPlaneCount(); j++)
+				if (MapCsg.isOpposite(first.getPlane(i), second.getPlane(j))) {
+					if (sharedFirst >= 0)
+						return null;
+					sharedFirst = i;
+					sharedSecond = j;
+				}
+		if (sharedFirst < 0)
+			return null;
+		MapBrush merged = new MapBrush();
+		List<MapPlane> planes = new ArrayList<>();
+		MapFace firstTarget = first.getBrush().isInstance() ? new MapFace() : null;
+		MapFace secondTarget = second.getBrush().isInstance() ? new MapFace() : null;
+		for (int i = 0; i < first.getPlaneCount(); i++)
+			if (i != sharedFirst) {
+				merged.addFace(first.getBrush().readFace(i, firstTarget).copy());
+				planes.add(first.getPlane(i));
+			}
+		for (int j = 0; j < second.getPlaneCount(); j++) {
+			if (j == sharedSecond)
+				continue;
+			int duplicate = MapCsg.indexOf(first, second.getPlane(j));
+			if (duplicate >= 0) {
+				if (duplicate == sharedFirst
+						|| !Objects.equals(first.getBrush().readFace(duplicate, firstTarget).getTexture(),
+								second.getBrush().readFace(j, secondTarget).getTexture()))
+					return null;
+				continue;
+			}
+			merged.addFace(second.getBrush().readFace(j, secondTarget).copy());
+			planes.add(second.getPlane(j));
+		}
+		for (MapPlane plane : planes)
+			if (!first.isBehind(plane) || !second.isBehind(plane))
+				return null;
+		return merged;
+	}
+
+	/**
+	 * Repeatedly merges touching brushes of every entity of the specified level while their unions are convex. Entities
+	 * are processed in parallel.
+	 * 
+	 * @param level the level to merge the brushes of
+	 * 
+	 * @return a reference to the level
+	 */
+	public static MapLevel mergeBrushes(MapLevel level) {
+		try (MapEvent event = MapProfiler.begin(MapEventType.CSG)) {
+			event.setLevel(level);
+			IntStream.range(0, level.getEntityCount()).parallel()
+					.forEach(index -> MapCsg.mergeBrushes(level.getEntity(index)));
+			return level;
+		}
+	}
+
+	private static void mergeBrushes(MapEntity entity) {
+		List<MapCsgSolid> solids = new ArrayList<>();
+		for (int i = 0; i < entity.getBrushCount(); i++)
+			solids.add(new MapCsgSolid(entity.getBrush(i)));
+		boolean merged = true;
+		while (merged) {
+			merged = false;
+			MapBoundsIndex index = MapCsg.index(solids);
+			MapCsgSolid[] current = solids.toArray(new MapCsgSolid[0]);
+			for (int i = 0; i < current.length; i++) {
+				if (Objects.isNull(current[i]) || current[i].isEmpty())
+					continue;
+				int[] candidates = MapCsg.candidates(index, current[i].getBounds());
+				for (int j : candidates) {
+					if (j <= i || Objects.isNull(current[j]))
+						continue;
+					MapBrush brush = MapCsg.merge(current[i], current[j]);
+					if (Objects.nonNull(brush)) {
+						current[i] = new MapCsgSolid(brush);
+						current[j] = null;
+						merged = true;
+					}
+				}
+			}
+			solids.clear();
+			for (MapCsgSolid solid : current)
+				if (Objects.nonNull(solid))
+					solids.add(solid);
+		}
+		entity.clearBrushes();
+		for (MapCsgSolid solid : solids)
+			entity.addBrush(solid.getBrush());
+	}
+
+	/**
+	 * Finds the faces of the specified level that lie entirely inside another brush of the same entity. Of two coincident
+	 * faces facing the same direction only the one of the later brush is reported. Entities are processed in parallel.
+	 * 
+	 * @param level the level to search
+	 * 
+	 * @return an identity-based set of the hidden faces
+	 */
+	public static Set<MapFace> findHiddenFaces(MapLevel level) {
+		try (MapEvent event = MapProfiler.begin(MapEventType.CSG)) {
+			event.setLevel(level);
+			List<List<MapFace>> hidden = IntStream.range(0, level.getEntityCount()).parallel()
+					.mapToObj(index -> MapCsg.findHiddenFaces(level.getEntity(index))).collect(Collectors.toList());
+			Set<MapFace> faces = Collections.newSetFromMap(new IdentityHashMap<>());
+			for (List<MapFace> list : hidden)
+				faces.addAll(list);
+			return faces;
+		}
+	}
+
+	private static List<MapFace> findHiddenFaces(MapEntity entity) {
+		List<MapCsgSolid> solids = new ArrayList<>();
+		for (int i = 0; i < entity.getBrushCount(); i++)
+			solids.add(new MapCsgSolid(entity.getBrush(i)));
+		MapBoundsIndex index = MapCsg.index(solids);
+		List<MapFace> hidden = new ArrayList<>();
+		for (int i = 0; i < solids.size(); i++) {
+			MapCsgSolid solid = solids.get(i);
+			for (int face = 0; face < solid.getPlaneCount(); face++) {
+				MapPolygon polygon = solid.getPolygon(face);
+				if (Objects.isNull(polygon))
+					continue;
+				for (int j : MapCsg.candidates(index, MapBounds.of(polygon)))
+					if (j != i && MapCsg.isHidden(polygon, solid.getPlane(face), solids.get(j), i > j)) {
+						hidden.add(solid.getBrush().getFace(face));
+						break;
+					}
+			}
+		}
+		return hidden;
+	}
+
+	private static boolean isHidden(MapPolygon polygon, MapPlane plane, MapCsgSolid solid, boolean later) {
+		if (solid.isEmpty() || !solid.contains(polygon))
+			return false;
+		return later || MapCsg.indexOf(solid, plane) < 0;
+	}
+
+	private static MapBoundsIndex index(List<MapCsgSolid> solids) {
+		MapBounds[] bounds = new MapBounds[solids.size()];
+		for (int i = 0; i < bounds.length; i++)
+			bounds[i] = solids.get(i).getBounds();
+		return new MapBoundsIndex(bounds);
+	}
+
+	private static int[] candidates(MapBoundsIndex index, MapBounds bounds) {
+		if (Objects.isNull(bounds))
+			return new int[0];
+		IntStream.Builder builder = IntStream.builder();
+		index.query(bounds, MapPlane.EPSILON, builder::add);
+		return builder.build().toArray();
+	}
+
+	private static MapBrush prune(MapBrush brush) {
+		MapPolygon[] polygons = MapPolygonizer.polygonize(brush);
+		MapBrush pruned = new MapBrush();
+		for (int i = 0; i < polygons.length; i++)
+			if (Objects.nonNull(polygons[i]) && polygons[i].getArea() >= MapCsg.MIN_AREA)
+				pruned.addFace(brush.getFace(i));
+		return pruned.getFaceCount() < 4 ? null : pruned;
+	}
+
+	private static boolean isOpposite(MapPlane first, MapPlane second) {
+		return first.equals(second.flip(), MapPlane.EPSILON, MapPlane.EPSILON);
+	}
+
+	private static int indexOf(MapCsgSolid solid, MapPlane plane) {
+		for (int i = 0; i < solid.getPlaneCount(); i++)
+			if (Objects.nonNull(solid.getPlane(i)) && solid.getPlane(i).equals(plane, MapPlane.EPSILON, MapPlane.EPSILON))
+				return i;
+		return -1;
+	}
+
+}
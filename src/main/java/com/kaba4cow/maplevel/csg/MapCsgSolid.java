@@ -0,0 +1,77 @@
+package com.kaba4cow.maplevel.csg;
+
+import java.util.Objects;
+
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.geometry.MapBounds;
+import com.kaba4cow.maplevel.geometry.MapPlane;
+import com.kaba4cow.maplevel.geometry.MapPolygon;
+import com.kaba4cow.maplevel.geometry.MapPolygonizer;
+
+/**
+ * Caches the planes, polygons and bounds of a brush for the duration of a CSG operation.
+ */
+class MapCsgSolid {
+
+	private final MapBrush brush;
+	private final MapPlane[] planes;
+	private final MapPolygon[] polygons;
+	private final MapBounds bounds;
+
+	MapCsgSolid(MapBrush brush) {
+		this.brush = Objects.requireNonNull(brush, "Brush must not be null");
+		this.planes = MapPolygonizer.planes(brush);
+		this.polygons = MapPolygonizer.polygonize(this.planes);
+		this.bounds = MapBounds.of(this.polygons);
+	}
+
+	MapBrush getBrush() {
+		return this.brush;
+	}
+
+	int getPlaneCount() {
+		return this.planes.length;
+	}
+
+	MapPlane getPlane(int index) {
+		return this.planes[index];
+	}
+
+	MapPolygon getPolygon(int index) {
+		return this.polygons[index];
+	}
+
+	MapBounds getBounds() {
+		return this.bounds;
+	}
+
+	boolean isEmpty() {
+		return Objects.isNull(this.bounds);
+	}
+
+	boolean hasDegenerateFaces() {
+		for (MapPlane plane : this.planes)
+			if (Objects.isNull(plane))
+				return true;
+		return false;
+	}
+
+	boolean isBehind(MapPlane plane) {
+		for (MapPolygon polygon : this.polygons)
+			if (Objects.nonNull(polygon))
+				for (int i = 0; i < polygon.getVertexCount(); i++)
+					if (plane.distanceTo(polygon.getX(i), polygon.getY(i), polygon.getZ(i)) > MapPlane.EPSILON)
+						return false;
+		return true;
+	}
+
+	boolean contains(MapPolygon polygon) {
+		for (MapPlane plane : this.planes)
+			if (Objects.nonNull(plane))
+				for (int i = 0; i < polygon.getVertexCount(); i++)
+					if (plane.distanceTo(polygon.getX(i), polygon.getY(i), polygon.getZ(i)) > MapPlane.EPSILON)
+						return false;
+		return true;
+	}
+
+}
@@ -0,0 +1,127 @@
+package com.kaba4cow.maplevel.csg;
+
+/**
+ * Represents the axis-aligned bounding box of a moving object, relative to its origin, used by
+ * {@link MapHullExpander} to expand brushes into collision hulls.
+ */
+public class MapHull {
+
+	/**
+	 * The point hull of Quake, leaving brushes unexpanded.
+	 */
+	public static final MapHull POINT = new MapHull(0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+
+	/**
+	 * The player hull of Quake.
+	 */
+	public static final MapHull PLAYER = new MapHull(-16.0, -16.0, -24.0, 16.0, 16.0, 32.0);
+
+	/**
+	 * The large monster hull of Quake.
+	 */
+	public static final MapHull LARGE = new MapHull(-32.0, -32.0, -24.0, 32.0, 32.0, 64.0);
+
+	private final double minX;
+	private final double minY;
+	private final double minZ;
+	private final double maxX;
+	private final double maxY;
+	private final double maxZ;
+
+	/**
+	 * Creates a new hull from the minimum and maximum corners of its bounding box.
+	 *
+	 * @param minX the minimum x coordinate
+	 * @param minY the minimum y coordinate
+	 * @param minZ the minimum z coordinate
+	 * @param maxX the maximum x coordinate
+	 * @param maxY the maximum y coordinate
+	 * @param maxZ the maximum z coordinate
+	 */
+	public MapHull(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+		if (minX > maxX || minY > maxY || minZ > maxZ)
+			throw new IllegalArgumentException("Minimum corner must not exceed maximum corner");
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+	}
+
+	/**
+	 * Returns the minimum x coordinate.
+	 *
+	 * @return the minimum x coordinate
+	 */
+	public double getMinX() {
+		return this.minX;
+	}
+
+	/**
+	 * Returns the minimum y coordinate.
+	 *
+	 * @return the minimum y coordinate
+	 */
+	public double getMinY() {
+		return this.minY;
+	}
+
+	/**
+	 * Returns the minimum z coordinate.
+	 *
+	 * @return the minimum z coordinate
+	 */
+	public double getMinZ() {
+		return this.minZ;
+	}
+
+	/**
+	 * Returns the maximum x coordinate.
+	 *
+	 * @return the maximum x coordinate
+	 */
+	public double getMaxX() {
+		return this.maxX;
+	}
+
+	/**
+	 * Returns the maximum y coordinate.
+	 *
+	 * @return the maximum y coordinate
+	 */
+	public double getMaxY() {
+		return this.maxY;
+	}
+
+	/**
+	 * Returns the maximum z coordinate.
+	 *
+	 * @return the maximum z coordinate
+	 */
+	public double getMaxZ() {
+		return this.maxZ;
+	}
+
+	/**
+	 * Returns the distance a plane with the specified normal is pushed outward when expanding a brush by this hull, the
+	 * support of the mirrored box in the direction of the normal.
+	 *
+	 * @param normalX the x component of the plane normal
+	 * @param normalY the y component of the plane normal
+	 * @param normalZ the z component of the plane normal
+	 *
+	 * @return the offset of the plane
+	 */
+	public double getOffset(double normalX, double normalY, double normalZ) {
+		return -(normalX * (normalX > 0.0 ? this.minX : this.maxX) + normalY * (normalY > 0.0 ? this.minY : this.maxY)
+				+ normalZ * (normalZ > 0.0 ? this.minZ : this.maxZ));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapHull [minX=%s, minY=%s, minZ=%s, maxX=%s, maxY=%s, maxZ=%s]", this.minX, this.minY,
+				this.minZ, this.maxX, this.maxY, this.maxZ);
+	}
+
+}
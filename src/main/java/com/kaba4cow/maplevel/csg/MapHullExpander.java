@@ -0,0 +1,293 @@
+package com.kaba4cow.maplevel.csg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.elements.MapPoint;
+import com.kaba4cow.maplevel.geometry.MapBounds;
+import com.kaba4cow.maplevel.geometry.MapPlane;
+import com.kaba4cow.maplevel.geometry.MapPolygon;
+import com.kaba4cow.maplevel.profiling.MapEvent;
+import com.kaba4cow.maplevel.profiling.MapEventType;
+import com.kaba4cow.maplevel.profiling.MapProfiler;
+
+/**
+ * A utility class for expanding brushes into collision hulls, the Minkowski sum of each brush with the mirrored
+ * bounding box of a {@link MapHull}. Before expansion every brush receives the axial and edge bevel planes of the
+ * classic Quake tools, so that the expanded brush does not protrude beyond the true Minkowski sum at sharp edges and
+ * corners. Bevel planes are computed once per brush and reused for all hulls, brushes are processed in parallel.
+ * <p>
+ * Expanded faces keep the texture of their original face, bevel faces take the texture of the face with the most
+ * similar normal. Axial planes at integral distances keep integral plane points.
+ */
+public class MapHullExpander {
+
+	private static final double BEVEL_SIZE = 64.0;
+	private static final double MIN_EDGE_LENGTH = 0.5;
+	private static final double SNAP_EPSILON = 1e-9;
+
+	private MapHullExpander() {}
+
+	/**
+	 * Expands the specified brush by every specified hull.
+	 *
+	 * @param brush the brush to expand
+	 * @param hulls the hulls to expand the brush by
+	 *
+	 * @return a list of expanded brushes in hull order, containing {@code null} for every hull if the brush has no
+	 *             volume
+	 */
+	public static List<MapBrush> expand(MapBrush brush, List<MapHull> hulls) {
+		Objects.requireNonNull(hulls, "Hulls must not be null");
+		MapBrush[] result = new MapBrush[hulls.size()];
+		MapHullSolid solid = MapHullSolid.of(new MapCsgSolid(brush));
+		if (Objects.nonNull(solid))
+			for (int i = 0; i < result.length; i++)
+				result[i] = solid.expand(hulls.get(i));
+		return Arrays.asList(result);
+	}
+
+	/**
+	 * Expands the specified brushes by every specified hull. Brushes are processed in parallel.
+	 *
+	 * @param brushes the brushes to expand
+	 * @param hulls   the hulls to expand the brushes by
+	 *
+	 * @return a list containing a list of expanded brushes for every hull in hull order, each in the order of
+	 *             {@code brushes} and containing {@code null} for brushes without volume
+	 */
+	public static List<List<MapBrush>> expand(List<MapBrush> brushes, List<MapHull> hulls) {
+		Objects.requireNonNull(brushes, "Brushes must not be null");
+		Objects.requireNonNull(hulls, "Hulls must not be null");
+		try (MapEvent event = MapProfiler.begin(MapEventType.HULL)) {
+			event.setBrushes(brushes);
+			MapBrush[][] result = new MapBrush[hulls.size()][brushes.size()];
+			IntStream.range(0, brushes.size()).parallel().forEach(index -> {
+				MapHullSolid solid = MapHullSolid.of(new MapCsgSolid(brushes.get(index)));
+				if (Objects.nonNull(solid))
+					for (int i = 0; i < result.length; i++)
+						result[i][index] = solid.expand(hulls.get(i));
+			});
+			List<List<MapBrush>> lists = new ArrayList<>(result.length);
+			for (MapBrush[] hull : result)
+				lists.add(Arrays.asList(hull));
+			return Collections.unmodifiableList(lists);
+		}
+	}
+
+	/**
+	 * Expands all brushes of the specified level by every specified hull. Brushes are processed in parallel.
+	 *
+	 * @param level the level to expand
+	 * @param hulls the hulls to expand the level by
+	 *
+	 * @return a list of new levels in hull order, containing a copy of every entity of {@code level} with its brushes
+	 *             replaced by the expanded brushes, brushes without volume are dropped
+	 */
+	public static List<MapLevel> expand(MapLevel level, List<MapHull> hulls) {
+		Objects.requireNonNull(level, "Level must not be null");
+		List<MapBrush> brushes = new ArrayList<>();
+		for (MapEntity entity : level.getEntities())
+			brushes.addAll(entity.getBrushes());
+		List<List<MapBrush>> expanded = MapHullExpander.expand(brushes, hulls);
+		List<MapLevel> levels = new ArrayList<>(hulls.size());
+		for (List<MapBrush> hull : expanded) {
+			MapLevel target = new MapLevel();
+			int brushIndex = 0;
+			for (MapEntity entity : level.getEntities()) {
+				MapEntity copy = new MapEntity();
+				for (Map.Entry<String, String> property : entity.getProperties().getProperties().entrySet())
+					copy.getProperties().set(property.getKey(), property.getValue());
+				for (int i = 0; i < entity.getBrushCount(); i++) {
+					MapBrush brush = hull.get(brushIndex++);
+					if (Objects.nonNull(brush))
+						copy.addBrush(brush);
+				}
+				target.addEntity(copy);
+			}
+			levels.add(target);
+		}
+		return levels;
+	}
+
+	private static class MapHullSolid {
+
+		private final List<MapFace> templates;
+		private final List<MapPlane> planes;
+		private final int originalCount;
+
+		private MapHullSolid(List<MapFace> templates, List<MapPlane> planes, int originalCount) {
+			this.templates = templates;
+			this.planes = planes;
+			this.originalCount = originalCount;
+		}
+
+		private static MapHullSolid of(MapCsgSolid solid) {
+			if (solid.isEmpty())
+				return null;
+			List<MapFace> templates = new ArrayList<>();
+			List<MapPlane> planes = new ArrayList<>();
+			for (int i = 0; i < solid.getPlaneCount(); i++)
+				if (Objects.nonNull(solid.getPolygon(i))) {
+					templates.add(solid.getBrush().readFace(i, new MapFace()));
+					planes.add(solid.getPlane(i));
+				}
+			int originalCount = planes.size();
+			MapBounds bounds = solid.getBounds();
+			double[] minimum = { bounds.getMinX(), bounds.getMinY(), bounds.getMinZ() };
+			double[] maximum = { bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ() };
+			for (int axis = 0; axis < 3; axis++)
+				for (int sign = -1; sign <= 1; sign += 2) {
+					double[] normal = new double[3];
+					normal[axis] = sign;
+					double distance = sign > 0 ? maximum[axis] : -minimum[axis];
+					if (MapHullSolid.indexOf(planes, normal[0], normal[1], normal[2]) < 0)
+						MapHullSolid.addBevel(templates, planes, originalCount,
+								new MapPlane(normal[0], normal[1], normal[2], distance));
+				}
+			for (int i = 0; i < solid.getPlaneCount(); i++) {
+				MapPolygon polygon = solid.getPolygon(i);
+				if (Objects.nonNull(polygon))
+					for (int j = 0; j < polygon.getVertexCount(); j++)
+						MapHullSolid.addEdgeBevels(solid, templates, planes, originalCount, polygon, j);
+			}
+			return new MapHullSolid(templates, planes, originalCount);
+		}
+
+		private static void addEdgeBevels(MapCsgSolid solid, List<MapFace> templates, List<MapPlane> planes,
+				int originalCount, MapPolygon polygon, int index) {
+			int next = (index + 1) % polygon.getVertexCount();
+			double x = polygon.getX(index);
+			double y = polygon.getY(index);
+			double z = polygon.getZ(index);
+			double edgeX = polygon.getX(next) - x;
+			double edgeY = polygon.getY(next) - y;
+			double edgeZ = polygon.getZ(next) - z;
+			double length = Math.sqrt(edgeX * edgeX + edgeY * edgeY + edgeZ * edgeZ);
+			if (length < MapHullExpander.MIN_EDGE_LENGTH)
+				return;
+			edgeX /= length;
+			edgeY /= length;
+			edgeZ /= length;
+			for (int axis = 0; axis < 3; axis++)
+				for (int sign = -1; sign <= 1; sign += 2) {
+					double axisX = axis == 0 ? sign : 0.0;
+					double axisY = axis == 1 ? sign : 0.0;
+					double axisZ = axis == 2 ? sign : 0.0;
+					double normalX = edgeY * axisZ - edgeZ * axisY;
+					double normalY = edgeZ * axisX - edgeX * axisZ;
+					double normalZ = edgeX * axisY - edgeY * axisX;
+					double normalLength = Math.sqrt(normalX * normalX + normalY * normalY + normalZ * normalZ);
+					if (normalLength < MapHullExpander.MIN_EDGE_LENGTH)
+						continue;
+					normalX /= normalLength;
+					normalY /= normalLength;
+					normalZ /= normalLength;
+					if (MapHullSolid.indexOf(planes, normalX, normalY, normalZ) >= 0)
+						continue;
+					MapPlane plane = new MapPlane(normalX, normalY, normalZ, normalX * x + normalY * y + normalZ * z);
+					if (solid.isBehind(plane))
+						MapHullSolid.addBevel(templates, planes, originalCount, plane);
+				}
+		}
+
+		private static void addBevel(List<MapFace> templates, List<MapPlane> planes, int originalCount,
+				MapPlane plane) {
+			int template = 0;
+			double best = Double.NEGATIVE_INFINITY;
+			for (int i = 0; i < originalCount; i++) {
+				MapPlane original = planes.get(i);
+				double dot = original.getNormalX() * plane.getNormalX() + original.getNormalY() * plane.getNormalY()
+						+ original.getNormalZ() * plane.getNormalZ();
+				if (dot > best) {
+					best = dot;
+					template = i;
+				}
+			}
+			templates.add(templates.get(template));
+			planes.add(plane);
+		}
+
+		private static int indexOf(List<MapPlane> planes, double normalX, double normalY, double normalZ) {
+			for (int i = 0; i < planes.size(); i++) {
+				MapPlane plane = planes.get(i);
+				if (Math.abs(plane.getNormalX() - normalX) <= MapPlane.EPSILON
+						&& Math.abs(plane.getNormalY() - normalY) <= MapPlane.EPSILON
+						&& Math.abs(plane.getNormalZ() - normalZ) <= MapPlane.EPSILON)
+					return i;
+			}
+			return -1;
+		}
+
+		private MapBrush expand(MapHull hull) {
+			MapBrush brush = new MapBrush();
+			for (int i = 0; i < this.planes.size(); i++) {
+				MapPlane plane = this.planes.get(i);
+				double offset = hull.getOffset(plane.getNormalX(), plane.getNormalY(), plane.getNormalZ());
+				MapFace face = this.templates.get(i).copy();
+				if (i < this.originalCount)
+					MapHullSolid.translate(face, plane, offset);
+				else
+					MapHullSolid.place(face, plane, offset);
+				brush.addFace(face);
+			}
+			return brush;
+		}
+
+		private static void translate(MapFace face, MapPlane plane, double offset) {
+			if (offset == 0.0)
+				return;
+			double x = plane.getNormalX() * offset;
+			double y = plane.getNormalY() * offset;
+			double z = plane.getNormalZ() * offset;
+			for (MapPoint point : new MapPoint[] { face.getPoint1(), face.getPoint2(), face.getPoint3() })
+				point.setExact(MapHullSolid.snap(point.getExactX() + x), MapHullSolid.snap(point.getExactY() + y),
+						MapHullSolid.snap(point.getExactZ() + z));
+		}
+
+		private static void place(MapFace face, MapPlane plane, double offset) {
+			double normalX = plane.getNormalX();
+			double normalY = plane.getNormalY();
+			double normalZ = plane.getNormalZ();
+			double absX = Math.abs(normalX);
+			double absY = Math.abs(normalY);
+			double absZ = Math.abs(normalZ);
+			double axisX = absX <= absY && absX <= absZ ? 1.0 : 0.0;
+			double axisY = axisX == 0.0 && absY <= absZ ? 1.0 : 0.0;
+			double axisZ = axisX == 0.0 && axisY == 0.0 ? 1.0 : 0.0;
+			double uX = normalY * axisZ - normalZ * axisY;
+			double uY = normalZ * axisX - normalX * axisZ;
+			double uZ = normalX * axisY - normalY * axisX;
+			double length = Math.sqrt(uX * uX + uY * uY + uZ * uZ);
+			uX *= MapHullExpander.BEVEL_SIZE / length;
+			uY *= MapHullExpander.BEVEL_SIZE / length;
+			uZ *= MapHullExpander.BEVEL_SIZE / length;
+			double vX = normalY * uZ - normalZ * uY;
+			double vY = normalZ * uX - normalX * uZ;
+			double vZ = normalX * uY - normalY * uX;
+			double distance = plane.getDistance() + offset;
+			double x = normalX * distance;
+			double y = normalY * distance;
+			double z = normalZ * distance;
+			face.getPoint1().setExact(MapHullSolid.snap(x + uX), MapHullSolid.snap(y + uY), MapHullSolid.snap(z + uZ));
+			face.getPoint2().setExact(MapHullSolid.snap(x), MapHullSolid.snap(y), MapHullSolid.snap(z));
+			face.getPoint3().setExact(MapHullSolid.snap(x + vX), MapHullSolid.snap(y + vY), MapHullSolid.snap(z + vZ));
+		}
+
+		private static double snap(double value) {
+			double integer = Math.rint(value);
+			return (Math.abs(value - integer) < MapHullExpander.SNAP_EPSILON ? integer : value) + 0.0;
+		}
+
+	}
+
+}
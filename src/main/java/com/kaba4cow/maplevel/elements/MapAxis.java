@@ -11,6 +11,7 @@ public class MapAxis implements MapElement {
 	private float y;
 	private float z;
 	private float offset;
+	private int modCount;
 
 	MapAxis() {
 		this.x = 0.0f;
@@ -37,6 +38,7 @@ public class MapAxis implements MapElement {
 	 */
 	public MapAxis setX(float x) {
 		this.x = x;
+		this.modCount++;
 		return this;
 	}
 
@@ -58,6 +60,7 @@ public class MapAxis implements MapElement {
 	 */
 	public MapAxis setY(float y) {
 		this.y = y;
+		this.modCount++;
 		return this;
 	}
 
@@ -79,6 +82,7 @@ public class MapAxis implements MapElement {
 	 */
 	public MapAxis setZ(float z) {
 		this.z = z;
+		this.modCount++;
 		return this;
 	}
 
@@ -100,9 +104,27 @@ public class MapAxis implements MapElement {
 	 */
 	public MapAxis setOffset(float offset) {
 		this.offset = offset;
+		this.modCount++;
 		return this;
 	}
 
+	MapAxis set(MapAxis axis) {
+		this.x = axis.x;
+		this.y = axis.y;
+		this.z = axis.z;
+		this.offset = axis.offset;
+		this.modCount++;
+		return this;
+	}
+
+	int getModCount() {
+		return this.modCount;
+	}
+
+	long hash(long hash) {
+		return MapHasher.mix(MapHasher.mix(MapHasher.mix(MapHasher.mix(hash, this.x), this.y), this.z), this.offset);
+	}
+
 	/**
 	 * Converts the texture axis to its MAP string representation.
 	 * 
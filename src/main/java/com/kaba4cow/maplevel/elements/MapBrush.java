@@ -5,31 +5,110 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import com.kaba4cow.maplevel.MapElement;
 
 /**
- * Represents a single brush of a MAP entity.
+ * Represents a single brush of a MAP entity. A brush created by {@link MapPrefab#instantiate(MapPrefabTransform)}
+ * references the shared geometry of the prefab instead of owning faces. Its faces can be read with
+ * {@link #readFace(int, MapFace)} without creating them; they are created when first requested with
+ * {@link #getFace(int)} or {@link #getFaces()} or when the brush is modified.
  */
 public class MapBrush implements MapElement {
 
 	private final List<MapFace> faces;
+	private final List<MapFace> facesView;
+	private int modCount;
+	private long fingerprint;
+	private volatile long fingerprintVersion;
+	private volatile MapPrefab prefab;
+	private int prefabBrush;
+	private MapPrefabTransform prefabTransform;
 
 	/**
 	 * Creates a new MAP brush.
 	 */
 	public MapBrush() {
 		this.faces = new ArrayList<>();
+		this.facesView = Collections.unmodifiableList(this.faces);
+		this.fingerprintVersion = MapFace.INVALID_VERSION;
+		this.prefab = null;
+	}
+
+	MapBrush(MapPrefab prefab, int prefabBrush, MapPrefabTransform prefabTransform) {
+		this();
+		this.prefabBrush = prefabBrush;
+		this.prefabTransform = prefabTransform;
+		this.prefab = prefab;
+	}
+
+	/**
+	 * Returns the prefab whose geometry this brush still references.
+	 *
+	 * @return the prefab, or {@code null} if the brush owns its faces
+	 */
+	public MapPrefab getPrefab() {
+		return this.prefab;
+	}
+
+	/**
+	 * Returns the transformation placing the prefab whose geometry this brush still references.
+	 *
+	 * @return the transformation, or {@code null} if the brush owns its faces
+	 */
+	public MapPrefabTransform getPrefabTransform() {
+		return Objects.isNull(this.prefab) ? null : this.prefabTransform;
+	}
+
+	/**
+	 * Checks whether the brush still references the shared geometry of a prefab. Requesting or modifying the faces of
+	 * such a brush creates its own transformed faces and detaches it from the prefab, reading them with
+	 * {@link #readFace(int, MapFace)} does not.
+	 *
+	 * @return {@code true} if the brush references prefab geometry
+	 */
+	public boolean isInstance() {
+		return Objects.nonNull(this.prefab);
+	}
+
+	private void materialize() {
+		if (Objects.nonNull(this.prefab))
+			synchronized (this) {
+				MapPrefab prefab = this.prefab;
+				if (Objects.nonNull(prefab)) {
+					this.faces.addAll(prefab.createFaces(this.prefabBrush, this.prefabTransform));
+					this.prefab = null;
+				}
+			}
+	}
+
+	/**
+	 * Retrieves a face for reading without detaching the brush from its prefab. For a brush owning its faces, the face
+	 * itself is returned and the target is not used. For a prefab instance, the transformed face of the prefab is
+	 * written to the target, which is returned and not retained by the brush, so the same target can be reused for all
+	 * faces. The returned face must not be modified.
+	 *
+	 * @param index  the index of the face
+	 * @param target the face to write the face of a prefab instance to
+	 *
+	 * @return the face
+	 */
+	public MapFace readFace(int index, MapFace target) {
+		MapPrefab prefab = this.prefab;
+		if (Objects.isNull(prefab))
+			return this.faces.get(index);
+		return prefab.readFace(this.prefabBrush, index, this.prefabTransform, target);
 	}
 
 	/**
-	 * Retrieves an unmodifiable list of faces in the model.
+	 * Retrieves an unmodifiable list of faces in the model. The list is a live view shared between calls. The faces of
+	 * a prefab instance are created and the brush is detached from the prefab.
 	 *
 	 * @return an unmodifiable list of {@link MapFace} objects
 	 */
 	public List<MapFace> getFaces() {
-		return Collections.unmodifiableList(this.faces);
+		this.materialize();
+		return this.facesView;
 	}
 
 	/**
@@ -40,7 +119,14 @@ public class MapBrush implements MapElement {
 	 * @return a list of faces matching the predicate
 	 */
 	public List<MapFace> getFaces(Predicate<MapFace> predicate) {
-		return this.faces.stream().filter(predicate).collect(Collectors.toList());
+		this.materialize();
+		List<MapFace> result = new ArrayList<>();
+		for (int i = 0; i < this.faces.size(); i++) {
+			MapFace face = this.faces.get(i);
+			if (predicate.test(face))
+				result.add(face);
+		}
+		return result;
 	}
 
 	/**
@@ -62,6 +148,7 @@ public class MapBrush implements MapElement {
 	 * @return a reference to this object
 	 */
 	public MapFace getFace(int index) {
+		this.materialize();
 		return this.faces.get(index);
 	}
 
@@ -73,7 +160,9 @@ public class MapBrush implements MapElement {
 	 * @return a reference to this object
 	 */
 	public MapBrush addFace(MapFace face) {
+		this.materialize();
 		this.faces.add(face);
+		this.modCount++;
 		return this;
 	}
 
@@ -85,7 +174,9 @@ public class MapBrush implements MapElement {
 	 * @return a reference to this object
 	 */
 	public MapBrush removeFace(int index) {
+		this.materialize();
 		this.faces.remove(index);
+		this.modCount++;
 		return this;
 	}
 
@@ -97,7 +188,9 @@ public class MapBrush implements MapElement {
 	 * @return a reference to this object
 	 */
 	public MapBrush removeFace(MapFace face) {
+		this.materialize();
 		this.faces.remove(face);
+		this.modCount++;
 		return this;
 	}
 
@@ -107,7 +200,9 @@ public class MapBrush implements MapElement {
 	 * @return a reference to this object
 	 */
 	public MapBrush clearFaces() {
+		this.materialize();
 		this.faces.clear();
+		this.modCount++;
 		return this;
 	}
 
@@ -117,7 +212,53 @@ public class MapBrush implements MapElement {
 	 * @return the number of faces
 	 */
 	public int getFaceCount() {
-		return this.faces.size();
+		MapPrefab prefab = this.prefab;
+		return Objects.isNull(prefab) ? this.faces.size() : prefab.getFaceCount(this.prefabBrush);
+	}
+
+	/**
+	 * Returns a 64-bit fingerprint of the brush content, combining the fingerprints of its faces in order. The
+	 * fingerprint is cached and recomputed only after the brush or one of its faces has been modified. It must not be
+	 * requested concurrently with modifications of the brush.
+	 * 
+	 * @return the fingerprint
+	 * 
+	 * @see MapFace#getFingerprint()
+	 */
+	public long getFingerprint() {
+		long version = this.getVersion();
+		if (this.fingerprintVersion != version) {
+			MapFace target = this.isInstance() ? new MapFace() : null;
+			int faceCount = this.getFaceCount();
+			long hash = MapHasher.mix(MapHasher.SEED, (long) faceCount);
+			for (int i = 0; i < faceCount; i++)
+				hash = MapHasher.mix(hash, this.readFace(i, target).getFingerprint());
+			this.fingerprint = MapHasher.finish(hash);
+			this.fingerprintVersion = version;
+		}
+		return this.fingerprint;
+	}
+
+	long getVersion() {
+		long version = MapHasher.mix(MapHasher.SEED, (long) this.modCount);
+		for (int i = 0; i < this.faces.size(); i++)
+			version = MapHasher.mix(version, this.faces.get(i).getVersion());
+		return version;
+	}
+
+	/**
+	 * Creates a deep copy of the brush.
+	 * 
+	 * @return the copy of this brush
+	 */
+	public MapBrush copy() {
+		MapPrefab prefab = this.prefab;
+		if (Objects.nonNull(prefab))
+			return new MapBrush(prefab, this.prefabBrush, this.prefabTransform);
+		MapBrush brush = new MapBrush();
+		for (MapFace face : this.faces)
+			brush.addFace(face.copy());
+		return brush;
 	}
 
 	/**
@@ -129,14 +270,18 @@ public class MapBrush implements MapElement {
 	public String toMapString() {
 		StringBuilder builder = new StringBuilder();
 		builder.append("{\n");
-		for (MapFace face : this.faces)
-			builder.append(face.toMapString()).append("\n");
+		MapFace target = this.isInstance() ? new MapFace() : null;
+		for (int i = 0; i < this.getFaceCount(); i++)
+			builder.append(this.readFace(i, target).toMapString()).append("\n");
 		builder.append("}");
 		return builder.toString();
 	}
 
 	@Override
 	public String toString() {
+		MapPrefab prefab = this.prefab;
+		if (Objects.nonNull(prefab))
+			return String.format("MapBrush [prefab=%s, transform=%s]", prefab, this.prefabTransform);
 		return String.format("MapBrush [faces=%s]", this.faces);
 	}
 
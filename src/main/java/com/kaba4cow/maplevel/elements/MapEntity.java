@@ -13,10 +13,16 @@ public class MapEntity implements MapElement {
 
 	private final MapProperties properties;
 	private final List<MapBrush> brushes;
+	private final List<MapBrush> brushesView;
+	private int modCount;
+	private long fingerprint;
+	private volatile long fingerprintVersion;
 
 	public MapEntity() {
 		this.properties = new MapProperties();
 		this.brushes = new ArrayList<>();
+		this.brushesView = Collections.unmodifiableList(this.brushes);
+		this.fingerprintVersion = MapFace.INVALID_VERSION;
 	}
 
 	/**
@@ -29,12 +35,12 @@ public class MapEntity implements MapElement {
 	}
 
 	/**
-	 * Retrieves an unmodifiable list of brushes.
+	 * Retrieves an unmodifiable list of brushes. The list is a live view shared between calls.
 	 *
 	 * @return an unmodifiable list of {@link MapBrush} objects
 	 */
 	public List<MapBrush> getBrushes() {
-		return Collections.unmodifiableList(this.brushes);
+		return this.brushesView;
 	}
 
 	/**
@@ -57,6 +63,7 @@ public class MapEntity implements MapElement {
 	 */
 	public MapEntity addBrush(MapBrush brush) {
 		this.brushes.add(brush);
+		this.modCount++;
 		return this;
 	}
 
@@ -69,6 +76,7 @@ public class MapEntity implements MapElement {
 	 */
 	public MapEntity removeBrush(int index) {
 		this.brushes.remove(index);
+		this.modCount++;
 		return this;
 	}
 
@@ -81,6 +89,7 @@ public class MapEntity implements MapElement {
 	 */
 	public MapEntity removeBrush(MapBrush brush) {
 		this.brushes.remove(brush);
+		this.modCount++;
 		return this;
 	}
 
@@ -91,6 +100,7 @@ public class MapEntity implements MapElement {
 	 */
 	public MapEntity clearBrushes() {
 		this.brushes.clear();
+		this.modCount++;
 		return this;
 	}
 
@@ -103,6 +113,38 @@ public class MapEntity implements MapElement {
 		return this.brushes.size();
 	}
 
+	/**
+	 * Returns a 64-bit fingerprint of the entity content, combining the fingerprint of its properties with the
+	 * fingerprints of its brushes in order. The fingerprint is cached and recomputed only after the entity, its
+	 * properties or one of its brushes has been modified. It must not be requested concurrently with modifications of
+	 * the entity.
+	 * 
+	 * @return the fingerprint
+	 * 
+	 * @see MapBrush#getFingerprint()
+	 * @see MapProperties#getFingerprint()
+	 */
+	public long getFingerprint() {
+		long version = this.getVersion();
+		if (this.fingerprintVersion != version) {
+			long hash = MapHasher.mix(MapHasher.SEED, this.properties.getFingerprint());
+			hash = MapHasher.mix(hash, (long) this.brushes.size());
+			for (int i = 0; i < this.brushes.size(); i++)
+				hash = MapHasher.mix(hash, this.brushes.get(i).getFingerprint());
+			this.fingerprint = MapHasher.finish(hash);
+			this.fingerprintVersion = version;
+		}
+		return this.fingerprint;
+	}
+
+	private long getVersion() {
+		long version = MapHasher.mix(MapHasher.SEED,
+				(long) this.modCount << 32 | this.properties.getModCount() & 0xFFFFFFFFL);
+		for (int i = 0; i < this.brushes.size(); i++)
+			version = MapHasher.mix(version, this.brushes.get(i).getVersion());
+		return version;
+	}
+
 	@Override
 	public String toMapString() {
 		StringBuilder builder = new StringBuilder();
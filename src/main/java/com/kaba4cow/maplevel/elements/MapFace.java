@@ -7,6 +7,8 @@ import com.kaba4cow.maplevel.MapElement;
  */
 public class MapFace implements MapElement {
 
+	static final long INVALID_VERSION = Long.MIN_VALUE;
+
 	private final MapPoint point1;
 	private final MapPoint point2;
 	private final MapPoint point3;
@@ -14,6 +16,9 @@ public class MapFace implements MapElement {
 	private final MapAxis axisU;
 	private final MapAxis axisV;
 	private final MapTransform transform;
+	private int modCount;
+	private long fingerprint;
+	private volatile long fingerprintVersion;
 
 	/**
 	 * Creates a new MAP face.
@@ -26,6 +31,7 @@ public class MapFace implements MapElement {
 		this.axisU = new MapAxis();
 		this.axisV = new MapAxis();
 		this.transform = new MapTransform();
+		this.fingerprintVersion = MapFace.INVALID_VERSION;
 	}
 
 	/**
@@ -73,6 +79,7 @@ public class MapFace implements MapElement {
 	 */
 	public MapFace setTexture(String texture) {
 		this.texture = texture;
+		this.modCount++;
 		return this;
 	}
 
@@ -103,6 +110,69 @@ public class MapFace implements MapElement {
 		return this.transform;
 	}
 
+	/**
+	 * Creates a deep copy of the face.
+	 * 
+	 * @return the copy of this face
+	 */
+	public MapFace copy() {
+		MapFace face = new MapFace();
+		face.point1.set(this.point1);
+		face.point2.set(this.point2);
+		face.point3.set(this.point3);
+		face.texture = this.texture;
+		face.axisU.set(this.axisU);
+		face.axisV.set(this.axisV);
+		face.transform.set(this.transform);
+		return face;
+	}
+
+	/**
+	 * Reverses the winding of the face points, flipping the face plane to the opposite direction.
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapFace flip() {
+		double x = this.point1.getExactX();
+		double y = this.point1.getExactY();
+		double z = this.point1.getExactZ();
+		this.point1.set(this.point3);
+		this.point3.setExact(x, y, z);
+		return this;
+	}
+
+	/**
+	 * Returns a 64-bit fingerprint of the face content: the exact point coordinates, the texture name and the bits of
+	 * the texture axes and transform. The fingerprint is cached and recomputed only after the face or one of its parts
+	 * has been modified. It must not be requested concurrently with modifications of the face.
+	 * 
+	 * @return the fingerprint
+	 */
+	public long getFingerprint() {
+		long version = this.getVersion();
+		if (this.fingerprintVersion != version) {
+			long hash = MapHasher.SEED;
+			hash = this.point1.hash(hash);
+			hash = this.point2.hash(hash);
+			hash = this.point3.hash(hash);
+			hash = MapHasher.mix(hash, this.texture);
+			hash = this.axisU.hash(hash);
+			hash = this.axisV.hash(hash);
+			hash = this.transform.hash(hash);
+			this.fingerprint = MapHasher.finish(hash);
+			this.fingerprintVersion = version;
+		}
+		return this.fingerprint;
+	}
+
+	long getVersion() {
+		long version = MapHasher.mix(MapHasher.SEED, (long) this.modCount);
+		version = MapHasher.mix(version, (long) this.point1.getModCount() << 32 | this.point2.getModCount() & 0xFFFFFFFFL);
+		version = MapHasher.mix(version, (long) this.point3.getModCount() << 32 | this.axisU.getModCount() & 0xFFFFFFFFL);
+		return MapHasher.mix(version,
+				(long) this.axisV.getModCount() << 32 | this.transform.getModCount() & 0xFFFFFFFFL);
+	}
+
 	/**
 	 * Converts the face to its MAP string representation.
 	 *
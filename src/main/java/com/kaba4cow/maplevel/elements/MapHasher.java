@@ -0,0 +1,51 @@
+package com.kaba4cow.maplevel.elements;
+
+import java.util.Objects;
+
+/**
+ * Mixes the canonical numeric content of MAP elements into 64-bit hashes. Floating point values are hashed by their
+ * bits with {@code -0.0} folded into {@code 0.0}, strings by their characters, so hashes are independent of number
+ * formatting and stable across JVM runs.
+ */
+class MapHasher {
+
+	static final long SEED = 0x243F6A8885A308D3L;
+
+	private MapHasher() {}
+
+	static long mix(long hash, long value) {
+		return Long.rotateLeft(hash ^ value * 0x9E3779B97F4A7C15L, 27) * 0xC2B2AE3D27D4EB4FL + 0x165667B19E3779F9L;
+	}
+
+	static long mix(long hash, double value) {
+		return MapHasher.mix(hash, Double.doubleToLongBits(value + 0.0));
+	}
+
+	static long mix(long hash, float value) {
+		return MapHasher.mix(hash, (long) Float.floatToIntBits(value + 0.0f));
+	}
+
+	static long mix(long hash, String value) {
+		if (Objects.isNull(value))
+			return MapHasher.mix(hash, -1L);
+		int length = value.length();
+		hash = MapHasher.mix(hash, (long) length);
+		int i = 0;
+		for (; i + 3 < length; i += 4)
+			hash = MapHasher.mix(hash, (long) value.charAt(i) | (long) value.charAt(i + 1) << 16
+					| (long) value.charAt(i + 2) << 32 | (long) value.charAt(i + 3) << 48);
+		long tail = 0L;
+		for (int shift = 0; i < length; i++, shift += 16)
+			tail |= (long) value.charAt(i) << shift;
+		return MapHasher.mix(hash, tail);
+	}
+
+	static long finish(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		return hash ^ hash >>> 33;
+	}
+
+}
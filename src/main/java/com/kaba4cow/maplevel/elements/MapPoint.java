@@ -3,18 +3,21 @@ package com.kaba4cow.maplevel.elements;
 import com.kaba4cow.maplevel.MapElement;
 
 /**
- * Represents a plane point of a MAP brush face.
+ * Represents a plane point of a MAP brush face. The coordinates are stored in double precision, so coordinates written
+ * by editors in double precision and integer grid coordinates up to {@code 2^53} are held exactly. The {@code float}
+ * accessors round to single precision.
  */
 public class MapPoint implements MapElement {
 
-	private float x;
-	private float y;
-	private float z;
+	private double x;
+	private double y;
+	private double z;
+	private int modCount;
 
 	MapPoint() {
-		this.x = 0.0f;
-		this.y = 0.0f;
-		this.z = 0.0f;
+		this.x = 0.0;
+		this.y = 0.0;
+		this.z = 0.0;
 	}
 
 	/**
@@ -23,6 +26,15 @@ public class MapPoint implements MapElement {
 	 * @return the x component
 	 */
 	public float getX() {
+		return (float) this.x;
+	}
+
+	/**
+	 * Returns the x component of the point in double precision.
+	 * 
+	 * @return the x component
+	 */
+	public double getExactX() {
 		return this.x;
 	}
 
@@ -35,6 +47,7 @@ public class MapPoint implements MapElement {
 	 */
 	public MapPoint setX(float x) {
 		this.x = x;
+		this.modCount++;
 		return this;
 	}
 
@@ -44,6 +57,15 @@ public class MapPoint implements MapElement {
 	 * @return the y component
 	 */
 	public float getY() {
+		return (float) this.y;
+	}
+
+	/**
+	 * Returns the y component of the point in double precision.
+	 * 
+	 * @return the y component
+	 */
+	public double getExactY() {
 		return this.y;
 	}
 
@@ -56,6 +78,7 @@ public class MapPoint implements MapElement {
 	 */
 	public MapPoint setY(float y) {
 		this.y = y;
+		this.modCount++;
 		return this;
 	}
 
@@ -65,6 +88,15 @@ public class MapPoint implements MapElement {
 	 * @return the z component
 	 */
 	public float getZ() {
+		return (float) this.z;
+	}
+
+	/**
+	 * Returns the z component of the point in double precision.
+	 * 
+	 * @return the z component
+	 */
+	public double getExactZ() {
 		return this.z;
 	}
 
@@ -77,17 +109,66 @@ public class MapPoint implements MapElement {
 	 */
 	public MapPoint setZ(float z) {
 		this.z = z;
+		this.modCount++;
 		return this;
 	}
 
 	/**
-	 * Converts the plane point to its MAP string representation.
+	 * Sets the components of the point in double precision.
+	 * 
+	 * @param x the x component
+	 * @param y the y component
+	 * @param z the z component
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapPoint setExact(double x, double y, double z) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.modCount++;
+		return this;
+	}
+
+	/**
+	 * Checks whether all components of the point are integers.
+	 * 
+	 * @return {@code true} if the point lies on the integer grid
+	 */
+	public boolean isIntegral() {
+		return this.x == Math.rint(this.x) && this.y == Math.rint(this.y) && this.z == Math.rint(this.z);
+	}
+
+	MapPoint set(MapPoint point) {
+		this.x = point.x;
+		this.y = point.y;
+		this.z = point.z;
+		this.modCount++;
+		return this;
+	}
+
+	int getModCount() {
+		return this.modCount;
+	}
+
+	long hash(long hash) {
+		return MapHasher.mix(MapHasher.mix(MapHasher.mix(hash, this.x), this.y), this.z);
+	}
+
+	/**
+	 * Converts the plane point to its MAP string representation. Components representable in single precision are
+	 * written as {@code float} values, other components with full double precision.
 	 * 
 	 * @return the MAP string representation of this plane point
 	 */
 	@Override
 	public String toMapString() {
-		return String.format("( %s %s %s )", this.x, this.y, this.z);
+		return String.format("( %s %s %s )", MapPoint.format(this.x), MapPoint.format(this.y), MapPoint.format(this.z));
+	}
+
+	private static Object format(double value) {
+		float single = (float) value;
+		return single == value ? (Object) single : (Object) value;
 	}
 
 	@Override
@@ -0,0 +1,227 @@
+package com.kaba4cow.maplevel.elements;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable brush geometry shared by any number of placements. The faces of all brushes are stored in flat primitive
+ * arrays, so a prefab costs a few objects regardless of its size.
+ * <p>
+ * Placements are created by {@link #instantiate(MapPrefabTransform)} as {@link MapBrush} objects referencing the
+ * prefab and a {@link MapPrefabTransform} instead of owning faces. Such brushes are copied without creating faces, and
+ * read through {@link MapBrush#readFace(int, MapFace)}, which transforms a face of the prefab into a reusable target
+ * face. Writing, fingerprinting, traversals of {@link com.kaba4cow.maplevel.MapLevel} and the geometry, mesh and
+ * validation utilities read brushes this way. A brush materializes its own transformed faces only when they are
+ * requested with {@link MapBrush#getFace(int)} or {@link MapBrush#getFaces()} or the brush is modified, after which it
+ * behaves like any other brush and can be edited without affecting the prefab or other placements. Texture projections
+ * are transformed together with the geometry, keeping textures locked to the faces.
+ */
+public class MapPrefab {
+
+	private static final int POINT_SIZE = 9;
+	private static final int AXIS_SIZE = 8;
+	private static final int TRANSFORM_SIZE = 3;
+
+	private final int[] firstFaces;
+	private final double[] points;
+	private final float[] axes;
+	private final float[] transforms;
+	private final String[] textures;
+
+	private MapPrefab(int[] firstFaces, double[] points, float[] axes, float[] transforms, String[] textures) {
+		this.firstFaces = firstFaces;
+		this.points = points;
+		this.axes = axes;
+		this.transforms = transforms;
+		this.textures = textures;
+	}
+
+	/**
+	 * Creates a prefab from a snapshot of the specified brushes. Later modifications of the brushes do not affect the
+	 * prefab.
+	 *
+	 * @param brushes the brushes of the prefab
+	 *
+	 * @return the prefab
+	 */
+	public static MapPrefab of(Collection<MapBrush> brushes) {
+		Objects.requireNonNull(brushes, "Brushes must not be null");
+		int[] firstFaces = new int[brushes.size() + 1];
+		int faceCount = 0;
+		int brushIndex = 0;
+		for (MapBrush brush : brushes) {
+			firstFaces[brushIndex++] = faceCount;
+			faceCount += brush.getFaceCount();
+		}
+		firstFaces[brushIndex] = faceCount;
+		double[] points = new double[faceCount * MapPrefab.POINT_SIZE];
+		float[] axes = new float[faceCount * MapPrefab.AXIS_SIZE];
+		float[] transforms = new float[faceCount * MapPrefab.TRANSFORM_SIZE];
+		String[] textures = new String[faceCount];
+		int index = 0;
+		MapFace target = new MapFace();
+		for (MapBrush brush : brushes)
+			for (int i = 0; i < brush.getFaceCount(); i++) {
+				MapFace face = brush.readFace(i, target);
+				int point = index * MapPrefab.POINT_SIZE;
+				MapPrefab.put(points, point, face.getPoint1());
+				MapPrefab.put(points, point + 3, face.getPoint2());
+				MapPrefab.put(points, point + 6, face.getPoint3());
+				int axis = index * MapPrefab.AXIS_SIZE;
+				MapPrefab.put(axes, axis, face.getAxisU());
+				MapPrefab.put(axes, axis + 4, face.getAxisV());
+				int transform = index * MapPrefab.TRANSFORM_SIZE;
+				transforms[transform + 0] = face.getTransform().getRotation();
+				transforms[transform + 1] = face.getTransform().getScaleX();
+				transforms[transform + 2] = face.getTransform().getScaleY();
+				textures[index] = face.getTexture();
+				index++;
+			}
+		return new MapPrefab(firstFaces, points, axes, transforms, textures);
+	}
+
+	/**
+	 * Creates a prefab from a snapshot of the brushes of the specified entity.
+	 *
+	 * @param entity the entity containing the brushes of the prefab
+	 *
+	 * @return the prefab
+	 */
+	public static MapPrefab of(MapEntity entity) {
+		return MapPrefab.of(entity.getBrushes());
+	}
+
+	private static void put(double[] target, int index, MapPoint point) {
+		target[index + 0] = point.getExactX();
+		target[index + 1] = point.getExactY();
+		target[index + 2] = point.getExactZ();
+	}
+
+	private static void put(float[] target, int index, MapAxis axis) {
+		target[index + 0] = axis.getX();
+		target[index + 1] = axis.getY();
+		target[index + 2] = axis.getZ();
+		target[index + 3] = axis.getOffset();
+	}
+
+	/**
+	 * Creates new brushes placing the prefab with the specified transformation. The brushes share the geometry of the
+	 * prefab until their faces are accessed.
+	 *
+	 * @param transform the transformation of the placement
+	 *
+	 * @return the list of brushes
+	 */
+	public List<MapBrush> instantiate(MapPrefabTransform transform) {
+		Objects.requireNonNull(transform, "Transform must not be null");
+		List<MapBrush> brushes = new ArrayList<>(this.getBrushCount());
+		for (int i = 0; i < this.getBrushCount(); i++)
+			brushes.add(new MapBrush(this, i, transform));
+		return brushes;
+	}
+
+	/**
+	 * Adds brushes placing the prefab with the specified transformation to an entity. The brushes share the geometry of
+	 * the prefab until their faces are accessed.
+	 *
+	 * @param target    the entity to add the brushes to
+	 * @param transform the transformation of the placement
+	 *
+	 * @return a reference to the entity
+	 */
+	public MapEntity instantiate(MapEntity target, MapPrefabTransform transform) {
+		for (MapBrush brush : this.instantiate(transform))
+			target.addBrush(brush);
+		return target;
+	}
+
+	/**
+	 * Returns the number of brushes in the prefab.
+	 *
+	 * @return the number of brushes
+	 */
+	public int getBrushCount() {
+		return this.firstFaces.length - 1;
+	}
+
+	/**
+	 * Returns the number of faces of the specified brush of the prefab.
+	 *
+	 * @param brush the index of the brush
+	 *
+	 * @return the number of faces
+	 */
+	public int getFaceCount(int brush) {
+		return this.firstFaces[brush + 1] - this.firstFaces[brush];
+	}
+
+	/**
+	 * Returns the total number of faces in the prefab.
+	 *
+	 * @return the number of faces
+	 */
+	public int getFaceCount() {
+		return this.textures.length;
+	}
+
+	List<MapFace> createFaces(int brush, MapPrefabTransform transform) {
+		List<MapFace> faces = new ArrayList<>(this.getFaceCount(brush));
+		for (int i = this.firstFaces[brush]; i < this.firstFaces[brush + 1]; i++)
+			faces.add(this.createFace(i, transform));
+		return faces;
+	}
+
+	MapFace readFace(int brush, int index, MapPrefabTransform transform, MapFace target) {
+		if (index < 0 || index >= this.getFaceCount(brush))
+			throw new IndexOutOfBoundsException(String.format("Index: %s, Size: %s", index, this.getFaceCount(brush)));
+		return this.createFace(this.firstFaces[brush] + index, transform, target);
+	}
+
+	private MapFace createFace(int index, MapPrefabTransform transform) {
+		return this.createFace(index, transform, new MapFace());
+	}
+
+	private MapFace createFace(int index, MapPrefabTransform transform, MapFace face) {
+		int point = index * MapPrefab.POINT_SIZE;
+		this.transformPoint(face.getPoint1(), point, transform);
+		this.transformPoint(face.getPoint2(), point + 3, transform);
+		this.transformPoint(face.getPoint3(), point + 6, transform);
+		face.setTexture(this.textures[index]);
+		int transformIndex = index * MapPrefab.TRANSFORM_SIZE;
+		float scaleX = this.transforms[transformIndex + 1];
+		float scaleY = this.transforms[transformIndex + 2];
+		face.getTransform().setRotation(this.transforms[transformIndex + 0]).setScaleX(scaleX).setScaleY(scaleY);
+		int axis = index * MapPrefab.AXIS_SIZE;
+		this.transformAxis(face.getAxisU(), axis, scaleX, transform);
+		this.transformAxis(face.getAxisV(), axis + 4, scaleY, transform);
+		return face;
+	}
+
+	private void transformPoint(MapPoint target, int index, MapPrefabTransform transform) {
+		double x = this.points[index + 0];
+		double y = this.points[index + 1];
+		double z = this.points[index + 2];
+		target.setExact(transform.transformX(x, y, z), transform.transformY(x, y, z), transform.transformZ(x, y, z));
+	}
+
+	private void transformAxis(MapAxis target, int index, float scale, MapPrefabTransform transform) {
+		double x = this.axes[index + 0];
+		double y = this.axes[index + 1];
+		double z = this.axes[index + 2];
+		double rotatedX = transform.rotateX(x, y, z);
+		double rotatedY = transform.rotateY(x, y, z);
+		double rotatedZ = transform.rotateZ(x, y, z);
+		double offset = this.axes[index + 3];
+		if (scale != 0.0f)
+			offset -= (transform.getX() * rotatedX + transform.getY() * rotatedY + transform.getZ() * rotatedZ) / scale;
+		target.setX((float) rotatedX).setY((float) rotatedY).setZ((float) rotatedZ).setOffset((float) offset);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapPrefab [brushes=%s, faces=%s]", this.getBrushCount(), this.getFaceCount());
+	}
+
+}
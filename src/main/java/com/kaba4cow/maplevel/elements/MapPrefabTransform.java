@@ -0,0 +1,196 @@
+package com.kaba4cow.maplevel.elements;
+
+/**
+ * An immutable rigid transformation placing a {@link MapPrefab} in a level, consisting of a rotation followed by a
+ * translation. Rotations by multiples of 90 degrees are exact, so prefabs placed on the integer grid with such
+ * rotations keep integral plane points.
+ */
+public class MapPrefabTransform {
+
+	private static final MapPrefabTransform IDENTITY = new MapPrefabTransform(1.0, 0.0, 0.0, 0.0, 1.0, 0.0, 0.0, 0.0,
+			1.0, 0.0, 0.0, 0.0);
+	private static final double[] QUARTER_COS = { 1.0, 0.0, -1.0, 0.0 };
+
+	private final double m00;
+	private final double m01;
+	private final double m02;
+	private final double m10;
+	private final double m11;
+	private final double m12;
+	private final double m20;
+	private final double m21;
+	private final double m22;
+	private final double x;
+	private final double y;
+	private final double z;
+
+	private MapPrefabTransform(double m00, double m01, double m02, double m10, double m11, double m12, double m20,
+			double m21, double m22, double x, double y, double z) {
+		this.m00 = m00;
+		this.m01 = m01;
+		this.m02 = m02;
+		this.m10 = m10;
+		this.m11 = m11;
+		this.m12 = m12;
+		this.m20 = m20;
+		this.m21 = m21;
+		this.m22 = m22;
+		this.x = x;
+		this.y = y;
+		this.z = z;
+	}
+
+	/**
+	 * Returns the identity transformation.
+	 *
+	 * @return the identity transformation
+	 */
+	public static MapPrefabTransform identity() {
+		return MapPrefabTransform.IDENTITY;
+	}
+
+	/**
+	 * Creates a translation.
+	 *
+	 * @param x the x component of the translation
+	 * @param y the y component of the translation
+	 * @param z the z component of the translation
+	 *
+	 * @return the translation
+	 */
+	public static MapPrefabTransform translation(double x, double y, double z) {
+		return new MapPrefabTransform(1.0, 0.0, 0.0, 0.0, 1.0, 0.0, 0.0, 0.0, 1.0, x, y, z);
+	}
+
+	/**
+	 * Creates a counterclockwise rotation around the x axis.
+	 *
+	 * @param degrees the angle of the rotation in degrees
+	 *
+	 * @return the rotation
+	 */
+	public static MapPrefabTransform rotationX(double degrees) {
+		double cos = MapPrefabTransform.cos(degrees);
+		double sin = MapPrefabTransform.sin(degrees);
+		return new MapPrefabTransform(1.0, 0.0, 0.0, 0.0, cos, -sin, 0.0, sin, cos, 0.0, 0.0, 0.0);
+	}
+
+	/**
+	 * Creates a counterclockwise rotation around the y axis.
+	 *
+	 * @param degrees the angle of the rotation in degrees
+	 *
+	 * @return the rotation
+	 */
+	public static MapPrefabTransform rotationY(double degrees) {
+		double cos = MapPrefabTransform.cos(degrees);
+		double sin = MapPrefabTransform.sin(degrees);
+		return new MapPrefabTransform(cos, 0.0, sin, 0.0, 1.0, 0.0, -sin, 0.0, cos, 0.0, 0.0, 0.0);
+	}
+
+	/**
+	 * Creates a counterclockwise rotation around the z axis, the yaw of the entity {@code angle} property.
+	 *
+	 * @param degrees the angle of the rotation in degrees
+	 *
+	 * @return the rotation
+	 */
+	public static MapPrefabTransform rotationZ(double degrees) {
+		double cos = MapPrefabTransform.cos(degrees);
+		double sin = MapPrefabTransform.sin(degrees);
+		return new MapPrefabTransform(cos, -sin, 0.0, sin, cos, 0.0, 0.0, 0.0, 1.0, 0.0, 0.0, 0.0);
+	}
+
+	/**
+	 * Creates the transformation applying this transformation first and the specified transformation afterwards.
+	 *
+	 * @param next the transformation to apply afterwards
+	 *
+	 * @return the combined transformation
+	 */
+	public MapPrefabTransform then(MapPrefabTransform next) {
+		return new MapPrefabTransform( //
+				next.m00 * this.m00 + next.m01 * this.m10 + next.m02 * this.m20,
+				next.m00 * this.m01 + next.m01 * this.m11 + next.m02 * this.m21,
+				next.m00 * this.m02 + next.m01 * this.m12 + next.m02 * this.m22,
+				next.m10 * this.m00 + next.m11 * this.m10 + next.m12 * this.m20,
+				next.m10 * this.m01 + next.m11 * this.m11 + next.m12 * this.m21,
+				next.m10 * this.m02 + next.m11 * this.m12 + next.m12 * this.m22,
+				next.m20 * this.m00 + next.m21 * this.m10 + next.m22 * this.m20,
+				next.m20 * this.m01 + next.m21 * this.m11 + next.m22 * this.m21,
+				next.m20 * this.m02 + next.m21 * this.m12 + next.m22 * this.m22,
+				next.transformX(this.x, this.y, this.z), next.transformY(this.x, this.y, this.z),
+				next.transformZ(this.x, this.y, this.z));
+	}
+
+	/**
+	 * Returns the x component of the translation.
+	 *
+	 * @return the x component of the translation
+	 */
+	public double getX() {
+		return this.x;
+	}
+
+	/**
+	 * Returns the y component of the translation.
+	 *
+	 * @return the y component of the translation
+	 */
+	public double getY() {
+		return this.y;
+	}
+
+	/**
+	 * Returns the z component of the translation.
+	 *
+	 * @return the z component of the translation
+	 */
+	public double getZ() {
+		return this.z;
+	}
+
+	// adding 0.0 folds negative zero into positive zero, which would otherwise be written as -0.0
+	double transformX(double x, double y, double z) {
+		return this.m00 * x + this.m01 * y + this.m02 * z + this.x + 0.0;
+	}
+
+	double transformY(double x, double y, double z) {
+		return this.m10 * x + this.m11 * y + this.m12 * z + this.y + 0.0;
+	}
+
+	double transformZ(double x, double y, double z) {
+		return this.m20 * x + this.m21 * y + this.m22 * z + this.z + 0.0;
+	}
+
+	double rotateX(double x, double y, double z) {
+		return this.m00 * x + this.m01 * y + this.m02 * z + 0.0;
+	}
+
+	double rotateY(double x, double y, double z) {
+		return this.m10 * x + this.m11 * y + this.m12 * z + 0.0;
+	}
+
+	double rotateZ(double x, double y, double z) {
+		return this.m20 * x + this.m21 * y + this.m22 * z + 0.0;
+	}
+
+	private static double cos(double degrees) {
+		if (degrees % 90.0 == 0.0)
+			return MapPrefabTransform.QUARTER_COS[(int) Math.floorMod((long) (degrees / 90.0), 4L)];
+		return Math.cos(Math.toRadians(degrees));
+	}
+
+	private static double sin(double degrees) {
+		if (degrees % 90.0 == 0.0)
+			return MapPrefabTransform.QUARTER_COS[(int) Math.floorMod((long) (degrees / 90.0) + 3L, 4L)];
+		return Math.sin(Math.toRadians(degrees));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapPrefabTransform [rotation=[%s %s %s, %s %s %s, %s %s %s], x=%s, y=%s, z=%s]", this.m00,
+				this.m01, this.m02, this.m10, this.m11, this.m12, this.m20, this.m21, this.m22, this.x, this.y, this.z);
+	}
+
+}
@@ -16,9 +16,15 @@ import com.kaba4cow.stringview.StringView;
 public class MapProperties implements MapElement {
 
 	private final Map<String, String> properties;
+	private final Map<String, String> propertiesView;
+	private int modCount;
+	private long fingerprint;
+	private volatile long fingerprintVersion;
 
 	MapProperties() {
 		this.properties = new LinkedHashMap<>();
+		this.propertiesView = Collections.unmodifiableMap(this.properties);
+		this.fingerprintVersion = MapFace.INVALID_VERSION;
 	}
 
 	/**
@@ -27,7 +33,7 @@ public class MapProperties implements MapElement {
 	 * @return map of properties
 	 */
 	public Map<String, String> getProperties() {
-		return Collections.unmodifiableMap(this.properties);
+		return this.propertiesView;
 	}
 
 	/**
@@ -36,7 +42,7 @@ public class MapProperties implements MapElement {
 	 * @return set of property names
 	 */
 	public Set<String> getPropertyNames() {
-		return Collections.unmodifiableSet(this.properties.keySet());
+		return this.propertiesView.keySet();
 	}
 
 	/**
@@ -45,7 +51,7 @@ public class MapProperties implements MapElement {
 	 * @return collection of property values
 	 */
 	public Collection<String> getPropertyValues() {
-		return Collections.unmodifiableCollection(this.properties.values());
+		return this.propertiesView.values();
 	}
 
 	/**
@@ -80,6 +86,7 @@ public class MapProperties implements MapElement {
 	 */
 	public MapProperties set(String key, Object value) {
 		this.properties.put(key, Objects.toString(value));
+		this.modCount++;
 		return this;
 	}
 
@@ -103,6 +110,7 @@ public class MapProperties implements MapElement {
 	 */
 	public MapProperties remove(String key) {
 		this.properties.remove(key);
+		this.modCount++;
 		return this;
 	}
 
@@ -113,6 +121,7 @@ public class MapProperties implements MapElement {
 	 */
 	public MapProperties clear() {
 		this.properties.clear();
+		this.modCount++;
 		return this;
 	}
 
@@ -126,7 +135,33 @@ public class MapProperties implements MapElement {
 	}
 
 	/**
-	 * Converts the set of properties to a MAP format.
+	 * Returns a 64-bit fingerprint of the properties. The fingerprint does not depend on the order of the properties. It
+	 * is cached and recomputed only after the properties have been modified, and must not be requested concurrently
+	 * with modifications.
+	 * 
+	 * @return the fingerprint
+	 */
+	public long getFingerprint() {
+		long version = this.modCount;
+		if (this.fingerprintVersion != version) {
+			long sum = 0L;
+			for (Map.Entry<String, String> property : this.properties.entrySet())
+				sum += MapHasher.finish(MapHasher.mix(MapHasher.mix(MapHasher.SEED, property.getKey()),
+						property.getValue()));
+			this.fingerprint = MapHasher.finish(MapHasher.mix(MapHasher.mix(MapHasher.SEED,
+					(long) this.properties.size()), sum));
+			this.fingerprintVersion = version;
+		}
+		return this.fingerprint;
+	}
+
+	int getModCount() {
+		return this.modCount;
+	}
+
+	/**
+	 * Converts the set of properties to a MAP format. Quotes in keys and values are escaped with a backslash, other
+	 * backslashes are written as is so that paths keep their usual form, see {@link com.kaba4cow.maplevel.MapParser}.
 	 *
 	 * @return the MAP string representation of the properties
 	 */
@@ -134,10 +169,15 @@ public class MapProperties implements MapElement {
 	public String toMapString() {
 		StringBuilder builder = new StringBuilder();
 		for (Map.Entry<String, String> property : this.properties.entrySet())
-			builder.append(String.format("\"%s\" \"%s\"\n", property.getKey(), property.getValue()));
+			builder.append(String.format("\"%s\" \"%s\"\n", MapProperties.escape(property.getKey()),
+					MapProperties.escape(property.getValue())));
 		return builder.toString();
 	}
 
+	private static String escape(String text) {
+		return text.indexOf('"') < 0 ? text : text.replace("\"", "\\\"");
+	}
+
 	@Override
 	public String toString() {
 		return String.format("MapProperties [properties=%s]", this.properties);
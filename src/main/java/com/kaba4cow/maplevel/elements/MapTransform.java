@@ -10,6 +10,7 @@ public class MapTransform implements MapElement {
 	private float rotation;
 	private float scaleX;
 	private float scaleY;
+	private int modCount;
 
 	MapTransform() {
 		this.rotation = 0.0f;
@@ -35,6 +36,7 @@ public class MapTransform implements MapElement {
 	 */
 	public MapTransform setRotation(float rotation) {
 		this.rotation = rotation;
+		this.modCount++;
 		return this;
 	}
 
@@ -56,6 +58,7 @@ public class MapTransform implements MapElement {
 	 */
 	public MapTransform setScaleX(float scaleX) {
 		this.scaleX = scaleX;
+		this.modCount++;
 		return this;
 	}
 
@@ -77,9 +80,26 @@ public class MapTransform implements MapElement {
 	 */
 	public MapTransform setScaleY(float scaleY) {
 		this.scaleY = scaleY;
+		this.modCount++;
 		return this;
 	}
 
+	MapTransform set(MapTransform transform) {
+		this.rotation = transform.rotation;
+		this.scaleX = transform.scaleX;
+		this.scaleY = transform.scaleY;
+		this.modCount++;
+		return this;
+	}
+
+	int getModCount() {
+		return this.modCount;
+	}
+
+	long hash(long hash) {
+		return MapHasher.mix(MapHasher.mix(MapHasher.mix(hash, this.rotation), this.scaleX), this.scaleY);
+	}
+
 	/**
 	 * Converts the texture transform to its MAP string representation.
 	 * 
@@ -0,0 +1,465 @@
+package com.kaba4cow.maplevel.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.profiling.MapEvent;
+import com.kaba4cow.maplevel.profiling.MapEventType;
+import com.kaba4cow.maplevel.profiling.MapProfiler;
+
+/**
+ * Builds and maintains the adjacency between the faces and brushes described by {@link MapAdjacencyGraph}. Face planes
+ * are deduplicated in a {@link MapPlaneTable}, so only faces sharing a plane table entry are ever compared. Within a
+ * plane the face polygons are projected to two dimensions, swept along one axis and tested for contact using their
+ * edges as separating axes, which keeps the work close to linear in the number of faces. Planes are processed in
+ * parallel.
+ * <p>
+ * The builder is incremental: brushes can be added, updated after they have been modified and removed, and only the
+ * planes of the affected faces are processed again. Brushes keep the index they were added with. The builder is not
+ * thread-safe.
+ */
+public class MapAdjacencyBuilder {
+
+	private static final int SCAN_LIMIT = 16;
+
+	private static final Comparator<MapAdjacencyFace> SWEEP_ORDER = Comparator.comparingDouble(face -> face.minU);
+
+	private final MapPlaneTable planes;
+	private final List<MapBrush> brushes;
+	private final List<MapAdjacencyFace[]> brushFaces;
+	private final Map<Integer, List<MapAdjacencyFace>> groups;
+
+	/**
+	 * Creates a new empty builder.
+	 */
+	public MapAdjacencyBuilder() {
+		this.planes = new MapPlaneTable();
+		this.brushes = new ArrayList<>();
+		this.brushFaces = new ArrayList<>();
+		this.groups = new HashMap<>();
+	}
+
+	/**
+	 * Creates a new builder containing all brushes of the specified level. The brushes are added in entity and brush
+	 * order, so brush indices match the flat brush indices of {@link MapGeometryTable}.
+	 *
+	 * @param level the level to add the brushes of
+	 *
+	 * @return the builder
+	 */
+	public static MapAdjacencyBuilder of(MapLevel level) {
+		Objects.requireNonNull(level, "Level must not be null");
+		List<MapBrush> brushes = new ArrayList<>();
+		for (MapEntity entity : level.getEntities())
+			brushes.addAll(entity.getBrushes());
+		MapAdjacencyBuilder builder = new MapAdjacencyBuilder();
+		builder.addBrushes(brushes);
+		return builder;
+	}
+
+	/**
+	 * Adds a brush.
+	 *
+	 * @param brush the brush to add
+	 *
+	 * @return the index of the brush
+	 */
+	public int addBrush(MapBrush brush) {
+		return this.addBrushes(Collections.singletonList(brush));
+	}
+
+	/**
+	 * Adds the specified brushes. The brushes are polygonized in parallel.
+	 *
+	 * @param brushes the brushes to add
+	 *
+	 * @return the index of the first added brush, the following brushes get consecutive indices
+	 */
+	public int addBrushes(List<MapBrush> brushes) {
+		Objects.requireNonNull(brushes, "Brushes must not be null");
+		int first = this.brushes.size();
+		for (MapBrush brush : brushes) {
+			this.brushes.add(Objects.requireNonNull(brush, "Brush must not be null"));
+			this.brushFaces.add(new MapAdjacencyFace[0]);
+		}
+		this.insert(IntStream.range(first, this.brushes.size()).toArray());
+		return first;
+	}
+
+	/**
+	 * Updates the faces of the brush at the specified index after the brush has been modified.
+	 *
+	 * @param index the index of the brush
+	 *
+	 * @return a reference to this object
+	 */
+	public MapAdjacencyBuilder updateBrush(int index) {
+		this.checkBrush(index);
+		this.remove(index);
+		this.insert(new int[] { index });
+		return this;
+	}
+
+	/**
+	 * Replaces the brush at the specified index.
+	 *
+	 * @param index the index of the brush
+	 * @param brush the new brush
+	 *
+	 * @return a reference to this object
+	 */
+	public MapAdjacencyBuilder setBrush(int index, MapBrush brush) {
+		Objects.requireNonNull(brush, "Brush must not be null");
+		this.checkBrush(index);
+		this.remove(index);
+		this.brushes.set(index, brush);
+		this.insert(new int[] { index });
+		return this;
+	}
+
+	/**
+	 * Removes the brush at the specified index. The index stays reserved and has no faces afterwards.
+	 *
+	 * @param index the index of the brush
+	 *
+	 * @return a reference to this object
+	 */
+	public MapAdjacencyBuilder removeBrush(int index) {
+		this.checkBrush(index);
+		this.remove(index);
+		this.brushes.set(index, null);
+		return this;
+	}
+
+	/**
+	 * Returns the brush at the specified index.
+	 *
+	 * @param index the index of the brush
+	 *
+	 * @return the brush, or {@code null} if it has been removed
+	 */
+	public MapBrush getBrush(int index) {
+		return this.brushes.get(index);
+	}
+
+	/**
+	 * Returns the number of brush indices, including removed brushes.
+	 *
+	 * @return the number of brushes
+	 */
+	public int getBrushCount() {
+		return this.brushes.size();
+	}
+
+	/**
+	 * Returns the table of face planes.
+	 *
+	 * @return the plane table
+	 */
+	public MapPlaneTable getPlanes() {
+		return this.planes;
+	}
+
+	/**
+	 * Creates an immutable snapshot of the current adjacency.
+	 *
+	 * @return the adjacency graph
+	 */
+	public MapAdjacencyGraph build() {
+		int brushCount = this.brushes.size();
+		int[] faceOffsets = new int[brushCount + 1];
+		for (int i = 0; i < brushCount; i++) {
+			MapAdjacencyFace[] faces = this.brushFaces.get(i);
+			for (int j = 0; j < faces.length; j++)
+				faces[j].id = faceOffsets[i] + j;
+			faceOffsets[i + 1] = faceOffsets[i] + faces.length;
+		}
+		int faceCount = faceOffsets[brushCount];
+		int[] faceBrushes = new int[faceCount];
+		int[] facePlanes = new int[faceCount];
+		int[] neighborOffsets = new int[faceCount + 1];
+		for (int i = 0; i < brushCount; i++)
+			for (MapAdjacencyFace face : this.brushFaces.get(i)) {
+				faceBrushes[face.id] = i;
+				facePlanes[face.id] = face.plane;
+				neighborOffsets[face.id + 1] = neighborOffsets[face.id] + face.neighborCount;
+			}
+		int[] neighbors = new int[neighborOffsets[faceCount]];
+		int[] brushNeighborOffsets = new int[brushCount + 1];
+		int[][] brushNeighborRows = new int[brushCount][];
+		for (int i = 0; i < brushCount; i++) {
+			Set<Integer> brushNeighbors = new LinkedHashSet<>();
+			for (MapAdjacencyFace face : this.brushFaces.get(i)) {
+				int offset = neighborOffsets[face.id];
+				for (int j = 0; j < face.neighborCount; j++) {
+					MapAdjacencyFace neighbor = face.neighbors[j];
+					boolean overlapping = face.overlaps[j];
+					neighbors[offset + j] = neighbor.id << 1 | (overlapping ? 1 : 0);
+					if (overlapping && neighbor.plane != face.plane)
+						brushNeighbors.add(neighbor.brush);
+				}
+				Arrays.sort(neighbors, offset, offset + face.neighborCount);
+			}
+			int[] row = new int[brushNeighbors.size()];
+			int index = 0;
+			for (int neighbor : brushNeighbors)
+				row[index++] = neighbor;
+			Arrays.sort(row);
+			brushNeighborRows[i] = row;
+			brushNeighborOffsets[i + 1] = brushNeighborOffsets[i] + row.length;
+		}
+		int[] brushNeighbors = new int[brushNeighborOffsets[brushCount]];
+		for (int i = 0; i < brushCount; i++)
+			System.arraycopy(brushNeighborRows[i], 0, brushNeighbors, brushNeighborOffsets[i],
+					brushNeighborRows[i].length);
+		return new MapAdjacencyGraph(this.planes, faceOffsets, faceBrushes, facePlanes, neighborOffsets, neighbors,
+				brushNeighborOffsets, brushNeighbors);
+	}
+
+	private void checkBrush(int index) {
+		if (index < 0 || index >= this.brushes.size())
+			throw new IndexOutOfBoundsException(String.format("Brush index %s out of bounds", index));
+		if (Objects.isNull(this.brushes.get(index)))
+			throw new IllegalStateException(String.format("Brush %s has been removed", index));
+	}
+
+	private void remove(int index) {
+		for (MapAdjacencyFace face : this.brushFaces.get(index)) {
+			for (int i = 0; i < face.neighborCount; i++)
+				face.neighbors[i].unlink(face);
+			if (face.plane < 0)
+				continue;
+			List<MapAdjacencyFace> group = this.groups.get(face.plane >> 1);
+			group.remove(face);
+			if (group.isEmpty())
+				this.groups.remove(face.plane >> 1);
+		}
+		this.brushFaces.set(index, new MapAdjacencyFace[0]);
+	}
+
+	private void insert(int[] indices) {
+		try (MapEvent event = MapProfiler.begin(MapEventType.ADJACENCY)) {
+			MapPolygon[][] polygons = new MapPolygon[indices.length][];
+			IntStream.range(0, indices.length).parallel().forEach(
+					index -> polygons[index] = MapPolygonizer.polygonize(this.brushes.get(indices[index])));
+			Set<Integer> touched = new LinkedHashSet<>();
+			long faceCount = 0L;
+			for (int i = 0; i < indices.length; i++) {
+				MapBrush brush = this.brushes.get(indices[i]);
+				MapAdjacencyFace[] faces = new MapAdjacencyFace[brush.getFaceCount()];
+				MapFace target = brush.isInstance() ? new MapFace() : null;
+				for (int j = 0; j < faces.length; j++) {
+					int plane = this.planes.add(brush.readFace(j, target));
+					faces[j] = new MapAdjacencyFace(indices[i], plane);
+					if (plane < 0 || Objects.isNull(polygons[i][j]))
+						continue;
+					faces[j].project(polygons[i][j], this.planes.getPlane(plane & ~1));
+					this.groups.computeIfAbsent(plane >> 1, key -> new ArrayList<>()).add(faces[j]);
+					touched.add(plane >> 1);
+				}
+				this.brushFaces.set(indices[i], faces);
+				faceCount += faces.length;
+			}
+			event.setCounts(0L, indices.length, faceCount);
+			List<List<MapAdjacencyFace>> groups = new ArrayList<>(touched.size());
+			for (int key : touched)
+				groups.add(this.groups.get(key));
+			List<List<MapAdjacencyLink>> links = new ArrayList<>(Collections.nCopies(groups.size(), null));
+			IntStream.range(0, groups.size()).parallel()
+					.forEach(index -> links.set(index, MapAdjacencyBuilder.link(groups.get(index))));
+			for (List<MapAdjacencyLink> group : links)
+				for (MapAdjacencyLink link : group) {
+					link.first.link(link.second, link.overlapping);
+					link.second.link(link.first, link.overlapping);
+				}
+			for (List<MapAdjacencyFace> group : groups)
+				for (MapAdjacencyFace face : group)
+					face.fresh = false;
+		}
+	}
+
+	private static List<MapAdjacencyLink> link(List<MapAdjacencyFace> group) {
+		int freshCount = 0;
+		for (MapAdjacencyFace face : group)
+			if (face.fresh)
+				freshCount++;
+		List<MapAdjacencyLink> links = new ArrayList<>();
+		if (freshCount <= MapAdjacencyBuilder.SCAN_LIMIT)
+			MapAdjacencyBuilder.scan(group, links);
+		else
+			MapAdjacencyBuilder.sweep(group, links);
+		return links;
+	}
+
+	private static void scan(List<MapAdjacencyFace> group, List<MapAdjacencyLink> links) {
+		for (int i = 0; i < group.size(); i++) {
+			MapAdjacencyFace first = group.get(i);
+			if (first.fresh)
+				for (int j = 0; j < group.size(); j++)
+					if (j != i && (!group.get(j).fresh || j > i))
+						MapAdjacencyBuilder.test(first, group.get(j), links);
+		}
+	}
+
+	private static void sweep(List<MapAdjacencyFace> group, List<MapAdjacencyLink> links) {
+		MapAdjacencyFace[] faces = group.toArray(new MapAdjacencyFace[0]);
+		Arrays.sort(faces, MapAdjacencyBuilder.SWEEP_ORDER);
+		for (int i = 0; i < faces.length; i++) {
+			MapAdjacencyFace first = faces[i];
+			for (int j = i + 1; j < faces.length && faces[j].minU <= first.maxU + MapPlane.EPSILON; j++)
+				if (first.fresh || faces[j].fresh)
+					MapAdjacencyBuilder.test(first, faces[j], links);
+		}
+	}
+
+	private static void test(MapAdjacencyFace first, MapAdjacencyFace second, List<MapAdjacencyLink> links) {
+		if (first.brush == second.brush || second.minU > first.maxU + MapPlane.EPSILON
+				|| first.minU > second.maxU + MapPlane.EPSILON || second.minV > first.maxV + MapPlane.EPSILON
+				|| first.minV > second.maxV + MapPlane.EPSILON)
+			return;
+		double separation = Math.max(MapAdjacencyBuilder.separation(first, second),
+				MapAdjacencyBuilder.separation(second, first));
+		if (separation <= MapPlane.EPSILON)
+			links.add(new MapAdjacencyLink(first, second, separation < -MapPlane.EPSILON));
+	}
+
+	private static double separation(MapAdjacencyFace axes, MapAdjacencyFace other) {
+		double separation = Double.NEGATIVE_INFINITY;
+		double[] coordinates = axes.coordinates;
+		int count = coordinates.length / 2;
+		for (int i = 0; i < count; i++) {
+			int next = (i + 1) % count;
+			double normalU = coordinates[i * 2 + 1] - coordinates[next * 2 + 1];
+			double normalV = coordinates[next * 2 + 0] - coordinates[i * 2 + 0];
+			double length = Math.sqrt(normalU * normalU + normalV * normalV);
+			if (length < MapPlane.EPSILON)
+				continue;
+			normalU /= length;
+			normalV /= length;
+			double gap = Math.max(MapAdjacencyBuilder.minimum(other.coordinates, normalU, normalV)
+					- MapAdjacencyBuilder.maximum(coordinates, normalU, normalV),
+					MapAdjacencyBuilder.minimum(coordinates, normalU, normalV)
+							- MapAdjacencyBuilder.maximum(other.coordinates, normalU, normalV));
+			separation = Math.max(separation, gap);
+		}
+		return separation;
+	}
+
+	private static double minimum(double[] coordinates, double normalU, double normalV) {
+		double minimum = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < coordinates.length; i += 2)
+			minimum = Math.min(minimum, coordinates[i] * normalU + coordinates[i + 1] * normalV);
+		return minimum;
+	}
+
+	private static double maximum(double[] coordinates, double normalU, double normalV) {
+		double maximum = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < coordinates.length; i += 2)
+			maximum = Math.max(maximum, coordinates[i] * normalU + coordinates[i + 1] * normalV);
+		return maximum;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapAdjacencyBuilder [brushes=%s, planes=%s]", this.brushes.size(), this.groups.size());
+	}
+
+	private static class MapAdjacencyFace {
+
+		private static final MapAdjacencyFace[] NO_NEIGHBORS = new MapAdjacencyFace[0];
+		private static final boolean[] NO_OVERLAPS = new boolean[0];
+
+		private final int brush;
+		private final int plane;
+		private double[] coordinates;
+		private double minU;
+		private double maxU;
+		private double minV;
+		private double maxV;
+		private MapAdjacencyFace[] neighbors;
+		private boolean[] overlaps;
+		private int neighborCount;
+		private boolean fresh;
+		private int id;
+
+		private MapAdjacencyFace(int brush, int plane) {
+			this.brush = brush;
+			this.plane = plane;
+			this.neighbors = MapAdjacencyFace.NO_NEIGHBORS;
+			this.overlaps = MapAdjacencyFace.NO_OVERLAPS;
+			this.neighborCount = 0;
+			this.fresh = true;
+		}
+
+		private void project(MapPolygon polygon, MapPlane plane) {
+			double absX = Math.abs(plane.getNormalX());
+			double absY = Math.abs(plane.getNormalY());
+			double absZ = Math.abs(plane.getNormalZ());
+			int dropped = absX >= absY && absX >= absZ ? 0 : absY >= absZ ? 1 : 2;
+			this.coordinates = new double[polygon.getVertexCount() * 2];
+			this.minU = this.minV = Double.POSITIVE_INFINITY;
+			this.maxU = this.maxV = Double.NEGATIVE_INFINITY;
+			for (int i = 0; i < polygon.getVertexCount(); i++) {
+				double u = dropped == 0 ? polygon.getY(i) : polygon.getX(i);
+				double v = dropped == 2 ? polygon.getY(i) : polygon.getZ(i);
+				this.coordinates[i * 2 + 0] = u;
+				this.coordinates[i * 2 + 1] = v;
+				this.minU = Math.min(this.minU, u);
+				this.maxU = Math.max(this.maxU, u);
+				this.minV = Math.min(this.minV, v);
+				this.maxV = Math.max(this.maxV, v);
+			}
+		}
+
+		private void link(MapAdjacencyFace neighbor, boolean overlapping) {
+			if (this.neighborCount == this.neighbors.length) {
+				int capacity = Math.max(4, this.neighborCount * 2);
+				this.neighbors = Arrays.copyOf(this.neighbors, capacity);
+				this.overlaps = Arrays.copyOf(this.overlaps, capacity);
+			}
+			this.neighbors[this.neighborCount] = neighbor;
+			this.overlaps[this.neighborCount] = overlapping;
+			this.neighborCount++;
+		}
+
+		private void unlink(MapAdjacencyFace neighbor) {
+			for (int i = 0; i < this.neighborCount; i++)
+				if (this.neighbors[i] == neighbor) {
+					this.neighborCount--;
+					this.neighbors[i] = this.neighbors[this.neighborCount];
+					this.overlaps[i] = this.overlaps[this.neighborCount];
+					this.neighbors[this.neighborCount] = null;
+					return;
+				}
+		}
+
+	}
+
+	private static class MapAdjacencyLink {
+
+		private final MapAdjacencyFace first;
+		private final MapAdjacencyFace second;
+		private final boolean overlapping;
+
+		private MapAdjacencyLink(MapAdjacencyFace first, MapAdjacencyFace second, boolean overlapping) {
+			this.first = first;
+			this.second = second;
+			this.overlapping = overlapping;
+		}
+
+	}
+
+}
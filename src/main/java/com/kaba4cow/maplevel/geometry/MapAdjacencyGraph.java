@@ -0,0 +1,183 @@
+package com.kaba4cow.maplevel.geometry;
+
+/**
+ * An immutable snapshot of the adjacency between the faces and brushes of a level, created by
+ * {@link MapAdjacencyBuilder#build()}. Brushes are addressed by the index they were added to the builder with, faces by
+ * a flat index in brush and face order. Neighbors are stored in compressed sparse row arrays.
+ * <p>
+ * Two faces of different brushes are neighbors when they lie on the same geometric plane and their polygons touch or
+ * overlap. Faces facing the same direction are coplanar, faces facing each other are opposite. Two brushes are
+ * neighbors when they have a pair of opposite faces overlapping with a positive area, that is when they share a face.
+ * Instances are safe to query from multiple threads.
+ */
+public class MapAdjacencyGraph {
+
+	private final MapPlaneTable planes;
+	private final int[] faceOffsets;
+	private final int[] faceBrushes;
+	private final int[] facePlanes;
+	private final int[] neighborOffsets;
+	private final int[] neighbors;
+	private final int[] brushNeighborOffsets;
+	private final int[] brushNeighbors;
+
+	MapAdjacencyGraph(MapPlaneTable planes, int[] faceOffsets, int[] faceBrushes, int[] facePlanes,
+			int[] neighborOffsets, int[] neighbors, int[] brushNeighborOffsets, int[] brushNeighbors) {
+		this.planes = planes;
+		this.faceOffsets = faceOffsets;
+		this.faceBrushes = faceBrushes;
+		this.facePlanes = facePlanes;
+		this.neighborOffsets = neighborOffsets;
+		this.neighbors = neighbors;
+		this.brushNeighborOffsets = brushNeighborOffsets;
+		this.brushNeighbors = brushNeighbors;
+	}
+
+	/**
+	 * Returns the table of face planes. The table is shared with the builder and may grow after the snapshot was taken.
+	 *
+	 * @return the plane table
+	 */
+	public MapPlaneTable getPlanes() {
+		return this.planes;
+	}
+
+	/**
+	 * Returns the number of brushes, including removed brushes which have no faces.
+	 *
+	 * @return the number of brushes
+	 */
+	public int getBrushCount() {
+		return this.faceOffsets.length - 1;
+	}
+
+	/**
+	 * Returns the total number of faces.
+	 *
+	 * @return the number of faces
+	 */
+	public int getFaceCount() {
+		return this.facePlanes.length;
+	}
+
+	/**
+	 * Returns the flat index of the first face of the specified brush.
+	 *
+	 * @param brush the index of the brush
+	 *
+	 * @return the flat index of the first face
+	 */
+	public int getFirstFace(int brush) {
+		return this.faceOffsets[brush];
+	}
+
+	/**
+	 * Returns the number of faces of the specified brush.
+	 *
+	 * @param brush the index of the brush
+	 *
+	 * @return the number of faces
+	 */
+	public int getFaceCount(int brush) {
+		return this.faceOffsets[brush + 1] - this.faceOffsets[brush];
+	}
+
+	/**
+	 * Returns the index of the brush of the specified face.
+	 *
+	 * @param face the flat index of the face
+	 *
+	 * @return the index of the brush
+	 */
+	public int getBrush(int face) {
+		return this.faceBrushes[face];
+	}
+
+	/**
+	 * Returns the index of the plane of the specified face in {@link #getPlanes()}.
+	 *
+	 * @param face the flat index of the face
+	 *
+	 * @return the index of the plane, or {@code -1} if the face is degenerate
+	 */
+	public int getPlaneIndex(int face) {
+		return this.facePlanes[face];
+	}
+
+	/**
+	 * Returns the number of neighbors of the specified face.
+	 *
+	 * @param face the flat index of the face
+	 *
+	 * @return the number of neighbors
+	 */
+	public int getNeighborCount(int face) {
+		return this.neighborOffsets[face + 1] - this.neighborOffsets[face];
+	}
+
+	/**
+	 * Returns a neighbor of the specified face. Neighbors are sorted by their flat index.
+	 *
+	 * @param face  the flat index of the face
+	 * @param index the index of the neighbor
+	 *
+	 * @return the flat index of the neighboring face
+	 */
+	public int getNeighbor(int face, int index) {
+		return this.neighbors[this.neighborOffsets[face] + index] >>> 1;
+	}
+
+	/**
+	 * Checks if a neighbor of the specified face faces the opposite direction.
+	 *
+	 * @param face  the flat index of the face
+	 * @param index the index of the neighbor
+	 *
+	 * @return {@code true} if the faces are opposite, {@code false} if they are coplanar
+	 */
+	public boolean isOpposite(int face, int index) {
+		return this.facePlanes[face] != this.facePlanes[this.getNeighbor(face, index)];
+	}
+
+	/**
+	 * Checks if a neighbor of the specified face overlaps it with a positive area rather than only touching it.
+	 *
+	 * @param face  the flat index of the face
+	 * @param index the index of the neighbor
+	 *
+	 * @return {@code true} if the faces overlap, {@code false} if they only touch
+	 */
+	public boolean isOverlapping(int face, int index) {
+		return (this.neighbors[this.neighborOffsets[face] + index] & 1) != 0;
+	}
+
+	/**
+	 * Returns the number of brushes sharing a face with the specified brush.
+	 *
+	 * @param brush the index of the brush
+	 *
+	 * @return the number of neighboring brushes
+	 */
+	public int getBrushNeighborCount(int brush) {
+		return this.brushNeighborOffsets[brush + 1] - this.brushNeighborOffsets[brush];
+	}
+
+	/**
+	 * Returns a brush sharing a face with the specified brush. Neighbors are sorted by their index.
+	 *
+	 * @param brush the index of the brush
+	 * @param index the index of the neighbor
+	 *
+	 * @return the index of the neighboring brush
+	 */
+	public int getBrushNeighbor(int brush, int index) {
+		return this.brushNeighbors[this.brushNeighborOffsets[brush] + index];
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapAdjacencyGraph [brushes=%s, faces=%s, faceLinks=%s, brushLinks=%s]",
+				this.getBrushCount(), this.getFaceCount(), this.neighbors.length, this.brushNeighbors.length);
+	}
+
+}
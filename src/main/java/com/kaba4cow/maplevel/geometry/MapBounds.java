@@ -0,0 +1,193 @@
+package com.kaba4cow.maplevel.geometry;
+
+import java.util.Objects;
+
+/**
+ * Represents an axis-aligned bounding box.
+ */
+public class MapBounds {
+
+	private final double minX;
+	private final double minY;
+	private final double minZ;
+	private final double maxX;
+	private final double maxY;
+	private final double maxZ;
+
+	/**
+	 * Creates a new bounding box from its minimum and maximum corners.
+	 * 
+	 * @param minX the minimum x coordinate
+	 * @param minY the minimum y coordinate
+	 * @param minZ the minimum z coordinate
+	 * @param maxX the maximum x coordinate
+	 * @param maxY the maximum y coordinate
+	 * @param maxZ the maximum z coordinate
+	 */
+	public MapBounds(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+	}
+
+	/**
+	 * Creates a bounding box enclosing all vertices of the specified polygons.
+	 * 
+	 * @param polygons the polygons to enclose, {@code null} elements are ignored
+	 * 
+	 * @return the bounding box, or {@code null} if there are no polygons
+	 */
+	public static MapBounds of(MapPolygon... polygons) {
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double minZ = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		double maxZ = Double.NEGATIVE_INFINITY;
+		boolean empty = true;
+		for (MapPolygon polygon : polygons)
+			if (Objects.nonNull(polygon))
+				for (int i = 0; i < polygon.getVertexCount(); i++) {
+					minX = Math.min(minX, polygon.getX(i));
+					minY = Math.min(minY, polygon.getY(i));
+					minZ = Math.min(minZ, polygon.getZ(i));
+					maxX = Math.max(maxX, polygon.getX(i));
+					maxY = Math.max(maxY, polygon.getY(i));
+					maxZ = Math.max(maxZ, polygon.getZ(i));
+					empty = false;
+				}
+		return empty ? null : new MapBounds(minX, minY, minZ, maxX, maxY, maxZ);
+	}
+
+	/**
+	 * Returns the minimum x coordinate.
+	 * 
+	 * @return the minimum x coordinate
+	 */
+	public double getMinX() {
+		return this.minX;
+	}
+
+	/**
+	 * Returns the minimum y coordinate.
+	 * 
+	 * @return the minimum y coordinate
+	 */
+	public double getMinY() {
+		return this.minY;
+	}
+
+	/**
+	 * Returns the minimum z coordinate.
+	 * 
+	 * @return the minimum z coordinate
+	 */
+	public double getMinZ() {
+		return this.minZ;
+	}
+
+	/**
+	 * Returns the maximum x coordinate.
+	 * 
+	 * @return the maximum x coordinate
+	 */
+	public double getMaxX() {
+		return this.maxX;
+	}
+
+	/**
+	 * Returns the maximum y coordinate.
+	 * 
+	 * @return the maximum y coordinate
+	 */
+	public double getMaxY() {
+		return this.maxY;
+	}
+
+	/**
+	 * Returns the maximum z coordinate.
+	 * 
+	 * @return the maximum z coordinate
+	 */
+	public double getMaxZ() {
+		return this.maxZ;
+	}
+
+	/**
+	 * Returns the x coordinate of the center.
+	 * 
+	 * @return the x coordinate of the center
+	 */
+	public double getCenterX() {
+		return 0.5 * (this.minX + this.maxX);
+	}
+
+	/**
+	 * Returns the y coordinate of the center.
+	 * 
+	 * @return the y coordinate of the center
+	 */
+	public double getCenterY() {
+		return 0.5 * (this.minY + this.maxY);
+	}
+
+	/**
+	 * Returns the z coordinate of the center.
+	 * 
+	 * @return the z coordinate of the center
+	 */
+	public double getCenterZ() {
+		return 0.5 * (this.minZ + this.maxZ);
+	}
+
+	/**
+	 * Checks if this bounding box intersects the specified bounding box. A positive {@code epsilon} also accepts boxes
+	 * separated by up to that distance, a negative one requires them to overlap by more than that distance.
+	 * 
+	 * @param bounds  the bounding box to check
+	 * @param epsilon the tolerance
+	 * 
+	 * @return {@code true} if the boxes intersect, {@code false} otherwise
+	 */
+	public boolean intersects(MapBounds bounds, double epsilon) {
+		return this.minX <= bounds.maxX + epsilon && bounds.minX <= this.maxX + epsilon //
+				&& this.minY <= bounds.maxY + epsilon && bounds.minY <= this.maxY + epsilon //
+				&& this.minZ <= bounds.maxZ + epsilon && bounds.minZ <= this.maxZ + epsilon;
+	}
+
+	/**
+	 * Checks if the specified point lies inside this bounding box.
+	 * 
+	 * @param x the x coordinate of the point
+	 * @param y the y coordinate of the point
+	 * @param z the z coordinate of the point
+	 * 
+	 * @return {@code true} if the point is inside, {@code false} otherwise
+	 */
+	public boolean contains(double x, double y, double z) {
+		return x >= this.minX && x <= this.maxX && y >= this.minY && y <= this.maxY && z >= this.minZ && z <= this.maxZ;
+	}
+
+	/**
+	 * Creates a bounding box enclosing both this and the specified bounding box.
+	 * 
+	 * @param bounds the bounding box to enclose
+	 * 
+	 * @return the enclosing bounding box
+	 */
+	public MapBounds union(MapBounds bounds) {
+		return new MapBounds(Math.min(this.minX, bounds.minX), Math.min(this.minY, bounds.minY),
+				Math.min(this.minZ, bounds.minZ), Math.max(this.maxX, bounds.maxX), Math.max(this.maxY, bounds.maxY),
+				Math.max(this.maxZ, bounds.maxZ));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapBounds [minX=%s, minY=%s, minZ=%s, maxX=%s, maxY=%s, maxZ=%s]", this.minX, this.minY,
+				this.minZ, this.maxX, this.maxY, this.maxZ);
+	}
+
+}
@@ -0,0 +1,203 @@
+package com.kaba4cow.maplevel.geometry;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * A static uniform grid over a set of bounding boxes used to find candidate pairs of nearby elements. The grid cells are
+ * stored as sorted primitive arrays, boxes covering too many cells are kept in a separate list checked by every query.
+ * Instances are immutable and safe to query from multiple threads.
+ */
+public class MapBoundsIndex {
+
+	private static final int MAX_CELLS = 512;
+	private static final int CELL_BITS = 21;
+	private static final long CELL_MASK = (1L << MapBoundsIndex.CELL_BITS) - 1L;
+
+	private final MapBounds[] bounds;
+	private final double cellSize;
+	private final int[] cellMin;
+	private final long[] keys;
+	private final int[] items;
+	private final int[] oversized;
+
+	/**
+	 * Creates a new index over the specified bounding boxes. The cell size is derived from the average box extent.
+	 * 
+	 * @param bounds the bounding boxes to index, {@code null} elements are ignored
+	 */
+	public MapBoundsIndex(MapBounds[] bounds) {
+		this(bounds, MapBoundsIndex.averageExtent(bounds));
+	}
+
+	/**
+	 * Creates a new index over the specified bounding boxes.
+	 * 
+	 * @param bounds   the bounding boxes to index, {@code null} elements are ignored
+	 * @param cellSize the size of the grid cells
+	 */
+	public MapBoundsIndex(MapBounds[] bounds, double cellSize) {
+		this.bounds = Objects.requireNonNull(bounds, "Bounds must not be null");
+		this.cellSize = Math.max(1.0, cellSize);
+		this.cellMin = new int[bounds.length * 3];
+		long[] keys = new long[bounds.length];
+		int[] items = new int[bounds.length];
+		int[] oversized = new int[0];
+		int count = 0;
+		for (int i = 0; i < bounds.length; i++) {
+			MapBounds box = bounds[i];
+			if (Objects.isNull(box))
+				continue;
+			int minX = this.cell(box.getMinX());
+			int minY = this.cell(box.getMinY());
+			int minZ = this.cell(box.getMinZ());
+			int maxX = this.cell(box.getMaxX());
+			int maxY = this.cell(box.getMaxY());
+			int maxZ = this.cell(box.getMaxZ());
+			this.cellMin[i * 3 + 0] = minX;
+			this.cellMin[i * 3 + 1] = minY;
+			this.cellMin[i * 3 + 2] = minZ;
+			long cells = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+			if (cells > MapBoundsIndex.MAX_CELLS) {
+				oversized = Arrays.copyOf(oversized, oversized.length + 1);
+				oversized[oversized.length - 1] = i;
+				continue;
+			}
+			if (count + cells > keys.length) {
+				int capacity = Math.max(keys.length * 2, count + (int) cells);
+				keys = Arrays.copyOf(keys, capacity);
+				items = Arrays.copyOf(items, capacity);
+			}
+			for (int x = minX; x <= maxX; x++)
+				for (int y = minY; y <= maxY; y++)
+					for (int z = minZ; z <= maxZ; z++) {
+						keys[count] = MapBoundsIndex.key(x, y, z);
+						items[count] = i;
+						count++;
+					}
+		}
+		MapBoundsIndex.sort(keys, items, 0, count - 1);
+		this.keys = Arrays.copyOf(keys, count);
+		this.items = Arrays.copyOf(items, count);
+		this.oversized = oversized;
+	}
+
+	private static double averageExtent(MapBounds[] bounds) {
+		double extent = 0.0;
+		int count = 0;
+		for (MapBounds box : bounds)
+			if (Objects.nonNull(box)) {
+				extent += Math.max(box.getMaxX() - box.getMinX(),
+						Math.max(box.getMaxY() - box.getMinY(), box.getMaxZ() - box.getMinZ()));
+				count++;
+			}
+		return count == 0 ? 1.0 : 2.0 * extent / count;
+	}
+
+	/**
+	 * Returns the number of indexed bounding boxes, including {@code null} elements.
+	 * 
+	 * @return the number of bounding boxes
+	 */
+	public int size() {
+		return this.bounds.length;
+	}
+
+	/**
+	 * Returns the bounding box at the specified index.
+	 * 
+	 * @param index the index of the bounding box
+	 * 
+	 * @return the bounding box
+	 */
+	public MapBounds getBounds(int index) {
+		return this.bounds[index];
+	}
+
+	/**
+	 * Reports the index of every bounding box intersecting the specified one exactly once.
+	 * 
+	 * @param query    the bounding box to search for
+	 * @param epsilon  the tolerance passed to {@link MapBounds#intersects(MapBounds, double)}
+	 * @param consumer the consumer of the found indices
+	 */
+	public void query(MapBounds query, double epsilon, IntConsumer consumer) {
+		for (int item : this.oversized)
+			if (this.bounds[item].intersects(query, epsilon))
+				consumer.accept(item);
+		int minX = this.cell(query.getMinX() - epsilon);
+		int minY = this.cell(query.getMinY() - epsilon);
+		int minZ = this.cell(query.getMinZ() - epsilon);
+		int maxX = this.cell(query.getMaxX() + epsilon);
+		int maxY = this.cell(query.getMaxY() + epsilon);
+		int maxZ = this.cell(query.getMaxZ() + epsilon);
+		for (int x = minX; x <= maxX; x++)
+			for (int y = minY; y <= maxY; y++)
+				for (int z = minZ; z <= maxZ; z++) {
+					long key = MapBoundsIndex.key(x, y, z);
+					for (int index = MapBoundsIndex.lowerBound(this.keys, key); index < this.keys.length && this.keys[index] == key; index++) {
+						int item = this.items[index];
+						if (x == Math.max(minX, this.cellMin[item * 3 + 0]) //
+								&& y == Math.max(minY, this.cellMin[item * 3 + 1]) //
+								&& z == Math.max(minZ, this.cellMin[item * 3 + 2]) //
+								&& this.bounds[item].intersects(query, epsilon))
+							consumer.accept(item);
+					}
+				}
+	}
+
+	private int cell(double value) {
+		return (int) Math.floor(value / this.cellSize);
+	}
+
+	private static long key(int x, int y, int z) {
+		return ((x & MapBoundsIndex.CELL_MASK) << (2 * MapBoundsIndex.CELL_BITS))
+				| ((y & MapBoundsIndex.CELL_MASK) << MapBoundsIndex.CELL_BITS) | (z & MapBoundsIndex.CELL_MASK);
+	}
+
+	private static int lowerBound(long[] keys, long key) {
+		int low = 0;
+		int high = keys.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (keys[middle] < key)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	private static void sort(long[] keys, int[] items, int low, int high) {
+		while (low < high) {
+			long pivot = keys[(low + high) >>> 1];
+			int i = low;
+			int j = high;
+			while (i <= j) {
+				while (keys[i] < pivot)
+					i++;
+				while (keys[j] > pivot)
+					j--;
+				if (i <= j) {
+					long key = keys[i];
+					keys[i] = keys[j];
+					keys[j] = key;
+					int item = items[i];
+					items[i] = items[j];
+					items[j] = item;
+					i++;
+					j--;
+				}
+			}
+			if (j - low < high - i) {
+				MapBoundsIndex.sort(keys, items, low, j);
+				low = i;
+			} else {
+				MapBoundsIndex.sort(keys, items, i, high);
+				high = j;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,248 @@
+package com.kaba4cow.maplevel.geometry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.elements.MapFace;
+
+/**
+ * A level-wide snapshot of deduplicated face geometry. Every face of the level is assigned a flat index in entity, brush
+ * and face order, and references its plane, texture projection and texture by index into shared tables. The snapshot
+ * does not track changes of the level and has to be rebuilt after the level is modified.
+ */
+public class MapGeometryTable {
+
+	private final MapPlaneTable planes;
+	private final MapProjectionTable projections;
+	private final List<String> textures;
+
+	private final int[] brushOffsets;
+	private final int[] faceOffsets;
+	private final int[] facePlanes;
+	private final int[] faceProjections;
+	private final int[] faceTextures;
+
+	private MapGeometryTable(MapPlaneTable planes, MapProjectionTable projections, List<String> textures,
+			int[] brushOffsets, int[] faceOffsets, int[] facePlanes, int[] faceProjections, int[] faceTextures) {
+		this.planes = planes;
+		this.projections = projections;
+		this.textures = textures;
+		this.brushOffsets = brushOffsets;
+		this.faceOffsets = faceOffsets;
+		this.facePlanes = facePlanes;
+		this.faceProjections = faceProjections;
+		this.faceTextures = faceTextures;
+	}
+
+	/**
+	 * Builds the geometry table of the specified level using a plane table with the default tolerances.
+	 * 
+	 * @param level the level to build the table of
+	 * 
+	 * @return the geometry table
+	 */
+	public static MapGeometryTable of(MapLevel level) {
+		return MapGeometryTable.of(level, new MapPlaneTable());
+	}
+
+	/**
+	 * Builds the geometry table of the specified level, adding the face planes to the specified plane table.
+	 * 
+	 * @param level  the level to build the table of
+	 * @param planes the plane table to add the face planes to
+	 * 
+	 * @return the geometry table
+	 */
+	public static MapGeometryTable of(MapLevel level, MapPlaneTable planes) {
+		Objects.requireNonNull(level, "Level must not be null");
+		Objects.requireNonNull(planes, "Planes must not be null");
+		int entityCount = level.getEntityCount();
+		int[] brushOffsets = new int[entityCount + 1];
+		for (int i = 0; i < entityCount; i++)
+			brushOffsets[i + 1] = brushOffsets[i] + level.getEntity(i).getBrushCount();
+		int[] faceOffsets = new int[brushOffsets[entityCount] + 1];
+		int brushIndex = 0;
+		for (int i = 0; i < entityCount; i++) {
+			MapEntity entity = level.getEntity(i);
+			for (int j = 0; j < entity.getBrushCount(); j++, brushIndex++)
+				faceOffsets[brushIndex + 1] = faceOffsets[brushIndex] + entity.getBrush(j).getFaceCount();
+		}
+		int faceCount = faceOffsets[faceOffsets.length - 1];
+		int[] facePlanes = new int[faceCount];
+		int[] faceProjections = new int[faceCount];
+		int[] faceTextures = new int[faceCount];
+		MapProjectionTable projections = new MapProjectionTable();
+		List<String> textures = new ArrayList<>();
+		Map<String, Integer> textureIndices = new HashMap<>();
+		MapFace target = new MapFace();
+		int faceIndex = 0;
+		for (int i = 0; i < entityCount; i++) {
+			MapEntity entity = level.getEntity(i);
+			for (int j = 0; j < entity.getBrushCount(); j++) {
+				MapBrush brush = entity.getBrush(j);
+				for (int k = 0; k < brush.getFaceCount(); k++, faceIndex++) {
+					MapFace face = brush.readFace(k, target);
+					facePlanes[faceIndex] = planes.add(face);
+					faceProjections[faceIndex] = projections.add(face);
+					Integer texture = textureIndices.get(face.getTexture());
+					if (Objects.isNull(texture)) {
+						texture = textures.size();
+						textures.add(face.getTexture());
+						textureIndices.put(face.getTexture(), texture);
+					}
+					faceTextures[faceIndex] = texture;
+				}
+			}
+		}
+		return new MapGeometryTable(planes, projections, textures, brushOffsets, faceOffsets, facePlanes,
+				faceProjections, faceTextures);
+	}
+
+	/**
+	 * Returns the table of unique face planes.
+	 * 
+	 * @return the plane table
+	 */
+	public MapPlaneTable getPlanes() {
+		return this.planes;
+	}
+
+	/**
+	 * Returns the table of unique texture projections.
+	 * 
+	 * @return the projection table
+	 */
+	public MapProjectionTable getProjections() {
+		return this.projections;
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of unique texture names in order of first occurrence.
+	 * 
+	 * @return an unmodifiable list of texture names
+	 */
+	public List<String> getTextures() {
+		return Collections.unmodifiableList(this.textures);
+	}
+
+	/**
+	 * Returns the number of entities of the level.
+	 * 
+	 * @return the number of entities
+	 */
+	public int getEntityCount() {
+		return this.brushOffsets.length - 1;
+	}
+
+	/**
+	 * Returns the number of brushes of the level.
+	 * 
+	 * @return the number of brushes
+	 */
+	public int getBrushCount() {
+		return this.faceOffsets.length - 1;
+	}
+
+	/**
+	 * Returns the number of faces of the level.
+	 * 
+	 * @return the number of faces
+	 */
+	public int getFaceCount() {
+		return this.facePlanes.length;
+	}
+
+	/**
+	 * Returns the flat index of a brush.
+	 * 
+	 * @param entity the index of the entity
+	 * @param brush  the index of the brush within the entity
+	 * 
+	 * @return the flat brush index
+	 */
+	public int getBrushIndex(int entity, int brush) {
+		return this.brushOffsets[entity] + brush;
+	}
+
+	/**
+	 * Returns the flat index of a face.
+	 * 
+	 * @param entity the index of the entity
+	 * @param brush  the index of the brush within the entity
+	 * @param face   the index of the face within the brush
+	 * 
+	 * @return the flat face index
+	 */
+	public int getFaceIndex(int entity, int brush, int face) {
+		return this.faceOffsets[this.brushOffsets[entity] + brush] + face;
+	}
+
+	/**
+	 * Returns the flat index of the first face of a brush.
+	 * 
+	 * @param brushIndex the flat index of the brush
+	 * 
+	 * @return the flat index of the first face
+	 */
+	public int getFirstFace(int brushIndex) {
+		return this.faceOffsets[brushIndex];
+	}
+
+	/**
+	 * Returns the number of faces of a brush.
+	 * 
+	 * @param brushIndex the flat index of the brush
+	 * 
+	 * @return the number of faces
+	 */
+	public int getFaceCount(int brushIndex) {
+		return this.faceOffsets[brushIndex + 1] - this.faceOffsets[brushIndex];
+	}
+
+	/**
+	 * Returns the index of the plane of a face in the plane table.
+	 * 
+	 * @param faceIndex the flat index of the face
+	 * 
+	 * @return the plane index, or {@code -1} if the face points are colinear
+	 */
+	public int getPlaneIndex(int faceIndex) {
+		return this.facePlanes[faceIndex];
+	}
+
+	/**
+	 * Returns the index of the texture projection of a face in the projection table.
+	 * 
+	 * @param faceIndex the flat index of the face
+	 * 
+	 * @return the projection index
+	 */
+	public int getProjectionIndex(int faceIndex) {
+		return this.faceProjections[faceIndex];
+	}
+
+	/**
+	 * Returns the index of the texture of a face in the texture list.
+	 * 
+	 * @param faceIndex the flat index of the face
+	 * 
+	 * @return the texture index
+	 */
+	public int getTextureIndex(int faceIndex) {
+		return this.faceTextures[faceIndex];
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapGeometryTable [faces=%s, planes=%s, projections=%s, textures=%s]", this.getFaceCount(),
+				this.planes.size(), this.projections.size(), this.textures.size());
+	}
+
+}
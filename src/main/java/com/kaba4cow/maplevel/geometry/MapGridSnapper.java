@@ -0,0 +1,84 @@
+package com.kaba4cow.maplevel.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.elements.MapPoint;
+
+/**
+ * A utility class for snapping face points to a regular grid. Points snapped to an integer grid are stored exactly and
+ * let {@link MapPlaneTable#add(MapFace)} key their planes by exact integer equations. Snapping may make faces
+ * degenerate when their points collapse onto the same grid line.
+ */
+public class MapGridSnapper {
+
+	private MapGridSnapper() {}
+
+	/**
+	 * Snaps the face points of all brushes of the specified level to the grid. Brushes are processed in parallel.
+	 * 
+	 * @param level the level to snap
+	 * @param grid  the grid size
+	 * 
+	 * @return the number of points that were moved
+	 */
+	public static int snap(MapLevel level, double grid) {
+		Objects.requireNonNull(level, "Level must not be null");
+		MapGridSnapper.checkGrid(grid);
+		List<MapBrush> brushes = new ArrayList<>();
+		for (int i = 0; i < level.getEntityCount(); i++) {
+			MapEntity entity = level.getEntity(i);
+			for (int j = 0; j < entity.getBrushCount(); j++)
+				brushes.add(entity.getBrush(j));
+		}
+		return IntStream.range(0, brushes.size()).parallel()
+				.map(index -> MapGridSnapper.snapBrush(brushes.get(index), grid)).sum();
+	}
+
+	/**
+	 * Snaps the face points of the specified brush to the grid.
+	 * 
+	 * @param brush the brush to snap
+	 * @param grid  the grid size
+	 * 
+	 * @return the number of points that were moved
+	 */
+	public static int snap(MapBrush brush, double grid) {
+		Objects.requireNonNull(brush, "Brush must not be null");
+		MapGridSnapper.checkGrid(grid);
+		return MapGridSnapper.snapBrush(brush, grid);
+	}
+
+	private static int snapBrush(MapBrush brush, double grid) {
+		int moved = 0;
+		for (int i = 0; i < brush.getFaceCount(); i++) {
+			MapFace face = brush.getFace(i);
+			moved += MapGridSnapper.snapPoint(face.getPoint1(), grid);
+			moved += MapGridSnapper.snapPoint(face.getPoint2(), grid);
+			moved += MapGridSnapper.snapPoint(face.getPoint3(), grid);
+		}
+		return moved;
+	}
+
+	private static int snapPoint(MapPoint point, double grid) {
+		double x = Math.rint(point.getExactX() / grid) * grid;
+		double y = Math.rint(point.getExactY() / grid) * grid;
+		double z = Math.rint(point.getExactZ() / grid) * grid;
+		if (x == point.getExactX() && y == point.getExactY() && z == point.getExactZ())
+			return 0;
+		point.setExact(x, y, z);
+		return 1;
+	}
+
+	private static void checkGrid(double grid) {
+		if (!(grid > 0.0) || Double.isInfinite(grid))
+			throw new IllegalArgumentException("Grid size must be positive");
+	}
+
+}
@@ -0,0 +1,149 @@
+package com.kaba4cow.maplevel.geometry;
+
+import java.util.Objects;
+
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.elements.MapPoint;
+
+/**
+ * Represents an oriented plane {@code normal * p = distance} of a MAP brush face. The normal points out of the brush, so
+ * points inside the brush are behind every face plane.
+ */
+public class MapPlane {
+
+	/**
+	 * The tolerance used when classifying points against planes.
+	 */
+	public static final double EPSILON = 0.001;
+
+	private final double normalX;
+	private final double normalY;
+	private final double normalZ;
+	private final double distance;
+
+	/**
+	 * Creates a new plane from its unit normal and distance from the origin.
+	 * 
+	 * @param normalX  the x component of the normal
+	 * @param normalY  the y component of the normal
+	 * @param normalZ  the z component of the normal
+	 * @param distance the distance from the origin
+	 */
+	public MapPlane(double normalX, double normalY, double normalZ, double distance) {
+		this.normalX = normalX;
+		this.normalY = normalY;
+		this.normalZ = normalZ;
+		this.distance = distance;
+	}
+
+	/**
+	 * Creates a plane from the three points of the specified face using the MAP winding convention.
+	 * 
+	 * @param face the face to create the plane from
+	 * 
+	 * @return the face plane, or {@code null} if the face points are colinear
+	 */
+	public static MapPlane of(MapFace face) {
+		Objects.requireNonNull(face, "Face must not be null");
+		MapPoint p1 = face.getPoint1();
+		MapPoint p2 = face.getPoint2();
+		MapPoint p3 = face.getPoint3();
+		double ax = p1.getExactX() - p2.getExactX();
+		double ay = p1.getExactY() - p2.getExactY();
+		double az = p1.getExactZ() - p2.getExactZ();
+		double bx = p3.getExactX() - p2.getExactX();
+		double by = p3.getExactY() - p2.getExactY();
+		double bz = p3.getExactZ() - p2.getExactZ();
+		double nx = ay * bz - az * by;
+		double ny = az * bx - ax * bz;
+		double nz = ax * by - ay * bx;
+		double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+		if (length < MapPlane.EPSILON)
+			return null;
+		nx /= length;
+		ny /= length;
+		nz /= length;
+		return new MapPlane(nx, ny, nz, nx * p1.getExactX() + ny * p1.getExactY() + nz * p1.getExactZ());
+	}
+
+	/**
+	 * Returns the x component of the normal.
+	 * 
+	 * @return the x component
+	 */
+	public double getNormalX() {
+		return this.normalX;
+	}
+
+	/**
+	 * Returns the y component of the normal.
+	 * 
+	 * @return the y component
+	 */
+	public double getNormalY() {
+		return this.normalY;
+	}
+
+	/**
+	 * Returns the z component of the normal.
+	 * 
+	 * @return the z component
+	 */
+	public double getNormalZ() {
+		return this.normalZ;
+	}
+
+	/**
+	 * Returns the distance of the plane from the origin.
+	 * 
+	 * @return the distance
+	 */
+	public double getDistance() {
+		return this.distance;
+	}
+
+	/**
+	 * Returns the signed distance from the plane to the specified point. Positive values are in front of the plane.
+	 * 
+	 * @param x the x coordinate of the point
+	 * @param y the y coordinate of the point
+	 * @param z the z coordinate of the point
+	 * 
+	 * @return the signed distance
+	 */
+	public double distanceTo(double x, double y, double z) {
+		return this.normalX * x + this.normalY * y + this.normalZ * z - this.distance;
+	}
+
+	/**
+	 * Returns a plane facing the opposite direction.
+	 * 
+	 * @return the flipped plane
+	 */
+	public MapPlane flip() {
+		return new MapPlane(-this.normalX, -this.normalY, -this.normalZ, -this.distance);
+	}
+
+	/**
+	 * Checks if this plane is equal to the specified plane within the given tolerances.
+	 * 
+	 * @param plane           the plane to compare with
+	 * @param normalEpsilon   the tolerance of the normal components
+	 * @param distanceEpsilon the tolerance of the distance
+	 * 
+	 * @return {@code true} if the planes are equal within the tolerances, {@code false} otherwise
+	 */
+	public boolean equals(MapPlane plane, double normalEpsilon, double distanceEpsilon) {
+		return Math.abs(this.normalX - plane.normalX) <= normalEpsilon //
+				&& Math.abs(this.normalY - plane.normalY) <= normalEpsilon //
+				&& Math.abs(this.normalZ - plane.normalZ) <= normalEpsilon //
+				&& Math.abs(this.distance - plane.distance) <= distanceEpsilon;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapPlane [normalX=%s, normalY=%s, normalZ=%s, distance=%s]", this.normalX, this.normalY,
+				this.normalZ, this.distance);
+	}
+
+}
@@ -0,0 +1,332 @@
+package com.kaba4cow.maplevel.geometry;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.elements.MapPoint;
+
+/**
+ * A table of unique planes. Every plane is stored together with its flipped counterpart: the plane added first gets an
+ * even index and its flipped plane the following odd index, so two planes are opposite exactly when
+ * {@code (first ^ second) == 1}. Planes are looked up by hashing their distance and comparing candidates within the
+ * table tolerances.
+ * <p>
+ * Planes of faces whose points lie on the integer grid are additionally keyed by their exact integer plane equation,
+ * see {@link #add(MapFace)}. Such planes are found by a single hash lookup, and distinct integer planes are never merged
+ * even when they are within the tolerances.
+ */
+public class MapPlaneTable {
+
+	/**
+	 * The default tolerance of the normal components.
+	 */
+	public static final double NORMAL_EPSILON = 0.00001;
+
+	/**
+	 * The default tolerance of the distance.
+	 */
+	public static final double DISTANCE_EPSILON = 0.01;
+
+	private static final double BUCKET_SIZE = 8.0;
+	private static final double EXACT_LIMIT = 1 << 18;
+
+	private final double normalEpsilon;
+	private final double distanceEpsilon;
+
+	private double[] planes;
+	private int[] next;
+	private int count;
+
+	private int[] table;
+
+	private boolean[] exact;
+	private long[] exactKeys;
+	private int[] exactValues;
+	private int exactCount;
+
+	/**
+	 * Creates a new plane table with the default tolerances.
+	 */
+	public MapPlaneTable() {
+		this(MapPlaneTable.NORMAL_EPSILON, MapPlaneTable.DISTANCE_EPSILON);
+	}
+
+	/**
+	 * Creates a new plane table with the specified tolerances.
+	 * 
+	 * @param normalEpsilon   the tolerance of the normal components
+	 * @param distanceEpsilon the tolerance of the distance
+	 */
+	public MapPlaneTable(double normalEpsilon, double distanceEpsilon) {
+		this.normalEpsilon = normalEpsilon;
+		this.distanceEpsilon = distanceEpsilon;
+		this.planes = new double[64 * 4];
+		this.next = new int[64];
+		this.count = 0;
+		this.table = new int[128];
+		Arrays.fill(this.table, -1);
+		this.exact = new boolean[64];
+		this.exactKeys = new long[128 * 4];
+		this.exactValues = new int[128];
+		Arrays.fill(this.exactValues, -1);
+		this.exactCount = 0;
+	}
+
+	/**
+	 * Returns the index of the plane of the specified face, adding it and its flipped plane to the table if not
+	 * present. When all face points are integers the plane is looked up by its exact integer equation, otherwise as
+	 * with {@link #add(MapPlane)}.
+	 * 
+	 * @param face the face to add the plane of
+	 * 
+	 * @return the index of the plane, or {@code -1} if the face points are colinear or coincident
+	 */
+	public int add(MapFace face) {
+		Objects.requireNonNull(face, "Face must not be null");
+		MapPoint p1 = face.getPoint1();
+		MapPoint p2 = face.getPoint2();
+		MapPoint p3 = face.getPoint3();
+		if (!MapPlaneTable.isExact(p1) || !MapPlaneTable.isExact(p2) || !MapPlaneTable.isExact(p3)) {
+			MapPlane plane = MapPlane.of(face);
+			return Objects.isNull(plane) ? -1 : this.add(plane);
+		}
+		long ax = (long) p1.getExactX() - (long) p2.getExactX();
+		long ay = (long) p1.getExactY() - (long) p2.getExactY();
+		long az = (long) p1.getExactZ() - (long) p2.getExactZ();
+		long bx = (long) p3.getExactX() - (long) p2.getExactX();
+		long by = (long) p3.getExactY() - (long) p2.getExactY();
+		long bz = (long) p3.getExactZ() - (long) p2.getExactZ();
+		long nx = ay * bz - az * by;
+		long ny = az * bx - ax * bz;
+		long nz = ax * by - ay * bx;
+		long divisor = MapPlaneTable.gcd(MapPlaneTable.gcd(Math.abs(nx), Math.abs(ny)), Math.abs(nz));
+		if (divisor == 0L)
+			return -1;
+		if (nx < 0L || nx == 0L && (ny < 0L || ny == 0L && nz < 0L))
+			divisor = -divisor;
+		nx /= divisor;
+		ny /= divisor;
+		nz /= divisor;
+		long distance = nx * (long) p1.getExactX() + ny * (long) p1.getExactY() + nz * (long) p1.getExactZ();
+		int flip = divisor < 0L ? 1 : 0;
+		int slot = this.findExact(nx, ny, nz, distance);
+		if (this.exactValues[slot] >= 0)
+			return this.exactValues[slot] ^ flip;
+		double length = Math.sqrt((double) nx * nx + (double) ny * ny + (double) nz * nz);
+		MapPlane plane = new MapPlane(nx / length, ny / length, nz / length, distance / length);
+		int index = this.find(plane);
+		if (index < 0 || this.exact[index >> 1])
+			index = this.insert(plane);
+		this.exact[index >> 1] = true;
+		this.exactKeys[slot * 4 + 0] = nx;
+		this.exactKeys[slot * 4 + 1] = ny;
+		this.exactKeys[slot * 4 + 2] = nz;
+		this.exactKeys[slot * 4 + 3] = distance;
+		this.exactValues[slot] = index;
+		if (++this.exactCount * 4 > this.exactValues.length * 3)
+			this.rehashExact(this.exactValues.length * 2);
+		return index ^ flip;
+	}
+
+	private int findExact(long nx, long ny, long nz, long distance) {
+		int mask = this.exactValues.length - 1;
+		int slot = MapPlaneTable.hash(((nx * 31L + ny) * 31L + nz) * 31L + distance) & mask;
+		while (this.exactValues[slot] >= 0) {
+			if (this.exactKeys[slot * 4 + 0] == nx && this.exactKeys[slot * 4 + 1] == ny
+					&& this.exactKeys[slot * 4 + 2] == nz && this.exactKeys[slot * 4 + 3] == distance)
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void rehashExact(int capacity) {
+		long[] keys = this.exactKeys;
+		int[] values = this.exactValues;
+		this.exactKeys = new long[capacity * 4];
+		this.exactValues = new int[capacity];
+		Arrays.fill(this.exactValues, -1);
+		for (int i = 0; i < values.length; i++)
+			if (values[i] >= 0) {
+				int slot = this.findExact(keys[i * 4 + 0], keys[i * 4 + 1], keys[i * 4 + 2], keys[i * 4 + 3]);
+				System.arraycopy(keys, i * 4, this.exactKeys, slot * 4, 4);
+				this.exactValues[slot] = values[i];
+			}
+	}
+
+	private static boolean isExact(MapPoint point) {
+		return point.isIntegral() && Math.abs(point.getExactX()) <= MapPlaneTable.EXACT_LIMIT
+				&& Math.abs(point.getExactY()) <= MapPlaneTable.EXACT_LIMIT
+				&& Math.abs(point.getExactZ()) <= MapPlaneTable.EXACT_LIMIT;
+	}
+
+	private static long gcd(long a, long b) {
+		while (b != 0L) {
+			long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	/**
+	 * Returns the index of the specified plane, adding it and its flipped plane to the table if not present.
+	 * 
+	 * @param plane the plane to add
+	 * 
+	 * @return the index of the plane
+	 */
+	public int add(MapPlane plane) {
+		int index = this.find(plane);
+		if (index >= 0)
+			return index;
+		return this.insert(plane);
+	}
+
+	private int insert(MapPlane plane) {
+		if (this.count == this.next.length) {
+			this.planes = Arrays.copyOf(this.planes, this.planes.length * 2);
+			this.next = Arrays.copyOf(this.next, this.next.length * 2);
+			this.exact = Arrays.copyOf(this.exact, this.exact.length * 2);
+		}
+		int entry = this.count++;
+		this.planes[entry * 4 + 0] = plane.getNormalX();
+		this.planes[entry * 4 + 1] = plane.getNormalY();
+		this.planes[entry * 4 + 2] = plane.getNormalZ();
+		this.planes[entry * 4 + 3] = plane.getDistance();
+		if (this.count * 4 > this.table.length * 3)
+			this.rehash(this.table.length * 2);
+		else
+			this.link(entry);
+		return entry * 2;
+	}
+
+	/**
+	 * Finds the index of the specified plane.
+	 * 
+	 * @param plane the plane to find
+	 * 
+	 * @return the index of the plane, or {@code -1} if it is not in the table
+	 */
+	public int find(MapPlane plane) {
+		Objects.requireNonNull(plane, "Plane must not be null");
+		long bucket = this.bucket(plane.getDistance());
+		for (long key = bucket - 1L; key <= bucket + 1L; key++)
+			for (int entry = this.table[MapPlaneTable.hash(key) & (this.table.length - 1)]; entry >= 0; entry = this.next[entry]) {
+				int match = this.match(entry, plane);
+				if (match >= 0)
+					return match;
+			}
+		return -1;
+	}
+
+	private int match(int entry, MapPlane plane) {
+		double nx = this.planes[entry * 4 + 0];
+		double ny = this.planes[entry * 4 + 1];
+		double nz = this.planes[entry * 4 + 2];
+		double distance = this.planes[entry * 4 + 3];
+		if (Math.abs(distance - plane.getDistance()) <= this.distanceEpsilon
+				&& Math.abs(nx - plane.getNormalX()) <= this.normalEpsilon
+				&& Math.abs(ny - plane.getNormalY()) <= this.normalEpsilon
+				&& Math.abs(nz - plane.getNormalZ()) <= this.normalEpsilon)
+			return entry * 2;
+		if (Math.abs(distance + plane.getDistance()) <= this.distanceEpsilon
+				&& Math.abs(nx + plane.getNormalX()) <= this.normalEpsilon
+				&& Math.abs(ny + plane.getNormalY()) <= this.normalEpsilon
+				&& Math.abs(nz + plane.getNormalZ()) <= this.normalEpsilon)
+			return entry * 2 + 1;
+		return -1;
+	}
+
+	private void link(int entry) {
+		int bucket = MapPlaneTable.hash(this.bucket(this.planes[entry * 4 + 3])) & (this.table.length - 1);
+		this.next[entry] = this.table[bucket];
+		this.table[bucket] = entry;
+	}
+
+	private void rehash(int capacity) {
+		this.table = new int[capacity];
+		Arrays.fill(this.table, -1);
+		for (int entry = 0; entry < this.count; entry++)
+			this.link(entry);
+	}
+
+	private long bucket(double distance) {
+		return (long) Math.floor(Math.abs(distance) / MapPlaneTable.BUCKET_SIZE);
+	}
+
+	private static int hash(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	/**
+	 * Returns the plane at the specified index.
+	 * 
+	 * @param index the index of the plane
+	 * 
+	 * @return the plane
+	 */
+	public MapPlane getPlane(int index) {
+		int entry = index >> 1;
+		double sign = (index & 1) == 0 ? 1.0 : -1.0;
+		return new MapPlane(sign * this.planes[entry * 4 + 0], sign * this.planes[entry * 4 + 1],
+				sign * this.planes[entry * 4 + 2], sign * this.planes[entry * 4 + 3]);
+	}
+
+	/**
+	 * Returns the signed distance from the plane at the specified index to the specified point.
+	 * 
+	 * @param index the index of the plane
+	 * @param x     the x coordinate of the point
+	 * @param y     the y coordinate of the point
+	 * @param z     the z coordinate of the point
+	 * 
+	 * @return the signed distance
+	 */
+	public double distanceTo(int index, double x, double y, double z) {
+		int entry = index >> 1;
+		double distance = this.planes[entry * 4 + 0] * x + this.planes[entry * 4 + 1] * y
+				+ this.planes[entry * 4 + 2] * z - this.planes[entry * 4 + 3];
+		return (index & 1) == 0 ? distance : -distance;
+	}
+
+	/**
+	 * Returns the number of planes in the table, counting each plane and its flipped plane separately.
+	 * 
+	 * @return the number of planes
+	 */
+	public int size() {
+		return this.count * 2;
+	}
+
+	/**
+	 * Returns the index of the flipped counterpart of the plane at the specified index.
+	 * 
+	 * @param index the index of the plane
+	 * 
+	 * @return the index of the flipped plane
+	 */
+	public static int flip(int index) {
+		return index ^ 1;
+	}
+
+	/**
+	 * Checks if the planes at the specified indices lie on the same geometric plane, regardless of their direction.
+	 * 
+	 * @param first  the index of the first plane
+	 * @param second the index of the second plane
+	 * 
+	 * @return {@code true} if the planes are coplanar, {@code false} otherwise
+	 */
+	public static boolean isCoplanar(int first, int second) {
+		return (first >> 1) == (second >> 1);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapPlaneTable [planes=%s]", this.size());
+	}
+
+}
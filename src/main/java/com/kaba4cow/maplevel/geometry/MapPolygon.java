@@ -0,0 +1,263 @@
+package com.kaba4cow.maplevel.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Represents a convex planar polygon. The vertices are stored in a single interleaved array and are ordered
+ * counter-clockwise when viewed from the front of the polygon plane.
+ */
+public class MapPolygon {
+
+	/**
+	 * The half size of the initial polygon created for a plane before it is clipped by the other brush planes.
+	 */
+	public static final double BASE_SIZE = 131072.0;
+
+	/**
+	 * The polygon or vertex lies in front of the plane.
+	 */
+	public static final int FRONT = 1;
+
+	/**
+	 * The polygon or vertex lies behind the plane.
+	 */
+	public static final int BACK = -1;
+
+	/**
+	 * The polygon or vertex lies on the plane.
+	 */
+	public static final int ON = 0;
+
+	/**
+	 * The polygon crosses the plane.
+	 */
+	public static final int SPANNING = 2;
+
+	private final double[] vertices;
+	private final int vertexCount;
+
+	/**
+	 * Creates a new polygon from the interleaved {@code x y z} vertex coordinates.
+	 * 
+	 * @param vertices    the vertex coordinates, the array is not copied
+	 * @param vertexCount the number of vertices
+	 */
+	public MapPolygon(double[] vertices, int vertexCount) {
+		if (vertexCount < 3 || vertices.length < vertexCount * 3)
+			throw new IllegalArgumentException("Polygon must have at least 3 vertices");
+		this.vertices = vertices;
+		this.vertexCount = vertexCount;
+	}
+
+	/**
+	 * Creates a large square polygon lying on the specified plane.
+	 * 
+	 * @param plane the plane of the polygon
+	 * 
+	 * @return the base polygon of the plane
+	 */
+	public static MapPolygon of(MapPlane plane) {
+		double nx = plane.getNormalX();
+		double ny = plane.getNormalY();
+		double nz = plane.getNormalZ();
+		double upX, upY, upZ;
+		if (Math.abs(nz) > Math.abs(nx) && Math.abs(nz) > Math.abs(ny)) {
+			upX = 1.0;
+			upY = 0.0;
+			upZ = 0.0;
+		} else {
+			upX = 0.0;
+			upY = 0.0;
+			upZ = 1.0;
+		}
+		double dot = upX * nx + upY * ny + upZ * nz;
+		upX -= nx * dot;
+		upY -= ny * dot;
+		upZ -= nz * dot;
+		double length = Math.sqrt(upX * upX + upY * upY + upZ * upZ);
+		upX /= length;
+		upY /= length;
+		upZ /= length;
+		double rightX = upY * nz - upZ * ny;
+		double rightY = upZ * nx - upX * nz;
+		double rightZ = upX * ny - upY * nx;
+		double originX = nx * plane.getDistance();
+		double originY = ny * plane.getDistance();
+		double originZ = nz * plane.getDistance();
+		double size = MapPolygon.BASE_SIZE;
+		double[] vertices = new double[12];
+		MapPolygon.setVertex(vertices, 0, originX, originY, originZ, rightX, rightY, rightZ, upX, upY, upZ, size, size);
+		MapPolygon.setVertex(vertices, 1, originX, originY, originZ, rightX, rightY, rightZ, upX, upY, upZ, -size, size);
+		MapPolygon.setVertex(vertices, 2, originX, originY, originZ, rightX, rightY, rightZ, upX, upY, upZ, -size, -size);
+		MapPolygon.setVertex(vertices, 3, originX, originY, originZ, rightX, rightY, rightZ, upX, upY, upZ, size, -size);
+		return new MapPolygon(vertices, 4);
+	}
+
+	private static void setVertex(double[] vertices, int index, double originX, double originY, double originZ,
+			double rightX, double rightY, double rightZ, double upX, double upY, double upZ, double right, double up) {
+		vertices[index * 3 + 0] = originX + rightX * right + upX * up;
+		vertices[index * 3 + 1] = originY + rightY * right + upY * up;
+		vertices[index * 3 + 2] = originZ + rightZ * right + upZ * up;
+	}
+
+	/**
+	 * Returns the number of vertices of the polygon.
+	 * 
+	 * @return the number of vertices
+	 */
+	public int getVertexCount() {
+		return this.vertexCount;
+	}
+
+	/**
+	 * Returns the x coordinate of the vertex at the specified index.
+	 * 
+	 * @param index the index of the vertex
+	 * 
+	 * @return the x coordinate
+	 */
+	public double getX(int index) {
+		return this.vertices[index * 3 + 0];
+	}
+
+	/**
+	 * Returns the y coordinate of the vertex at the specified index.
+	 * 
+	 * @param index the index of the vertex
+	 * 
+	 * @return the y coordinate
+	 */
+	public double getY(int index) {
+		return this.vertices[index * 3 + 1];
+	}
+
+	/**
+	 * Returns the z coordinate of the vertex at the specified index.
+	 * 
+	 * @param index the index of the vertex
+	 * 
+	 * @return the z coordinate
+	 */
+	public double getZ(int index) {
+		return this.vertices[index * 3 + 2];
+	}
+
+	/**
+	 * Clips the polygon by the specified plane, keeping the part behind the plane.
+	 * 
+	 * @param plane the clipping plane
+	 * 
+	 * @return the clipped polygon, this polygon if it lies entirely behind the plane, or {@code null} if nothing remains
+	 */
+	public MapPolygon clip(MapPlane plane) {
+		int[] sides = new int[this.vertexCount];
+		double[] distances = new double[this.vertexCount];
+		int front = 0;
+		int back = 0;
+		for (int i = 0; i < this.vertexCount; i++) {
+			double distance = plane.distanceTo(this.getX(i), this.getY(i), this.getZ(i));
+			distances[i] = distance;
+			if (distance > MapPlane.EPSILON) {
+				sides[i] = MapPolygon.FRONT;
+				front++;
+			} else if (distance < -MapPlane.EPSILON) {
+				sides[i] = MapPolygon.BACK;
+				back++;
+			} else
+				sides[i] = MapPolygon.ON;
+		}
+		if (front == 0)
+			return this;
+		if (back == 0)
+			return null;
+		double[] result = new double[(this.vertexCount + 1) * 3];
+		int count = 0;
+		for (int i = 0; i < this.vertexCount; i++) {
+			int j = (i + 1) % this.vertexCount;
+			if (sides[i] != MapPolygon.FRONT) {
+				System.arraycopy(this.vertices, i * 3, result, count * 3, 3);
+				count++;
+			}
+			if (sides[i] != MapPolygon.ON && sides[j] != MapPolygon.ON && sides[i] != sides[j]) {
+				double t = distances[i] / (distances[i] - distances[j]);
+				result[count * 3 + 0] = this.getX(i) + (this.getX(j) - this.getX(i)) * t;
+				result[count * 3 + 1] = this.getY(i) + (this.getY(j) - this.getY(i)) * t;
+				result[count * 3 + 2] = this.getZ(i) + (this.getZ(j) - this.getZ(i)) * t;
+				count++;
+			}
+		}
+		return count < 3 ? null : new MapPolygon(result, count);
+	}
+
+	/**
+	 * Classifies the polygon against the specified plane.
+	 * 
+	 * @param plane the plane to classify against
+	 * 
+	 * @return {@link #FRONT}, {@link #BACK}, {@link #ON} or {@link #SPANNING}
+	 */
+	public int classify(MapPlane plane) {
+		boolean front = false;
+		boolean back = false;
+		for (int i = 0; i < this.vertexCount; i++) {
+			double distance = plane.distanceTo(this.getX(i), this.getY(i), this.getZ(i));
+			if (distance > MapPlane.EPSILON)
+				front = true;
+			else if (distance < -MapPlane.EPSILON)
+				back = true;
+		}
+		if (front && back)
+			return MapPolygon.SPANNING;
+		else if (front)
+			return MapPolygon.FRONT;
+		else if (back)
+			return MapPolygon.BACK;
+		else
+			return MapPolygon.ON;
+	}
+
+	/**
+	 * Splits the polygon by the specified plane. The part in front of the plane is stored at index {@code 0} of the result
+	 * array and the part behind it at index {@code 1}, either of them is {@code null} if nothing remains on that side. A
+	 * polygon lying on the plane is treated as being behind it.
+	 * 
+	 * @param plane  the splitting plane
+	 * @param result the array of at least two elements to store the parts to
+	 */
+	public void split(MapPlane plane, MapPolygon[] result) {
+		result[0] = this.clip(plane.flip());
+		result[1] = this.clip(plane);
+		if (result[0] == this && result[1] == this)
+			result[0] = null;
+	}
+
+	/**
+	 * Calculates the area of the polygon.
+	 * 
+	 * @return the area
+	 */
+	public double getArea() {
+		double x = 0.0;
+		double y = 0.0;
+		double z = 0.0;
+		for (int i = 1; i < this.vertexCount - 1; i++) {
+			double ax = this.getX(i) - this.getX(0);
+			double ay = this.getY(i) - this.getY(0);
+			double az = this.getZ(i) - this.getZ(0);
+			double bx = this.getX(i + 1) - this.getX(0);
+			double by = this.getY(i + 1) - this.getY(0);
+			double bz = this.getZ(i + 1) - this.getZ(0);
+			x += ay * bz - az * by;
+			y += az * bx - ax * bz;
+			z += ax * by - ay * bx;
+		}
+		return 0.5 * Math.sqrt(x * x + y * y + z * z);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapPolygon [vertices=%s]",
+				Arrays.toString(Arrays.copyOf(this.vertices, this.vertexCount * 3)));
+	}
+
+}
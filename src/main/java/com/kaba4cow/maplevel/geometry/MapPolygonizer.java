@@ -0,0 +1,76 @@
+package com.kaba4cow.maplevel.geometry;
+
+import java.util.Objects;
+
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapFace;
+
+/**
+ * A utility class for converting the planes of MAP brushes to face polygons.
+ */
+public class MapPolygonizer {
+
+	private MapPolygonizer() {}
+
+	/**
+	 * Creates the planes of all faces of the specified brush.
+	 * 
+	 * @param brush the brush to create the planes for
+	 * 
+	 * @return an array of planes in face order, containing {@code null} for faces with colinear points
+	 */
+	public static MapPlane[] planes(MapBrush brush) {
+		Objects.requireNonNull(brush, "Brush must not be null");
+		MapPlane[] planes = new MapPlane[brush.getFaceCount()];
+		MapFace target = brush.isInstance() ? new MapFace() : null;
+		for (int i = 0; i < planes.length; i++)
+			planes[i] = MapPlane.of(brush.readFace(i, target));
+		return planes;
+	}
+
+	/**
+	 * Creates the polygons of all faces of the specified brush.
+	 * 
+	 * @param brush the brush to polygonize
+	 * 
+	 * @return an array of polygons in face order, containing {@code null} for degenerate faces or faces clipped away by
+	 *             the other brush planes
+	 */
+	public static MapPolygon[] polygonize(MapBrush brush) {
+		return MapPolygonizer.polygonize(MapPolygonizer.planes(brush));
+	}
+
+	/**
+	 * Creates the polygons of the convex volume bounded by the specified planes.
+	 * 
+	 * @param planes the bounding planes, {@code null} elements are ignored
+	 * 
+	 * @return an array of polygons in plane order, containing {@code null} for planes that do not bound the volume
+	 */
+	public static MapPolygon[] polygonize(MapPlane[] planes) {
+		MapPolygon[] polygons = new MapPolygon[planes.length];
+		for (int i = 0; i < planes.length; i++)
+			polygons[i] = MapPolygonizer.polygonize(planes, i);
+		return polygons;
+	}
+
+	/**
+	 * Creates the polygon of a single plane clipped by all other specified planes.
+	 * 
+	 * @param planes the bounding planes, {@code null} elements are ignored
+	 * @param index  the index of the plane to polygonize
+	 * 
+	 * @return the polygon of the plane, or {@code null} if the plane does not bound the volume
+	 */
+	public static MapPolygon polygonize(MapPlane[] planes, int index) {
+		MapPlane plane = planes[index];
+		if (Objects.isNull(plane))
+			return null;
+		MapPolygon polygon = MapPolygon.of(plane);
+		for (int i = 0; i < planes.length && Objects.nonNull(polygon); i++)
+			if (i != index && Objects.nonNull(planes[i]) && !plane.equals(planes[i], MapPlane.EPSILON, MapPlane.EPSILON))
+				polygon = polygon.clip(planes[i]);
+		return polygon;
+	}
+
+}
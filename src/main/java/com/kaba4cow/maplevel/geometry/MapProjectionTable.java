@@ -0,0 +1,199 @@
+package com.kaba4cow.maplevel.geometry;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.kaba4cow.maplevel.elements.MapAxis;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.elements.MapTransform;
+
+/**
+ * A table of unique texture projections, each consisting of the U and V texture axes and the texture transform of a
+ * face. Projections are compared by the exact bits of their values, so faces written with the same projection share a
+ * single entry.
+ */
+public class MapProjectionTable {
+
+	private static final int STRIDE = 11;
+
+	private float[] projections;
+	private int[] hashes;
+	private int[] next;
+	private int count;
+
+	private int[] table;
+
+	/**
+	 * Creates a new empty projection table.
+	 */
+	public MapProjectionTable() {
+		this.projections = new float[64 * MapProjectionTable.STRIDE];
+		this.hashes = new int[64];
+		this.next = new int[64];
+		this.count = 0;
+		this.table = new int[128];
+		Arrays.fill(this.table, -1);
+	}
+
+	/**
+	 * Returns the index of the projection of the specified face, adding it to the table if not present.
+	 * 
+	 * @param face the face to add the projection of
+	 * 
+	 * @return the index of the projection
+	 */
+	public int add(MapFace face) {
+		int hash = MapProjectionTable.hash(face);
+		int index = this.find(face, hash);
+		if (index >= 0)
+			return index;
+		if (this.count == this.hashes.length) {
+			this.projections = Arrays.copyOf(this.projections, this.projections.length * 2);
+			this.hashes = Arrays.copyOf(this.hashes, this.hashes.length * 2);
+			this.next = Arrays.copyOf(this.next, this.next.length * 2);
+		}
+		index = this.count++;
+		int offset = index * MapProjectionTable.STRIDE;
+		MapProjectionTable.write(face, this.projections, offset);
+		this.hashes[index] = hash;
+		if (this.count * 4 > this.table.length * 3)
+			this.rehash(this.table.length * 2);
+		else
+			this.link(index);
+		return index;
+	}
+
+	/**
+	 * Finds the index of the projection of the specified face.
+	 * 
+	 * @param face the face to find the projection of
+	 * 
+	 * @return the index of the projection, or {@code -1} if it is not in the table
+	 */
+	public int find(MapFace face) {
+		return this.find(face, MapProjectionTable.hash(face));
+	}
+
+	private int find(MapFace face, int hash) {
+		for (int index = this.table[hash & (this.table.length - 1)]; index >= 0; index = this.next[index])
+			if (this.hashes[index] == hash && this.matches(index, face))
+				return index;
+		return -1;
+	}
+
+	/**
+	 * Checks if the projection at the specified index is equal to the projection of the specified face.
+	 * 
+	 * @param index the index of the projection
+	 * @param face  the face to compare with
+	 * 
+	 * @return {@code true} if the projections are equal, {@code false} otherwise
+	 */
+	public boolean matches(int index, MapFace face) {
+		MapAxis axisU = face.getAxisU();
+		MapAxis axisV = face.getAxisV();
+		MapTransform transform = face.getTransform();
+		int offset = index * MapProjectionTable.STRIDE;
+		float[] values = this.projections;
+		return MapProjectionTable.same(values[offset + 0], axisU.getX()) //
+				&& MapProjectionTable.same(values[offset + 1], axisU.getY()) //
+				&& MapProjectionTable.same(values[offset + 2], axisU.getZ()) //
+				&& MapProjectionTable.same(values[offset + 3], axisU.getOffset()) //
+				&& MapProjectionTable.same(values[offset + 4], axisV.getX()) //
+				&& MapProjectionTable.same(values[offset + 5], axisV.getY()) //
+				&& MapProjectionTable.same(values[offset + 6], axisV.getZ()) //
+				&& MapProjectionTable.same(values[offset + 7], axisV.getOffset()) //
+				&& MapProjectionTable.same(values[offset + 8], transform.getRotation()) //
+				&& MapProjectionTable.same(values[offset + 9], transform.getScaleX()) //
+				&& MapProjectionTable.same(values[offset + 10], transform.getScaleY());
+	}
+
+	private static boolean same(float first, float second) {
+		return Float.floatToIntBits(first) == Float.floatToIntBits(second);
+	}
+
+	/**
+	 * Copies the projection at the specified index to the texture axes and transform of the specified face.
+	 * 
+	 * @param index the index of the projection
+	 * @param face  the face to copy the projection to
+	 * 
+	 * @return a reference to the face
+	 */
+	public MapFace apply(int index, MapFace face) {
+		Objects.requireNonNull(face, "Face must not be null");
+		int offset = index * MapProjectionTable.STRIDE;
+		float[] values = this.projections;
+		face.getAxisU().setX(values[offset + 0]).setY(values[offset + 1]).setZ(values[offset + 2])
+				.setOffset(values[offset + 3]);
+		face.getAxisV().setX(values[offset + 4]).setY(values[offset + 5]).setZ(values[offset + 6])
+				.setOffset(values[offset + 7]);
+		face.getTransform().setRotation(values[offset + 8]).setScaleX(values[offset + 9])
+				.setScaleY(values[offset + 10]);
+		return face;
+	}
+
+	/**
+	 * Returns the number of projections in the table.
+	 * 
+	 * @return the number of projections
+	 */
+	public int size() {
+		return this.count;
+	}
+
+	private void link(int index) {
+		int bucket = this.hashes[index] & (this.table.length - 1);
+		this.next[index] = this.table[bucket];
+		this.table[bucket] = index;
+	}
+
+	private void rehash(int capacity) {
+		this.table = new int[capacity];
+		Arrays.fill(this.table, -1);
+		for (int index = 0; index < this.count; index++)
+			this.link(index);
+	}
+
+	private static void write(MapFace face, float[] target, int offset) {
+		MapAxis axisU = face.getAxisU();
+		MapAxis axisV = face.getAxisV();
+		MapTransform transform = face.getTransform();
+		target[offset + 0] = axisU.getX();
+		target[offset + 1] = axisU.getY();
+		target[offset + 2] = axisU.getZ();
+		target[offset + 3] = axisU.getOffset();
+		target[offset + 4] = axisV.getX();
+		target[offset + 5] = axisV.getY();
+		target[offset + 6] = axisV.getZ();
+		target[offset + 7] = axisV.getOffset();
+		target[offset + 8] = transform.getRotation();
+		target[offset + 9] = transform.getScaleX();
+		target[offset + 10] = transform.getScaleY();
+	}
+
+	private static int hash(MapFace face) {
+		MapAxis axisU = face.getAxisU();
+		MapAxis axisV = face.getAxisV();
+		MapTransform transform = face.getTransform();
+		int hash = 1;
+		hash = 31 * hash + Float.floatToIntBits(axisU.getX());
+		hash = 31 * hash + Float.floatToIntBits(axisU.getY());
+		hash = 31 * hash + Float.floatToIntBits(axisU.getZ());
+		hash = 31 * hash + Float.floatToIntBits(axisU.getOffset());
+		hash = 31 * hash + Float.floatToIntBits(axisV.getX());
+		hash = 31 * hash + Float.floatToIntBits(axisV.getY());
+		hash = 31 * hash + Float.floatToIntBits(axisV.getZ());
+		hash = 31 * hash + Float.floatToIntBits(axisV.getOffset());
+		hash = 31 * hash + Float.floatToIntBits(transform.getRotation());
+		hash = 31 * hash + Float.floatToIntBits(transform.getScaleX());
+		hash = 31 * hash + Float.floatToIntBits(transform.getScaleY());
+		return hash ^ (hash >>> 16);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapProjectionTable [projections=%s]", this.size());
+	}
+
+}
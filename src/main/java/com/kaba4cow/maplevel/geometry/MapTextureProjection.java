@@ -0,0 +1,49 @@
+package com.kaba4cow.maplevel.geometry;
+
+import com.kaba4cow.maplevel.elements.MapAxis;
+import com.kaba4cow.maplevel.elements.MapFace;
+
+/**
+ * A utility class for projecting points onto the texture space of MAP faces. The texture coordinates are measured in
+ * texels, as defined by the Valve220 format: the point is projected onto the U and V axes, divided by the texture scale
+ * and shifted by the axis offset. The texture rotation is not applied separately because Valve220 axes are already
+ * rotated.
+ */
+public class MapTextureProjection {
+
+	private MapTextureProjection() {}
+
+	/**
+	 * Calculates the U texture coordinate of the specified point on the face.
+	 * 
+	 * @param face the face to project the point onto
+	 * @param x    the x coordinate of the point
+	 * @param y    the y coordinate of the point
+	 * @param z    the z coordinate of the point
+	 * 
+	 * @return the U coordinate in texels
+	 */
+	public static double u(MapFace face, double x, double y, double z) {
+		return MapTextureProjection.project(face.getAxisU(), face.getTransform().getScaleX(), x, y, z);
+	}
+
+	/**
+	 * Calculates the V texture coordinate of the specified point on the face.
+	 * 
+	 * @param face the face to project the point onto
+	 * @param x    the x coordinate of the point
+	 * @param y    the y coordinate of the point
+	 * @param z    the z coordinate of the point
+	 * 
+	 * @return the V coordinate in texels
+	 */
+	public static double v(MapFace face, double x, double y, double z) {
+		return MapTextureProjection.project(face.getAxisV(), face.getTransform().getScaleY(), x, y, z);
+	}
+
+	private static double project(MapAxis axis, float scale, double x, double y, double z) {
+		double projection = axis.getX() * x + axis.getY() * y + axis.getZ() * z;
+		return projection / (scale == 0.0f ? 1.0f : scale) + axis.getOffset();
+	}
+
+}
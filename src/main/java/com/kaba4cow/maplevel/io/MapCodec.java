@@ -0,0 +1,53 @@
+package com.kaba4cow.maplevel.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Represents a compression format for MAP data. Codecs are registered in {@link MapCompression} and detected by the
+ * leading bytes of their streams.
+ */
+public interface MapCodec {
+
+	/**
+	 * Returns the name of the codec.
+	 * 
+	 * @return the codec name
+	 */
+	public String getName();
+
+	/**
+	 * Checks if the specified leading bytes of a stream belong to this codec.
+	 * 
+	 * @param header the leading bytes of the stream
+	 * @param length the number of valid bytes in {@code header}
+	 * 
+	 * @return {@code true} if the stream is encoded with this codec, {@code false} otherwise
+	 */
+	public boolean matches(byte[] header, int length);
+
+	/**
+	 * Wraps the specified stream to decode its data.
+	 * 
+	 * @param source the encoded stream
+	 * 
+	 * @return the decoded stream
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public InputStream decode(InputStream source) throws IOException;
+
+	/**
+	 * Wraps the specified stream to encode the data written to it.
+	 * 
+	 * @param target the stream to write the encoded data to
+	 * @param level  the compression level, its meaning depends on the codec
+	 * 
+	 * @return the encoding stream
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public OutputStream encode(OutputStream target, int level) throws IOException;
+
+}
@@ -0,0 +1,197 @@
+package com.kaba4cow.maplevel.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.MapParser;
+import com.kaba4cow.maplevel.MapParserOptions;
+import com.kaba4cow.maplevel.MapWriter;
+
+/**
+ * A utility class for reading and writing MAP data in compressed streams. The compression format of input streams is
+ * detected from their leading bytes using the registered {@link MapCodec} objects, streams not matching any codec are
+ * read as plain text. Compressed input is decoded on a background thread, overlapping decompression with parsing.
+ */
+public class MapCompression {
+
+	/**
+	 * The gzip codec, registered by default.
+	 */
+	public static final MapCodec GZIP = new MapGzipCodec();
+
+	private static final int HEADER_SIZE = 16;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int PIPELINE_CHUNKS = 8;
+
+	private static final List<MapCodec> CODECS = new CopyOnWriteArrayList<>(Collections.singletonList(MapCompression.GZIP));
+
+	private MapCompression() {}
+
+	/**
+	 * Registers a codec used to detect the compression format of input streams.
+	 * 
+	 * @param codec the codec to register
+	 */
+	public static void register(MapCodec codec) {
+		MapCompression.CODECS.add(Objects.requireNonNull(codec, "Codec must not be null"));
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of registered codecs.
+	 * 
+	 * @return an unmodifiable list of codecs
+	 */
+	public static List<MapCodec> getCodecs() {
+		return Collections.unmodifiableList(MapCompression.CODECS);
+	}
+
+	/**
+	 * Opens the specified stream for reading, decoding it with the detected codec if any. Decoding runs on a background
+	 * thread.
+	 * 
+	 * @param source the stream to open
+	 * 
+	 * @return the decoded stream
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static InputStream open(InputStream source) throws IOException {
+		Objects.requireNonNull(source, "Source must not be null");
+		BufferedInputStream input = new BufferedInputStream(source, MapCompression.BUFFER_SIZE);
+		byte[] header = new byte[MapCompression.HEADER_SIZE];
+		input.mark(header.length);
+		int length = 0;
+		int count;
+		while (length < header.length && (count = input.read(header, length, header.length - length)) > 0)
+			length += count;
+		input.reset();
+		for (MapCodec codec : MapCompression.CODECS)
+			if (codec.matches(header, length))
+				return new MapPipelinedInputStream(codec.decode(input), MapCompression.BUFFER_SIZE,
+						MapCompression.PIPELINE_CHUNKS);
+		return input;
+	}
+
+	/**
+	 * Reads the MAP data from the specified stream, detecting its compression, and converts it to a {@link MapLevel}
+	 * object. The data is decoded as UTF-8.
+	 * 
+	 * @param source the stream to read the MAP data from
+	 * @param target the {@link MapLevel} to convert the MAP data to, or {@code null}
+	 * 
+	 * @return the {@link MapLevel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static MapLevel parse(InputStream source, MapLevel target) throws IOException {
+		return MapCompression.parse(source, target, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the MAP data from the specified stream, detecting its compression, and converts it to a {@link MapLevel}
+	 * object.
+	 * 
+	 * @param source  the stream to read the MAP data from
+	 * @param target  the {@link MapLevel} to convert the MAP data to, or {@code null}
+	 * @param charset the charset of the MAP data
+	 * 
+	 * @return the {@link MapLevel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static MapLevel parse(InputStream source, MapLevel target, Charset charset) throws IOException {
+		return MapCompression.parse(source, target, charset, new MapParserOptions());
+	}
+
+	/**
+	 * Reads the MAP data from the specified stream using the specified parser options, detecting its compression, and
+	 * converts it to a {@link MapLevel} object.
+	 * 
+	 * @param source  the stream to read the MAP data from
+	 * @param target  the {@link MapLevel} to convert the MAP data to, or {@code null}
+	 * @param charset the charset of the MAP data
+	 * @param options the parser options
+	 * 
+	 * @return the {@link MapLevel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static MapLevel parse(InputStream source, MapLevel target, Charset charset, MapParserOptions options)
+			throws IOException {
+		try (Reader reader = new InputStreamReader(MapCompression.open(source), charset)) {
+			return MapParser.parse(reader, target, options);
+		}
+	}
+
+	/**
+	 * Reads the MAP data from the specified file, detecting its compression, and converts it to a {@link MapLevel}
+	 * object. The data is decoded as UTF-8.
+	 * 
+	 * @param source the path of the file to read the MAP data from
+	 * @param target the {@link MapLevel} to convert the MAP data to, or {@code null}
+	 * 
+	 * @return the {@link MapLevel} containing the data, either the passed one or a newly created one if {@code target} is
+	 *             {@code null}
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static MapLevel parse(Path source, MapLevel target) throws IOException {
+		try (InputStream input = Files.newInputStream(source)) {
+			return MapCompression.parse(input, target, StandardCharsets.UTF_8,
+					new MapParserOptions().setSource(source.toString()));
+		}
+	}
+
+	/**
+	 * Writes the MAP string representation of the specified level to a stream encoded with the specified codec. The
+	 * level is formatted in parallel by a {@link MapWriter} and written as UTF-8. The target stream is closed
+	 * afterwards.
+	 * 
+	 * @param source the level to write
+	 * @param target the stream to write to
+	 * @param codec  the codec to encode the data with
+	 * @param level  the compression level
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void write(MapLevel source, OutputStream target, MapCodec codec, int level) throws IOException {
+		Objects.requireNonNull(source, "Source must not be null");
+		Objects.requireNonNull(codec, "Codec must not be null");
+		try (OutputStream output = codec.encode(target, level)) {
+			new MapWriter().write(source, output);
+		}
+	}
+
+	/**
+	 * Writes the MAP string representation of the specified level to a file encoded with the specified codec.
+	 * 
+	 * @param source the level to write
+	 * @param target the path of the file to write to
+	 * @param codec  the codec to encode the data with
+	 * @param level  the compression level
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void write(MapLevel source, Path target, MapCodec codec, int level) throws IOException {
+		try (OutputStream output = Files.newOutputStream(target)) {
+			MapCompression.write(source, output, codec, level);
+		}
+	}
+
+}
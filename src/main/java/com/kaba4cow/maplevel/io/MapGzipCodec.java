@@ -0,0 +1,46 @@
+package com.kaba4cow.maplevel.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A {@link MapCodec} for the gzip format based on {@code java.util.zip}. Compression levels range from {@code 0} to
+ * {@code 9}, {@code -1} selects the default level.
+ */
+public class MapGzipCodec implements MapCodec {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	@Override
+	public String getName() {
+		return "gzip";
+	}
+
+	@Override
+	public boolean matches(byte[] header, int length) {
+		return length >= 2 && (header[0] & 0xFF) == 0x1F && (header[1] & 0xFF) == 0x8B;
+	}
+
+	@Override
+	public InputStream decode(InputStream source) throws IOException {
+		return new GZIPInputStream(source, MapGzipCodec.BUFFER_SIZE);
+	}
+
+	@Override
+	public OutputStream encode(OutputStream target, int level) throws IOException {
+		return new GZIPOutputStream(target, MapGzipCodec.BUFFER_SIZE) {
+			{
+				this.def.setLevel(level);
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return "MapGzipCodec";
+	}
+
+}
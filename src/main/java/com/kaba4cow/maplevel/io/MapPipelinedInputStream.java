@@ -0,0 +1,116 @@
+package com.kaba4cow.maplevel.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads a source stream on a background thread into a bounded queue of chunks, so that decoding the source overlaps
+ * with consuming its data.
+ */
+class MapPipelinedInputStream extends InputStream {
+
+	private static final byte[] END = new byte[0];
+
+	private final BlockingQueue<byte[]> chunks;
+	private final Thread thread;
+	private volatile Throwable failure;
+
+	private byte[] chunk;
+	private int position;
+	private boolean finished;
+
+	MapPipelinedInputStream(InputStream source, int chunkSize, int capacity) {
+		this.chunks = new ArrayBlockingQueue<>(capacity);
+		this.thread = new Thread(() -> this.pump(source, chunkSize), "map-level-decoder");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	private void pump(InputStream source, int chunkSize) {
+		boolean closed = false;
+		try (InputStream input = source) {
+			int length;
+			do {
+				byte[] buffer = new byte[chunkSize];
+				length = MapPipelinedInputStream.readFully(input, buffer);
+				if (length > 0)
+					this.chunks.put(length == chunkSize ? buffer : Arrays.copyOf(buffer, length));
+			} while (length == chunkSize);
+		} catch (InterruptedException exception) {
+			closed = true;
+		} catch (Throwable exception) {
+			this.failure = exception;
+		} finally {
+			if (!closed)
+				try {
+					this.chunks.put(MapPipelinedInputStream.END);
+				} catch (InterruptedException exception) {}
+		}
+	}
+
+	private static int readFully(InputStream input, byte[] buffer) throws IOException {
+		int length = 0;
+		while (length < buffer.length) {
+			int count = input.read(buffer, length, buffer.length - length);
+			if (count < 0)
+				break;
+			length += count;
+		}
+		return length;
+	}
+
+	private boolean nextChunk() throws IOException {
+		if (this.finished)
+			return false;
+		if (Objects.nonNull(this.chunk) && this.position < this.chunk.length)
+			return true;
+		try {
+			this.chunk = this.chunks.take();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Decoding interrupted");
+		}
+		this.position = 0;
+		if (this.chunk == MapPipelinedInputStream.END) {
+			this.finished = true;
+			if (this.failure instanceof IOException)
+				throw (IOException) this.failure;
+			if (Objects.nonNull(this.failure))
+				throw new IOException("Decoding failed", this.failure);
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!this.nextChunk())
+			return -1;
+		return this.chunk[this.position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		if (length == 0)
+			return 0;
+		if (!this.nextChunk())
+			return -1;
+		int count = Math.min(length, this.chunk.length - this.position);
+		System.arraycopy(this.chunk, this.position, buffer, offset, count);
+		this.position += count;
+		return count;
+	}
+
+	@Override
+	public void close() {
+		this.finished = true;
+		this.thread.interrupt();
+		this.chunks.clear();
+	}
+
+}
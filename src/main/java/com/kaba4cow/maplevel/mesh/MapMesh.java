@@ -0,0 +1,111 @@
+package com.kaba4cow.maplevel.mesh;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Represents an indexed triangle mesh of all faces sharing a single texture. Vertices are interleaved as
+ * {@code x y z nx ny nz u v}.
+ */
+public class MapMesh {
+
+	/**
+	 * The number of floats per vertex.
+	 */
+	public static final int VERTEX_SIZE = 8;
+
+	/**
+	 * The offset of the position within a vertex.
+	 */
+	public static final int POSITION_OFFSET = 0;
+
+	/**
+	 * The offset of the normal within a vertex.
+	 */
+	public static final int NORMAL_OFFSET = 3;
+
+	/**
+	 * The offset of the texture coordinates within a vertex.
+	 */
+	public static final int TEXTURE_OFFSET = 6;
+
+	private final String texture;
+	private final FloatBuffer vertices;
+	private final IntBuffer indices;
+
+	MapMesh(String texture, FloatBuffer vertices, IntBuffer indices) {
+		this.texture = texture;
+		this.vertices = vertices;
+		this.indices = indices;
+	}
+
+	/**
+	 * Returns the texture of the mesh.
+	 * 
+	 * @return the texture name
+	 */
+	public String getTexture() {
+		return this.texture;
+	}
+
+	/**
+	 * Returns a view of the interleaved vertex data. The returned buffer has independent position and limit.
+	 * 
+	 * @return the vertex buffer
+	 */
+	public FloatBuffer getVertices() {
+		return this.vertices.duplicate();
+	}
+
+	/**
+	 * Returns a view of the triangle indices. The returned buffer has independent position and limit.
+	 * 
+	 * @return the index buffer
+	 */
+	public IntBuffer getIndices() {
+		return this.indices.duplicate();
+	}
+
+	/**
+	 * Returns the number of vertices of the mesh.
+	 * 
+	 * @return the number of vertices
+	 */
+	public int getVertexCount() {
+		return this.vertices.limit() / MapMesh.VERTEX_SIZE;
+	}
+
+	/**
+	 * Returns the number of indices of the mesh.
+	 * 
+	 * @return the number of indices
+	 */
+	public int getIndexCount() {
+		return this.indices.limit();
+	}
+
+	/**
+	 * Returns the number of triangles of the mesh.
+	 * 
+	 * @return the number of triangles
+	 */
+	public int getTriangleCount() {
+		return this.indices.limit() / 3;
+	}
+
+	/**
+	 * Checks if the mesh buffers are allocated outside of the Java heap.
+	 * 
+	 * @return {@code true} if the buffers are direct, {@code false} otherwise
+	 */
+	public boolean isDirect() {
+		return this.vertices.isDirect();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapMesh [texture=%s, vertices=%s, indices=%s]", this.texture, this.getVertexCount(),
+				this.getIndexCount());
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.kaba4cow.maplevel.mesh;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Accumulates the vertices and indices of a single texture batch in primitive arrays. Vertices are welded using a
+ * spatial hash of their positions quantized to the weld grid.
+ */
+class MapMeshBatch {
+
+	private static final float ATTRIBUTE_EPSILON = 0.0001f;
+
+	private final String texture;
+	private final double weldEpsilon;
+
+	private float[] vertices;
+	private long[] cells;
+	private int[] hashes;
+	private int[] next;
+	private int vertexCount;
+
+	private int[] indices;
+	private int indexCount;
+
+	private int[] table;
+
+	MapMeshBatch(String texture, double weldEpsilon) {
+		this.texture = texture;
+		this.weldEpsilon = weldEpsilon;
+		this.vertices = new float[64 * MapMesh.VERTEX_SIZE];
+		this.cells = new long[64 * 3];
+		this.hashes = new int[64];
+		this.next = new int[64];
+		this.vertexCount = 0;
+		this.indices = new int[192];
+		this.indexCount = 0;
+		this.table = new int[128];
+		Arrays.fill(this.table, -1);
+	}
+
+	int addVertex(double x, double y, double z, float nx, float ny, float nz, float u, float v) {
+		if (this.weldEpsilon <= 0.0)
+			return this.appendVertex(0L, 0L, 0L, 0, x, y, z, nx, ny, nz, u, v);
+		long cellX = Math.round(x / this.weldEpsilon);
+		long cellY = Math.round(y / this.weldEpsilon);
+		long cellZ = Math.round(z / this.weldEpsilon);
+		int hash = MapMeshBatch.hash(cellX, cellY, cellZ);
+		for (int index = this.table[hash & (this.table.length - 1)]; index >= 0; index = this.next[index])
+			if (this.hashes[index] == hash && this.matches(index, cellX, cellY, cellZ, nx, ny, nz, u, v))
+				return index;
+		return this.appendVertex(cellX, cellY, cellZ, hash, x, y, z, nx, ny, nz, u, v);
+	}
+
+	private boolean matches(int index, long cellX, long cellY, long cellZ, float nx, float ny, float nz, float u,
+			float v) {
+		int cell = index * 3;
+		if (this.cells[cell] != cellX || this.cells[cell + 1] != cellY || this.cells[cell + 2] != cellZ)
+			return false;
+		int offset = index * MapMesh.VERTEX_SIZE;
+		return MapMeshBatch.matches(this.vertices[offset + 3], nx) //
+				&& MapMeshBatch.matches(this.vertices[offset + 4], ny) //
+				&& MapMeshBatch.matches(this.vertices[offset + 5], nz) //
+				&& MapMeshBatch.matches(this.vertices[offset + 6], u) //
+				&& MapMeshBatch.matches(this.vertices[offset + 7], v);
+	}
+
+	private static boolean matches(float a, float b) {
+		return Math.abs(a - b) <= MapMeshBatch.ATTRIBUTE_EPSILON;
+	}
+
+	private int appendVertex(long cellX, long cellY, long cellZ, int hash, double x, double y, double z, float nx,
+			float ny, float nz, float u, float v) {
+		if (this.vertexCount == this.hashes.length) {
+			int capacity = this.hashes.length * 2;
+			this.vertices = Arrays.copyOf(this.vertices, capacity * MapMesh.VERTEX_SIZE);
+			this.cells = Arrays.copyOf(this.cells, capacity * 3);
+			this.hashes = Arrays.copyOf(this.hashes, capacity);
+			this.next = Arrays.copyOf(this.next, capacity);
+		}
+		int index = this.vertexCount++;
+		int offset = index * MapMesh.VERTEX_SIZE;
+		this.vertices[offset + 0] = (float) x;
+		this.vertices[offset + 1] = (float) y;
+		this.vertices[offset + 2] = (float) z;
+		this.vertices[offset + 3] = nx;
+		this.vertices[offset + 4] = ny;
+		this.vertices[offset + 5] = nz;
+		this.vertices[offset + 6] = u;
+		this.vertices[offset + 7] = v;
+		this.cells[index * 3 + 0] = cellX;
+		this.cells[index * 3 + 1] = cellY;
+		this.cells[index * 3 + 2] = cellZ;
+		this.hashes[index] = hash;
+		if (this.weldEpsilon > 0.0) {
+			if (this.vertexCount * 4 > this.table.length * 3)
+				this.rehash(this.table.length * 2);
+			int bucket = hash & (this.table.length - 1);
+			this.next[index] = this.table[bucket];
+			this.table[bucket] = index;
+		}
+		return index;
+	}
+
+	private void rehash(int capacity) {
+		this.table = new int[capacity];
+		Arrays.fill(this.table, -1);
+		for (int index = 0; index < this.vertexCount - 1; index++) {
+			int bucket = this.hashes[index] & (capacity - 1);
+			this.next[index] = this.table[bucket];
+			this.table[bucket] = index;
+		}
+	}
+
+	private static int hash(long cellX, long cellY, long cellZ) {
+		long hash = cellX * 0x9E3779B97F4A7C15L + cellY * 0xC2B2AE3D27D4EB4FL + cellZ * 0x165667B19E3779F9L;
+		hash ^= hash >>> 29;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	void addTriangle(int a, int b, int c) {
+		if (a == b || b == c || c == a)
+			return;
+		if (this.indexCount + 3 > this.indices.length)
+			this.indices = Arrays.copyOf(this.indices, this.indices.length * 2);
+		this.indices[this.indexCount++] = a;
+		this.indices[this.indexCount++] = b;
+		this.indices[this.indexCount++] = c;
+	}
+
+	MapMesh toMesh(boolean direct) {
+		int vertexLength = this.vertexCount * MapMesh.VERTEX_SIZE;
+		FloatBuffer vertices;
+		IntBuffer indices;
+		if (direct) {
+			ByteBuffer vertexBytes = ByteBuffer.allocateDirect(vertexLength * Float.BYTES).order(ByteOrder.nativeOrder());
+			vertexBytes.asFloatBuffer().put(this.vertices, 0, vertexLength);
+			vertices = vertexBytes.asFloatBuffer();
+			ByteBuffer indexBytes = ByteBuffer.allocateDirect(this.indexCount * Integer.BYTES)
+					.order(ByteOrder.nativeOrder());
+			indexBytes.asIntBuffer().put(this.indices, 0, this.indexCount);
+			indices = indexBytes.asIntBuffer();
+		} else {
+			vertices = FloatBuffer.wrap(Arrays.copyOf(this.vertices, vertexLength));
+			indices = IntBuffer.wrap(Arrays.copyOf(this.indices, this.indexCount));
+		}
+		return new MapMesh(this.texture, vertices, indices);
+	}
+
+}
@@ -0,0 +1,181 @@
+package com.kaba4cow.maplevel.mesh;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.geometry.MapPlane;
+import com.kaba4cow.maplevel.geometry.MapPolygon;
+import com.kaba4cow.maplevel.geometry.MapPolygonizer;
+import com.kaba4cow.maplevel.geometry.MapTextureProjection;
+import com.kaba4cow.maplevel.profiling.MapEvent;
+import com.kaba4cow.maplevel.profiling.MapEventType;
+import com.kaba4cow.maplevel.profiling.MapProfiler;
+
+/**
+ * Converts the brushes of a {@link MapLevel} to indexed triangle meshes batched by texture.
+ */
+public class MapMeshBuilder {
+
+	private double weldEpsilon;
+	private boolean direct;
+	private MapTextureSizes textureSizes;
+
+	/**
+	 * Creates a new mesh builder that welds vertices closer than {@code 0.01} units, stores the meshes on the Java heap and
+	 * keeps texture coordinates in texels.
+	 */
+	public MapMeshBuilder() {
+		this.weldEpsilon = 0.01;
+		this.direct = false;
+		this.textureSizes = MapTextureSizes.TEXELS;
+	}
+
+	/**
+	 * Returns the size of the grid used to weld vertices.
+	 * 
+	 * @return the weld epsilon
+	 */
+	public double getWeldEpsilon() {
+		return this.weldEpsilon;
+	}
+
+	/**
+	 * Sets the size of the grid used to weld vertices. Vertices with equal normals and texture coordinates whose positions
+	 * fall into the same grid cell are merged. A non-positive value disables welding.
+	 * 
+	 * @param weldEpsilon the weld epsilon
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapMeshBuilder setWeldEpsilon(double weldEpsilon) {
+		this.weldEpsilon = weldEpsilon;
+		return this;
+	}
+
+	/**
+	 * Checks if the built meshes are stored in direct buffers.
+	 * 
+	 * @return {@code true} if the meshes are stored in direct buffers, {@code false} otherwise
+	 */
+	public boolean isDirect() {
+		return this.direct;
+	}
+
+	/**
+	 * Sets whether the built meshes are stored in direct buffers outside of the Java heap.
+	 * 
+	 * @param direct {@code true} to use direct buffers
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapMeshBuilder setDirect(boolean direct) {
+		this.direct = direct;
+		return this;
+	}
+
+	/**
+	 * Returns the texture sizes used to normalize texture coordinates.
+	 * 
+	 * @return the texture sizes
+	 */
+	public MapTextureSizes getTextureSizes() {
+		return this.textureSizes;
+	}
+
+	/**
+	 * Sets the texture sizes used to normalize texture coordinates.
+	 * 
+	 * @param textureSizes the texture sizes
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapMeshBuilder setTextureSizes(MapTextureSizes textureSizes) {
+		this.textureSizes = Objects.requireNonNull(textureSizes, "Texture sizes must not be null");
+		return this;
+	}
+
+	/**
+	 * Builds the meshes of all brushes of the specified level.
+	 * 
+	 * @param level the level to build the meshes of
+	 * 
+	 * @return a map of meshes by texture name, in order of first occurrence
+	 */
+	public Map<String, MapMesh> build(MapLevel level) {
+		return this.build(level, entity -> true);
+	}
+
+	/**
+	 * Builds the meshes of the brushes of all entities matching a given predicate.
+	 * 
+	 * @param level     the level to build the meshes of
+	 * @param predicate the condition to filter entities
+	 * 
+	 * @return a map of meshes by texture name, in order of first occurrence
+	 */
+	public Map<String, MapMesh> build(MapLevel level, Predicate<MapEntity> predicate) {
+		Objects.requireNonNull(level, "Level must not be null");
+		try (MapEvent event = MapProfiler.begin(MapEventType.MESH)) {
+			event.setLevel(level);
+			Map<String, MapMeshBatch> batches = new LinkedHashMap<>();
+			for (int i = 0; i < level.getEntityCount(); i++) {
+				MapEntity entity = level.getEntity(i);
+				if (predicate.test(entity))
+					for (int j = 0; j < entity.getBrushCount(); j++)
+						this.addBrush(entity.getBrush(j), batches);
+			}
+			Map<String, MapMesh> meshes = new LinkedHashMap<>();
+			for (Map.Entry<String, MapMeshBatch> batch : batches.entrySet())
+				meshes.put(batch.getKey(), batch.getValue().toMesh(this.direct));
+			return meshes;
+		}
+	}
+
+	private void addBrush(MapBrush brush, Map<String, MapMeshBatch> batches) {
+		MapPlane[] planes = MapPolygonizer.planes(brush);
+		MapFace target = brush.isInstance() ? new MapFace() : null;
+		for (int i = 0; i < planes.length; i++) {
+			MapPolygon polygon = MapPolygonizer.polygonize(planes, i);
+			if (Objects.isNull(polygon))
+				continue;
+			MapFace face = brush.readFace(i, target);
+			String texture = face.getTexture();
+			MapMeshBatch batch = batches.get(texture);
+			if (Objects.isNull(batch)) {
+				batch = new MapMeshBatch(texture, this.weldEpsilon);
+				batches.put(texture, batch);
+			}
+			this.addPolygon(face, planes[i], polygon, batch);
+		}
+	}
+
+	private void addPolygon(MapFace face, MapPlane plane, MapPolygon polygon, MapMeshBatch batch) {
+		float nx = (float) plane.getNormalX();
+		float ny = (float) plane.getNormalY();
+		float nz = (float) plane.getNormalZ();
+		double width = Math.max(1, this.textureSizes.getWidth(face.getTexture()));
+		double height = Math.max(1, this.textureSizes.getHeight(face.getTexture()));
+		int first = -1;
+		int previous = -1;
+		for (int i = 0; i < polygon.getVertexCount(); i++) {
+			double x = polygon.getX(i);
+			double y = polygon.getY(i);
+			double z = polygon.getZ(i);
+			float u = (float) (MapTextureProjection.u(face, x, y, z) / width);
+			float v = (float) (MapTextureProjection.v(face, x, y, z) / height);
+			int index = batch.addVertex(x, y, z, nx, ny, nz, u, v);
+			if (i == 0)
+				first = index;
+			else if (i > 1)
+				batch.addTriangle(first, previous, index);
+			previous = index;
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+package com.kaba4cow.maplevel.mesh;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * A utility class for writing {@link MapMesh} objects to files.
+ */
+public class MapMeshWriter {
+
+	/**
+	 * The magic number at the start of binary mesh files, {@code MAPM} in little-endian byte order.
+	 */
+	public static final int BINARY_MAGIC = 0x4D50414D;
+
+	/**
+	 * The version of the binary mesh file layout.
+	 */
+	public static final int BINARY_VERSION = 1;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private MapMeshWriter() {}
+
+	/**
+	 * Writes the specified meshes to a Wavefront OBJ file. Each mesh is written as a separate object using its texture
+	 * name as the material name.
+	 * 
+	 * @param meshes the meshes to write
+	 * @param target the path of the file to write to
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeObj(Collection<MapMesh> meshes, Path target) throws IOException {
+		Objects.requireNonNull(meshes, "Meshes must not be null");
+		Objects.requireNonNull(target, "Target must not be null");
+		try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+			StringBuilder builder = new StringBuilder();
+			int offset = 1;
+			for (MapMesh mesh : meshes) {
+				builder.setLength(0);
+				builder.append("o ").append(mesh.getTexture()).append('\n');
+				builder.append("usemtl ").append(mesh.getTexture()).append('\n');
+				writer.append(builder);
+				FloatBuffer vertices = mesh.getVertices();
+				for (int i = 0; i < mesh.getVertexCount(); i++) {
+					int vertex = i * MapMesh.VERTEX_SIZE;
+					builder.setLength(0);
+					builder.append("v ").append(vertices.get(vertex + 0)).append(' ').append(vertices.get(vertex + 1))
+							.append(' ').append(vertices.get(vertex + 2)).append('\n');
+					builder.append("vn ").append(vertices.get(vertex + 3)).append(' ').append(vertices.get(vertex + 4))
+							.append(' ').append(vertices.get(vertex + 5)).append('\n');
+					builder.append("vt ").append(vertices.get(vertex + 6)).append(' ').append(vertices.get(vertex + 7))
+							.append('\n');
+					writer.append(builder);
+				}
+				IntBuffer indices = mesh.getIndices();
+				for (int i = 0; i < mesh.getIndexCount(); i += 3) {
+					builder.setLength(0);
+					builder.append('f');
+					for (int j = 0; j < 3; j++) {
+						int index = indices.get(i + j) + offset;
+						builder.append(' ').append(index).append('/').append(index).append('/').append(index);
+					}
+					builder.append('\n');
+					writer.append(builder);
+				}
+				offset += mesh.getVertexCount();
+			}
+		}
+	}
+
+	/**
+	 * Writes the specified meshes to a little-endian binary file. The file starts with {@link #BINARY_MAGIC},
+	 * {@link #BINARY_VERSION} and the number of meshes, followed by each mesh as the UTF-8 texture name length and bytes,
+	 * the vertex count, the index count, the interleaved vertex floats and the triangle indices.
+	 * 
+	 * @param meshes the meshes to write
+	 * @param target the path of the file to write to
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void writeBinary(Collection<MapMesh> meshes, Path target) throws IOException {
+		Objects.requireNonNull(meshes, "Meshes must not be null");
+		Objects.requireNonNull(target, "Target must not be null");
+		try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(MapMeshWriter.BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MapMeshWriter.BINARY_MAGIC);
+			buffer.putInt(MapMeshWriter.BINARY_VERSION);
+			buffer.putInt(meshes.size());
+			for (MapMesh mesh : meshes) {
+				byte[] texture = Objects.toString(mesh.getTexture()).getBytes(StandardCharsets.UTF_8);
+				MapMeshWriter.ensureRemaining(channel, buffer, 3 * Integer.BYTES);
+				buffer.putInt(texture.length);
+				for (byte value : texture) {
+					MapMeshWriter.ensureRemaining(channel, buffer, 1);
+					buffer.put(value);
+				}
+				MapMeshWriter.ensureRemaining(channel, buffer, 2 * Integer.BYTES);
+				buffer.putInt(mesh.getVertexCount());
+				buffer.putInt(mesh.getIndexCount());
+				FloatBuffer vertices = mesh.getVertices();
+				while (vertices.hasRemaining()) {
+					MapMeshWriter.ensureRemaining(channel, buffer, Float.BYTES);
+					buffer.putFloat(vertices.get());
+				}
+				IntBuffer indices = mesh.getIndices();
+				while (indices.hasRemaining()) {
+					MapMeshWriter.ensureRemaining(channel, buffer, Integer.BYTES);
+					buffer.putInt(indices.get());
+				}
+			}
+			MapMeshWriter.flush(channel, buffer);
+		}
+	}
+
+	private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+		if (buffer.remaining() < bytes)
+			MapMeshWriter.flush(channel, buffer);
+	}
+
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		((Buffer) buffer).flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		((Buffer) buffer).clear();
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.kaba4cow.maplevel.mesh;
+
+/**
+ * Provides texture dimensions used to normalize texture coordinates.
+ */
+public interface MapTextureSizes {
+
+	/**
+	 * Texture sizes that keep texture coordinates in texels.
+	 */
+	public static final MapTextureSizes TEXELS = new MapTextureSizes() {
+
+		@Override
+		public int getWidth(String texture) {
+			return 1;
+		}
+
+		@Override
+		public int getHeight(String texture) {
+			return 1;
+		}
+
+	};
+
+	/**
+	 * Creates texture sizes assigning the same dimensions to every texture.
+	 * 
+	 * @param width  the width in texels
+	 * @param height the height in texels
+	 * 
+	 * @return the texture sizes
+	 */
+	public static MapTextureSizes of(int width, int height) {
+		return new MapTextureSizes() {
+
+			@Override
+			public int getWidth(String texture) {
+				return width;
+			}
+
+			@Override
+			public int getHeight(String texture) {
+				return height;
+			}
+
+		};
+	}
+
+	/**
+	 * Returns the width of the specified texture.
+	 * 
+	 * @param texture the texture name
+	 * 
+	 * @return the width in texels
+	 */
+	public int getWidth(String texture);
+
+	/**
+	 * Returns the height of the specified texture.
+	 * 
+	 * @param texture the texture name
+	 * 
+	 * @return the height in texels
+	 */
+	public int getHeight(String texture);
+
+}
@@ -0,0 +1,286 @@
+package com.kaba4cow.maplevel.mesh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.geometry.MapPlane;
+import com.kaba4cow.maplevel.geometry.MapPolygon;
+import com.kaba4cow.maplevel.geometry.MapPolygonizer;
+import com.kaba4cow.maplevel.geometry.MapTextureProjection;
+
+/**
+ * Contains the usage of a single texture in a level: the number of faces using it, their total surface area and the
+ * range of texture coordinates covered by them. Texture coordinates are computed from the face polygons with
+ * {@link MapTextureProjection} and normalized by {@link MapTextureSizes}, as in the meshes of {@link MapMeshBuilder},
+ * but no meshes are built.
+ * <p>
+ * Statistics are computed in a single parallel pass over the brushes. Every worker accumulates the values of the
+ * textures it encounters in primitive arrays, which are merged at the end.
+ */
+public class MapTextureStatistics {
+
+	private final String texture;
+	private final long faceCount;
+	private final double area;
+	private final double minU;
+	private final double maxU;
+	private final double minV;
+	private final double maxV;
+
+	private MapTextureStatistics(String texture, long faceCount, double area, double minU, double maxU, double minV,
+			double maxV) {
+		this.texture = texture;
+		this.faceCount = faceCount;
+		this.area = area;
+		this.minU = minU;
+		this.maxU = maxU;
+		this.minV = minV;
+		this.maxV = maxV;
+	}
+
+	/**
+	 * Computes the statistics of all textures of the specified level, with texture coordinates in texels.
+	 *
+	 * @param level the level to compute the statistics of
+	 *
+	 * @return a map of statistics by texture name, in order of first occurrence
+	 */
+	public static Map<String, MapTextureStatistics> of(MapLevel level) {
+		return MapTextureStatistics.of(level, MapTextureSizes.TEXELS);
+	}
+
+	/**
+	 * Computes the statistics of all textures of the specified level, with texture coordinates normalized by the
+	 * specified texture sizes.
+	 *
+	 * @param level        the level to compute the statistics of
+	 * @param textureSizes the texture sizes to normalize texture coordinates with
+	 *
+	 * @return a map of statistics by texture name, in order of first occurrence
+	 */
+	public static Map<String, MapTextureStatistics> of(MapLevel level, MapTextureSizes textureSizes) {
+		Objects.requireNonNull(level, "Level must not be null");
+		List<MapBrush> brushes = new ArrayList<>();
+		for (MapEntity entity : level.getEntities())
+			brushes.addAll(entity.getBrushes());
+		return MapTextureStatistics.of(brushes, textureSizes);
+	}
+
+	/**
+	 * Computes the statistics of all textures of the specified brushes, with texture coordinates normalized by the
+	 * specified texture sizes. Brushes are processed in parallel.
+	 *
+	 * @param brushes      the brushes to compute the statistics of
+	 * @param textureSizes the texture sizes to normalize texture coordinates with
+	 *
+	 * @return a map of statistics by texture name, in order of first occurrence
+	 */
+	public static Map<String, MapTextureStatistics> of(List<MapBrush> brushes, MapTextureSizes textureSizes) {
+		Objects.requireNonNull(brushes, "Brushes must not be null");
+		Objects.requireNonNull(textureSizes, "Texture sizes must not be null");
+		MapTextureAccumulator accumulator = IntStream.range(0, brushes.size()).parallel().collect(
+				() -> new MapTextureAccumulator(textureSizes),
+				(target, index) -> target.add(brushes.get(index)), MapTextureAccumulator::merge);
+		return accumulator.toStatistics();
+	}
+
+	/**
+	 * Returns the name of the texture.
+	 *
+	 * @return the name of the texture
+	 */
+	public String getTexture() {
+		return this.texture;
+	}
+
+	/**
+	 * Returns the number of faces using the texture. Faces without a polygon are not counted.
+	 *
+	 * @return the number of faces
+	 */
+	public long getFaceCount() {
+		return this.faceCount;
+	}
+
+	/**
+	 * Returns the total surface area of the faces using the texture.
+	 *
+	 * @return the surface area in square units
+	 */
+	public double getArea() {
+		return this.area;
+	}
+
+	/**
+	 * Returns the minimum U texture coordinate of the faces using the texture.
+	 *
+	 * @return the minimum U coordinate
+	 */
+	public double getMinU() {
+		return this.minU;
+	}
+
+	/**
+	 * Returns the maximum U texture coordinate of the faces using the texture.
+	 *
+	 * @return the maximum U coordinate
+	 */
+	public double getMaxU() {
+		return this.maxU;
+	}
+
+	/**
+	 * Returns the minimum V texture coordinate of the faces using the texture.
+	 *
+	 * @return the minimum V coordinate
+	 */
+	public double getMinV() {
+		return this.minV;
+	}
+
+	/**
+	 * Returns the maximum V texture coordinate of the faces using the texture.
+	 *
+	 * @return the maximum V coordinate
+	 */
+	public double getMaxV() {
+		return this.maxV;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapTextureStatistics [texture=%s, faces=%s, area=%s, u=%s..%s, v=%s..%s]", this.texture,
+				this.faceCount, this.area, this.minU, this.maxU, this.minV, this.maxV);
+	}
+
+	private static class MapTextureAccumulator {
+
+		private static final int AREA = 0;
+		private static final int MIN_U = 1;
+		private static final int MAX_U = 2;
+		private static final int MIN_V = 3;
+		private static final int MAX_V = 4;
+		private static final int WIDTH = 5;
+		private static final int HEIGHT = 6;
+		private static final int STRIDE = 7;
+
+		private final MapTextureSizes textureSizes;
+		private final MapFace target;
+		private final Map<String, Integer> indices;
+		private String[] textures;
+		private long[] faceCounts;
+		private double[] values;
+		private int count;
+
+		private MapTextureAccumulator(MapTextureSizes textureSizes) {
+			this.textureSizes = textureSizes;
+			this.target = new MapFace();
+			this.indices = new HashMap<>();
+			this.textures = new String[16];
+			this.faceCounts = new long[16];
+			this.values = new double[16 * MapTextureAccumulator.STRIDE];
+			this.count = 0;
+		}
+
+		private void add(MapBrush brush) {
+			MapPlane[] planes = MapPolygonizer.planes(brush);
+			for (int i = 0; i < planes.length; i++) {
+				MapPolygon polygon = MapPolygonizer.polygonize(planes, i);
+				if (Objects.isNull(polygon))
+					continue;
+				MapFace face = brush.readFace(i, this.target);
+				int index = this.indexOf(face.getTexture());
+				int offset = index * MapTextureAccumulator.STRIDE;
+				double width = this.values[offset + MapTextureAccumulator.WIDTH];
+				double height = this.values[offset + MapTextureAccumulator.HEIGHT];
+				double minU = this.values[offset + MapTextureAccumulator.MIN_U];
+				double maxU = this.values[offset + MapTextureAccumulator.MAX_U];
+				double minV = this.values[offset + MapTextureAccumulator.MIN_V];
+				double maxV = this.values[offset + MapTextureAccumulator.MAX_V];
+				for (int j = 0; j < polygon.getVertexCount(); j++) {
+					double x = polygon.getX(j);
+					double y = polygon.getY(j);
+					double z = polygon.getZ(j);
+					double u = MapTextureProjection.u(face, x, y, z) / width;
+					double v = MapTextureProjection.v(face, x, y, z) / height;
+					minU = Math.min(minU, u);
+					maxU = Math.max(maxU, u);
+					minV = Math.min(minV, v);
+					maxV = Math.max(maxV, v);
+				}
+				this.values[offset + MapTextureAccumulator.AREA] += polygon.getArea();
+				this.values[offset + MapTextureAccumulator.MIN_U] = minU;
+				this.values[offset + MapTextureAccumulator.MAX_U] = maxU;
+				this.values[offset + MapTextureAccumulator.MIN_V] = minV;
+				this.values[offset + MapTextureAccumulator.MAX_V] = maxV;
+				this.faceCounts[index]++;
+			}
+		}
+
+		private int indexOf(String texture) {
+			Integer index = this.indices.get(texture);
+			if (Objects.nonNull(index))
+				return index;
+			if (this.count == this.textures.length) {
+				int capacity = this.count * 2;
+				this.textures = Arrays.copyOf(this.textures, capacity);
+				this.faceCounts = Arrays.copyOf(this.faceCounts, capacity);
+				this.values = Arrays.copyOf(this.values, capacity * MapTextureAccumulator.STRIDE);
+			}
+			int offset = this.count * MapTextureAccumulator.STRIDE;
+			this.values[offset + MapTextureAccumulator.MIN_U] = Double.POSITIVE_INFINITY;
+			this.values[offset + MapTextureAccumulator.MAX_U] = Double.NEGATIVE_INFINITY;
+			this.values[offset + MapTextureAccumulator.MIN_V] = Double.POSITIVE_INFINITY;
+			this.values[offset + MapTextureAccumulator.MAX_V] = Double.NEGATIVE_INFINITY;
+			this.values[offset + MapTextureAccumulator.WIDTH] = Math.max(1, this.textureSizes.getWidth(texture));
+			this.values[offset + MapTextureAccumulator.HEIGHT] = Math.max(1, this.textureSizes.getHeight(texture));
+			this.textures[this.count] = texture;
+			this.indices.put(texture, this.count);
+			return this.count++;
+		}
+
+		private void merge(MapTextureAccumulator other) {
+			for (int i = 0; i < other.count; i++) {
+				int index = this.indexOf(other.textures[i]);
+				int offset = index * MapTextureAccumulator.STRIDE;
+				int otherOffset = i * MapTextureAccumulator.STRIDE;
+				this.faceCounts[index] += other.faceCounts[i];
+				double[] values = this.values;
+				double[] others = other.values;
+				values[offset + MapTextureAccumulator.AREA] += others[otherOffset + MapTextureAccumulator.AREA];
+				for (int j = MapTextureAccumulator.MIN_U; j <= MapTextureAccumulator.MAX_V; j += 2) {
+					values[offset + j] = Math.min(values[offset + j], others[otherOffset + j]);
+					values[offset + j + 1] = Math.max(values[offset + j + 1], others[otherOffset + j + 1]);
+				}
+			}
+		}
+
+		private Map<String, MapTextureStatistics> toStatistics() {
+			Map<String, MapTextureStatistics> statistics = new LinkedHashMap<>();
+			for (int i = 0; i < this.count; i++) {
+				int offset = i * MapTextureAccumulator.STRIDE;
+				double area = this.values[offset + MapTextureAccumulator.AREA];
+				double minU = this.values[offset + MapTextureAccumulator.MIN_U];
+				double maxU = this.values[offset + MapTextureAccumulator.MAX_U];
+				double minV = this.values[offset + MapTextureAccumulator.MIN_V];
+				double maxV = this.values[offset + MapTextureAccumulator.MAX_V];
+				statistics.put(this.textures[i],
+						new MapTextureStatistics(this.textures[i], this.faceCounts[i], area, minU, maxU, minV, maxV));
+			}
+			return Collections.unmodifiableMap(statistics);
+		}
+
+	}
+
+}
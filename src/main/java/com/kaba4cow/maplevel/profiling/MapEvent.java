@@ -0,0 +1,178 @@
+package com.kaba4cow.maplevel.profiling;
+
+import java.util.Collection;
+import java.util.Objects;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+
+/**
+ * A running event created by {@link MapProfiler#begin(MapEventType)}, reported when it is closed. Element counts given
+ * as a level, an entity or a collection of brushes are computed only if the event is reported, so setting them is
+ * cheap. Events are meant to be used with try-with-resources on a single thread.
+ */
+public class MapEvent implements AutoCloseable {
+
+	static final MapEvent DISABLED = new MapEvent(null, null);
+
+	private final MapEventType type;
+	private final Object event;
+	private final long start;
+	private String source;
+	private long characters;
+	private long entityCount;
+	private long brushCount;
+	private long faceCount;
+	private MapLevel level;
+	private MapEntity entity;
+	private Collection<MapBrush> brushes;
+	private boolean closed;
+
+	MapEvent(MapEventType type, Object event) {
+		this.type = type;
+		this.event = event;
+		this.start = Objects.isNull(event) ? 0L : System.nanoTime();
+		this.source = null;
+		this.characters = 0L;
+		this.entityCount = 0L;
+		this.brushCount = 0L;
+		this.faceCount = 0L;
+		this.level = null;
+		this.entity = null;
+		this.brushes = null;
+		this.closed = false;
+	}
+
+	/**
+	 * Checks if the event is being recorded. Callers can skip computing expensive field values otherwise.
+	 *
+	 * @return {@code true} if the event is being recorded, {@code false} if it is a no-op
+	 */
+	public boolean isRecording() {
+		return Objects.nonNull(this.event);
+	}
+
+	/**
+	 * Sets the name of the processed file or resource.
+	 *
+	 * @param source the name of the source, or {@code null} if unknown
+	 *
+	 * @return a reference to this object
+	 */
+	public MapEvent setSource(String source) {
+		if (this.isRecording())
+			this.source = source;
+		return this;
+	}
+
+	/**
+	 * Sets the number of characters read or written. Characters are counted instead of bytes because the parser and
+	 * writer work on text, so the value differs from the file size for compressed or multi-byte encoded data.
+	 *
+	 * @param characters the number of characters
+	 *
+	 * @return a reference to this object
+	 */
+	public MapEvent setCharacters(long characters) {
+		if (this.isRecording())
+			this.characters = characters;
+		return this;
+	}
+
+	/**
+	 * Sets the numbers of processed elements.
+	 *
+	 * @param entityCount the number of entities
+	 * @param brushCount  the number of brushes
+	 * @param faceCount   the number of faces
+	 *
+	 * @return a reference to this object
+	 */
+	public MapEvent setCounts(long entityCount, long brushCount, long faceCount) {
+		if (this.isRecording()) {
+			this.entityCount = entityCount;
+			this.brushCount = brushCount;
+			this.faceCount = faceCount;
+		}
+		return this;
+	}
+
+	/**
+	 * Sets the processed level. Its elements are counted when the event is reported.
+	 *
+	 * @param level the level
+	 *
+	 * @return a reference to this object
+	 */
+	public MapEvent setLevel(MapLevel level) {
+		if (this.isRecording())
+			this.level = level;
+		return this;
+	}
+
+	/**
+	 * Sets the processed entity. Its brushes are counted when the event is reported.
+	 *
+	 * @param entity the entity
+	 *
+	 * @return a reference to this object
+	 */
+	public MapEvent setEntity(MapEntity entity) {
+		if (this.isRecording())
+			this.entity = entity;
+		return this;
+	}
+
+	/**
+	 * Sets the processed brushes. They are counted when the event is reported.
+	 *
+	 * @param brushes the brushes
+	 *
+	 * @return a reference to this object
+	 */
+	public MapEvent setBrushes(Collection<MapBrush> brushes) {
+		if (this.isRecording())
+			this.brushes = brushes;
+		return this;
+	}
+
+	/**
+	 * Ends the event and reports it if it lasted at least the threshold of its type. Subsequent calls have no effect.
+	 */
+	@Override
+	public void close() {
+		if (!this.isRecording() || this.closed)
+			return;
+		this.closed = true;
+		if (System.nanoTime() - this.start < MapProfiler.getThreshold(this.type))
+			return;
+		if (Objects.nonNull(this.level)) {
+			this.entityCount += this.level.getEntityCount();
+			for (MapEntity entity : this.level.getEntities())
+				this.addBrushes(entity.getBrushes());
+		}
+		if (Objects.nonNull(this.entity)) {
+			this.entityCount++;
+			this.addBrushes(this.entity.getBrushes());
+		}
+		if (Objects.nonNull(this.brushes))
+			this.addBrushes(this.brushes);
+		MapProfiler.commit(this.event, new Object[] { this.source, this.characters, this.entityCount, this.brushCount,
+				this.faceCount });
+	}
+
+	private void addBrushes(Collection<MapBrush> brushes) {
+		for (MapBrush brush : brushes)
+			if (Objects.nonNull(brush)) {
+				this.brushCount++;
+				this.faceCount += brush.getFaceCount();
+			}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapEvent [type=%s, recording=%s]", this.type, this.isRecording());
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.kaba4cow.maplevel.profiling;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents an operation of the library reported to Java Flight Recorder by {@link MapProfiler}. Each type is
+ * registered as a separate event named {@code com.kaba4cow.maplevel.} followed by {@link #getName()}.
+ */
+public enum MapEventType {
+
+	/**
+	 * Parsing of MAP data by {@link com.kaba4cow.maplevel.MapParser}.
+	 */
+	PARSE("Parse", "Map Parse", "MAP data parsed into a level", 0L),
+
+	/**
+	 * Parsing of a single entity by {@link com.kaba4cow.maplevel.MapParser}.
+	 */
+	PARSE_ENTITY("ParseEntity", "Map Parse Entity", "Single entity parsed from MAP data",
+			TimeUnit.MILLISECONDS.toNanos(1L)),
+
+	/**
+	 * Conversion of a level to MAP data by {@link com.kaba4cow.maplevel.MapLevel#toMapString()} or
+	 * {@link com.kaba4cow.maplevel.MapWriter}.
+	 */
+	WRITE("Write", "Map Write", "Level converted to MAP data", 0L),
+
+	/**
+	 * Mesh building by {@link com.kaba4cow.maplevel.mesh.MapMeshBuilder}.
+	 */
+	MESH("Mesh", "Map Mesh", "Triangle meshes built from brushes", 0L),
+
+	/**
+	 * Level-wide brush operations of {@link com.kaba4cow.maplevel.csg.MapCsg}.
+	 */
+	CSG("Csg", "Map CSG", "Constructive solid geometry operation on a level", 0L),
+
+	/**
+	 * Collision hull expansion by {@link com.kaba4cow.maplevel.csg.MapHullExpander}.
+	 */
+	HULL("Hull", "Map Hull Expansion", "Brushes expanded into collision hulls", 0L),
+
+	/**
+	 * BSP tree building by {@link com.kaba4cow.maplevel.bsp.MapBspBuilder}.
+	 */
+	BSP("Bsp", "Map BSP", "BSP tree built from brushes", 0L),
+
+	/**
+	 * Adjacency computation by {@link com.kaba4cow.maplevel.geometry.MapAdjacencyBuilder}.
+	 */
+	ADJACENCY("Adjacency", "Map Adjacency", "Face adjacency computed for added or updated brushes", 0L),
+
+	/**
+	 * Level validation by {@link com.kaba4cow.maplevel.validation.MapValidator}.
+	 */
+	VALIDATION("Validation", "Map Validation", "Level validated", 0L);
+
+	private final String name;
+	private final String label;
+	private final String description;
+	private final long defaultThreshold;
+
+	private MapEventType(String name, String label, String description, long defaultThreshold) {
+		this.name = name;
+		this.label = label;
+		this.description = description;
+		this.defaultThreshold = defaultThreshold;
+	}
+
+	/**
+	 * Returns the name of the event, without the package prefix.
+	 *
+	 * @return the name of the event
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the human-readable label of the event.
+	 *
+	 * @return the label of the event
+	 */
+	public String getLabel() {
+		return this.label;
+	}
+
+	/**
+	 * Returns the description of the event.
+	 *
+	 * @return the description of the event
+	 */
+	public String getDescription() {
+		return this.description;
+	}
+
+	/**
+	 * Returns the threshold used until {@link MapProfiler#setThreshold(MapEventType, long, TimeUnit)} is called.
+	 *
+	 * @return the default threshold in nanoseconds
+	 */
+	public long getDefaultThreshold() {
+		return this.defaultThreshold;
+	}
+
+}
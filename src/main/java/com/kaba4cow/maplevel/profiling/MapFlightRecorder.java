@@ -0,0 +1,201 @@
+package com.kaba4cow.maplevel.profiling;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Accesses the {@code jdk.jfr} API through reflection, so the library compiles and runs on Java 8 runtimes without it.
+ * One event type per {@link MapEventType} is created through {@code jdk.jfr.EventFactory}.
+ * <p>
+ * The running recordings are tracked with a {@code jdk.jfr.FlightRecorderListener}, so while none is running an event
+ * is rejected by reading a single flag, without any reflective call.
+ */
+class MapFlightRecorder {
+
+	private static final String PREFIX = "com.kaba4cow.maplevel.";
+	private static final String CATEGORY = "Map Level";
+
+	private final Object[] factories;
+	private final Object[] probes;
+	private final Method newEvent;
+	private final Method isEnabled;
+	private final Method begin;
+	private final Method end;
+	private final Method shouldCommit;
+	private final Method set;
+	private final Method commit;
+	private final Set<Long> recordings;
+	private volatile boolean recording;
+
+	private MapFlightRecorder() throws ReflectiveOperationException {
+		Class<?> factoryType = Class.forName("jdk.jfr.EventFactory");
+		Class<?> eventType = Class.forName("jdk.jfr.Event");
+		Class<?> annotationType = Class.forName("jdk.jfr.AnnotationElement");
+		Class<?> valueType = Class.forName("jdk.jfr.ValueDescriptor");
+		Constructor<?> annotation = annotationType.getConstructor(Class.class, Object.class);
+		Constructor<?> value = valueType.getConstructor(Class.class, String.class, List.class);
+		Method create = factoryType.getMethod("create", List.class, List.class);
+		List<Object> fields = new ArrayList<>();
+		fields.add(MapFlightRecorder.field(value, annotation, String.class, "source", "Source",
+				"Name of the processed file or resource"));
+		fields.add(MapFlightRecorder.field(value, annotation, long.class, "characters", "Characters",
+				"Number of characters read or written"));
+		fields.add(MapFlightRecorder.field(value, annotation, long.class, "entities", "Entities",
+				"Number of processed entities"));
+		fields.add(MapFlightRecorder.field(value, annotation, long.class, "brushes", "Brushes",
+				"Number of processed brushes"));
+		fields.add(MapFlightRecorder.field(value, annotation, long.class, "faces", "Faces",
+				"Number of processed faces"));
+		MapEventType[] types = MapEventType.values();
+		this.factories = new Object[types.length];
+		this.probes = new Object[types.length];
+		this.newEvent = factoryType.getMethod("newEvent");
+		for (MapEventType type : types) {
+			List<Object> annotations = new ArrayList<>();
+			annotations.add(annotation.newInstance(MapFlightRecorder.annotation("Name"),
+					MapFlightRecorder.PREFIX + type.getName()));
+			annotations.add(annotation.newInstance(MapFlightRecorder.annotation("Label"), type.getLabel()));
+			annotations.add(annotation.newInstance(MapFlightRecorder.annotation("Description"), type.getDescription()));
+			annotations.add(annotation.newInstance(MapFlightRecorder.annotation("Category"),
+					new String[] { MapFlightRecorder.CATEGORY }));
+			annotations.add(annotation.newInstance(MapFlightRecorder.annotation("StackTrace"), Boolean.FALSE));
+			this.factories[type.ordinal()] = create.invoke(null, annotations, fields);
+			this.probes[type.ordinal()] = this.newEvent.invoke(this.factories[type.ordinal()]);
+		}
+		this.isEnabled = eventType.getMethod("isEnabled");
+		this.begin = eventType.getMethod("begin");
+		this.end = eventType.getMethod("end");
+		this.shouldCommit = eventType.getMethod("shouldCommit");
+		this.set = eventType.getMethod("set", int.class, Object.class);
+		this.commit = eventType.getMethod("commit");
+		this.recordings = new HashSet<>();
+		this.recording = true;
+		this.listen();
+	}
+
+	private void listen() {
+		try {
+			Class<?> recorderType = Class.forName("jdk.jfr.FlightRecorder");
+			Class<?> listenerType = Class.forName("jdk.jfr.FlightRecorderListener");
+			Class<?> recordingType = Class.forName("jdk.jfr.Recording");
+			Method getId = recordingType.getMethod("getId");
+			Method getState = recordingType.getMethod("getState");
+			Object listener = Proxy.newProxyInstance(MapFlightRecorder.class.getClassLoader(),
+					new Class<?>[] { listenerType },
+					(proxy, method, arguments) -> this.handle(proxy, method, arguments, getId, getState));
+			synchronized (this.recordings) {
+				this.recording = false;
+			}
+			recorderType.getMethod("addListener", listenerType).invoke(null, listener);
+			if ((Boolean) recorderType.getMethod("isInitialized").invoke(null)) {
+				Object recorder = recorderType.getMethod("getFlightRecorder").invoke(null);
+				for (Object recording : (List<?>) recorderType.getMethod("getRecordings").invoke(recorder))
+					this.update(recording, getId, getState);
+			}
+		} catch (ReflectiveOperationException | RuntimeException | LinkageError exception) {
+			this.recording = true;
+		}
+	}
+
+	private Object handle(Object proxy, Method method, Object[] arguments, Method getId, Method getState) {
+		if (method.getDeclaringClass() == Object.class)
+			switch (method.getName()) {
+				case "equals":
+					return proxy == arguments[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					return MapFlightRecorder.class.getName();
+			}
+		if (method.getName().equals("recordingStateChanged"))
+			this.update(arguments[0], getId, getState);
+		return null;
+	}
+
+	private void update(Object recording, Method getId, Method getState) {
+		try {
+			Long id = (Long) getId.invoke(recording);
+			boolean running = "RUNNING".equals(String.valueOf(getState.invoke(recording)));
+			synchronized (this.recordings) {
+				if (running)
+					this.recordings.add(id);
+				else
+					this.recordings.remove(id);
+				this.recording = !this.recordings.isEmpty();
+			}
+		} catch (ReflectiveOperationException | RuntimeException exception) {
+			this.recording = true;
+		}
+	}
+
+	/**
+	 * Creates the event types if the {@code jdk.jfr} API is available.
+	 *
+	 * @return the flight recorder access, or {@code null} if Java Flight Recorder is not available
+	 */
+	static MapFlightRecorder create() {
+		try {
+			return new MapFlightRecorder();
+		} catch (ReflectiveOperationException | RuntimeException | LinkageError exception) {
+			return null;
+		}
+	}
+
+	private static Object field(Constructor<?> value, Constructor<?> annotation, Class<?> type, String name,
+			String label, String description) throws ReflectiveOperationException {
+		return value.newInstance(type, name,
+				Arrays.asList(annotation.newInstance(MapFlightRecorder.annotation("Label"), label),
+						annotation.newInstance(MapFlightRecorder.annotation("Description"), description)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Annotation> annotation(String name) throws ClassNotFoundException {
+		return (Class<? extends Annotation>) Class.forName("jdk.jfr." + name);
+	}
+
+	/**
+	 * Starts a new event of the specified type if the type is enabled in a running recording.
+	 *
+	 * @param type the type of the event
+	 *
+	 * @return the started event, or {@code null} if the type is not recorded
+	 */
+	Object begin(MapEventType type) {
+		if (!this.recording)
+			return null;
+		try {
+			if (!(Boolean) this.isEnabled.invoke(this.probes[type.ordinal()]))
+				return null;
+			Object event = this.newEvent.invoke(this.factories[type.ordinal()]);
+			this.begin.invoke(event);
+			return event;
+		} catch (ReflectiveOperationException | RuntimeException exception) {
+			return null;
+		}
+	}
+
+	/**
+	 * Ends the specified event and commits it with the specified field values if it passes the recording settings.
+	 *
+	 * @param event  the event started by {@link #begin(MapEventType)}
+	 * @param values the field values in declaration order
+	 */
+	void commit(Object event, Object[] values) {
+		try {
+			this.end.invoke(event);
+			if (!(Boolean) this.shouldCommit.invoke(event))
+				return;
+			for (int i = 0; i < values.length; i++)
+				this.set.invoke(event, i, values[i]);
+			this.commit.invoke(event);
+		} catch (ReflectiveOperationException | RuntimeException exception) {}
+	}
+
+}
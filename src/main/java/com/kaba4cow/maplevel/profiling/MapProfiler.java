@@ -0,0 +1,115 @@
+package com.kaba4cow.maplevel.profiling;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Reports the operations of the library as Java Flight Recorder events, see {@link MapEventType}. The {@code jdk.jfr}
+ * API is accessed through reflection; on runtimes without it, such as most Java 8 runtimes, every event is a no-op.
+ * <p>
+ * While no recording is running, starting an event reads two flags and allocates nothing. While a recording is running,
+ * each event checks through reflection whether its type is enabled, and an event object is allocated only if it is.
+ * Events shorter than the threshold of their type are dropped before any field is computed or passed to the recorder,
+ * in addition to the {@code threshold} setting of the recording itself, which keeps the events cheap enough to stay
+ * enabled in production.
+ */
+public class MapProfiler {
+
+	private static final MapFlightRecorder RECORDER = MapFlightRecorder.create();
+	private static final AtomicLongArray THRESHOLDS = MapProfiler.createThresholds();
+
+	private static volatile boolean enabled = true;
+
+	private MapProfiler() {}
+
+	private static AtomicLongArray createThresholds() {
+		MapEventType[] types = MapEventType.values();
+		AtomicLongArray thresholds = new AtomicLongArray(types.length);
+		for (MapEventType type : types)
+			thresholds.set(type.ordinal(), type.getDefaultThreshold());
+		return thresholds;
+	}
+
+	/**
+	 * Checks if Java Flight Recorder is available in the running JDK.
+	 *
+	 * @return {@code true} if events can be recorded
+	 */
+	public static boolean isAvailable() {
+		return Objects.nonNull(MapProfiler.RECORDER);
+	}
+
+	/**
+	 * Checks if events are reported. Events are reported by default.
+	 *
+	 * @return {@code true} if events are reported
+	 */
+	public static boolean isEnabled() {
+		return MapProfiler.enabled;
+	}
+
+	/**
+	 * Sets whether events are reported.
+	 *
+	 * @param enabled {@code true} to report events, {@code false} to disable all events regardless of recordings
+	 */
+	public static void setEnabled(boolean enabled) {
+		MapProfiler.enabled = enabled;
+	}
+
+	/**
+	 * Returns the minimum duration of the events of the specified type.
+	 *
+	 * @param type the type of the events
+	 *
+	 * @return the threshold in nanoseconds
+	 */
+	public static long getThreshold(MapEventType type) {
+		return MapProfiler.THRESHOLDS.get(type.ordinal());
+	}
+
+	/**
+	 * Sets the minimum duration of the events of the specified type. Shorter events are dropped.
+	 *
+	 * @param type      the type of the events
+	 * @param threshold the threshold
+	 * @param unit      the unit of the threshold
+	 */
+	public static void setThreshold(MapEventType type, long threshold, TimeUnit unit) {
+		if (threshold < 0L)
+			throw new IllegalArgumentException("Threshold must not be negative");
+		MapProfiler.THRESHOLDS.set(type.ordinal(), unit.toNanos(threshold));
+	}
+
+	/**
+	 * Sets the minimum duration of the events of all types. Shorter events are dropped.
+	 *
+	 * @param threshold the threshold
+	 * @param unit      the unit of the threshold
+	 */
+	public static void setThreshold(long threshold, TimeUnit unit) {
+		for (MapEventType type : MapEventType.values())
+			MapProfiler.setThreshold(type, threshold, unit);
+	}
+
+	/**
+	 * Starts an event of the specified type. The event is reported when it is closed.
+	 *
+	 * @param type the type of the event
+	 *
+	 * @return the event, a no-op if events are disabled or the type is not recorded
+	 */
+	public static MapEvent begin(MapEventType type) {
+		Objects.requireNonNull(type, "Type must not be null");
+		if (!MapProfiler.enabled || Objects.isNull(MapProfiler.RECORDER))
+			return MapEvent.DISABLED;
+		Object event = MapProfiler.RECORDER.begin(type);
+		return Objects.isNull(event) ? MapEvent.DISABLED : new MapEvent(type, event);
+	}
+
+	static void commit(Object event, Object[] values) {
+		MapProfiler.RECORDER.commit(event, values);
+	}
+
+}
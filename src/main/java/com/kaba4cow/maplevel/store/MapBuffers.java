@@ -0,0 +1,52 @@
+package com.kaba4cow.maplevel.store;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Releases the memory of direct and mapped buffers without waiting for garbage collection. Uses
+ * {@code sun.misc.Unsafe.invokeCleaner} on Java 9 and later and the buffer cleaner on Java 8. When neither is accessible
+ * the memory is released once the buffer becomes unreachable.
+ */
+class MapBuffers {
+
+	private static final Object UNSAFE;
+	private static final Method INVOKE_CLEANER;
+
+	static {
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		try {
+			Class<?> type = Class.forName("sun.misc.Unsafe");
+			invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+			Field field = type.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafe = field.get(null);
+		} catch (ReflectiveOperationException | RuntimeException exception) {
+			invokeCleaner = null;
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	private MapBuffers() {}
+
+	static void free(ByteBuffer buffer) {
+		if (Objects.isNull(buffer) || !buffer.isDirect())
+			return;
+		try {
+			if (Objects.nonNull(MapBuffers.INVOKE_CLEANER))
+				MapBuffers.INVOKE_CLEANER.invoke(MapBuffers.UNSAFE, buffer);
+			else {
+				Method cleaner = buffer.getClass().getMethod("cleaner");
+				cleaner.setAccessible(true);
+				Object instance = cleaner.invoke(buffer);
+				if (Objects.nonNull(instance))
+					instance.getClass().getMethod("clean").invoke(instance);
+			}
+		} catch (ReflectiveOperationException | RuntimeException exception) {}
+	}
+
+}
@@ -0,0 +1,403 @@
+package com.kaba4cow.maplevel.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.elements.MapFace;
+
+/**
+ * Stores the brushes and faces of a level outside of the Java heap. Face geometry, texture projections and texture
+ * indices live in direct buffers or in a memory-mapped scratch file, so the number of objects visible to the garbage
+ * collector does not depend on the number of faces. Only entity properties and the distinct texture names are kept on
+ * the heap.
+ * <p>
+ * Faces are accessed through reusable {@link MapStoredFace} flyweights. Brushes and faces are addressed by flat indices
+ * in entity, brush and face order. The store is filled by appending entities, is not thread-safe while being filled
+ * and can be read from multiple threads using separate flyweights afterwards.
+ * <p>
+ * The off-heap memory is released and the scratch files are deleted by {@link #close()}. Accessing a closed store
+ * throws {@link IllegalStateException}.
+ */
+public class MapFaceStore implements Closeable {
+
+	static final int FACE_SIZE = 120;
+	static final int BRUSH_SIZE = 4;
+
+	private final MapSegments faces;
+	private final MapSegments brushes;
+	private final List<MapEntity> entities;
+	private int[] entityBrushes;
+	private final List<String> textures;
+	private final List<String> texturesView;
+	private final Map<String, Integer> textureIndices;
+	private final FileChannel[] channels;
+	private final Path[] files;
+	private boolean closed;
+
+	private MapFaceStore(FileChannel faceChannel, FileChannel brushChannel, Path[] files) {
+		this.faces = new MapSegments(MapFaceStore.FACE_SIZE, faceChannel);
+		this.brushes = new MapSegments(MapFaceStore.BRUSH_SIZE, brushChannel);
+		this.entities = new ArrayList<>();
+		this.entityBrushes = new int[16];
+		this.textures = new ArrayList<>();
+		this.texturesView = Collections.unmodifiableList(this.textures);
+		this.textureIndices = new HashMap<>();
+		this.channels = Objects.isNull(faceChannel) ? new FileChannel[0]
+				: new FileChannel[] { faceChannel, brushChannel };
+		this.files = files;
+		this.closed = false;
+	}
+
+	/**
+	 * Creates a new empty store backed by direct buffers.
+	 * 
+	 * @return the store
+	 */
+	public static MapFaceStore direct() {
+		return new MapFaceStore(null, null, new Path[0]);
+	}
+
+	/**
+	 * Creates a new empty store backed by memory-mapped scratch files created in the specified directory. The files are
+	 * deleted when the store is closed.
+	 * 
+	 * @param directory the directory to create the scratch files in
+	 * 
+	 * @return the store
+	 * 
+	 * @throws IOException if the scratch files cannot be created
+	 */
+	public static MapFaceStore mapped(Path directory) throws IOException {
+		Objects.requireNonNull(directory, "Directory must not be null");
+		Path faceFile = Files.createTempFile(directory, "faces", ".bin");
+		Path brushFile = Files.createTempFile(directory, "brushes", ".bin");
+		FileChannel faceChannel = null;
+		try {
+			faceChannel = FileChannel.open(faceFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			FileChannel brushChannel = FileChannel.open(brushFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			return new MapFaceStore(faceChannel, brushChannel, new Path[] { faceFile, brushFile });
+		} catch (IOException | RuntimeException exception) {
+			if (Objects.nonNull(faceChannel))
+				faceChannel.close();
+			Files.deleteIfExists(faceFile);
+			Files.deleteIfExists(brushFile);
+			throw exception;
+		}
+	}
+
+	/**
+	 * Creates a new store backed by direct buffers containing all entities of the specified level.
+	 * 
+	 * @param level the level to store
+	 * 
+	 * @return the store
+	 */
+	public static MapFaceStore of(MapLevel level) {
+		MapFaceStore store = MapFaceStore.direct();
+		try {
+			return store.addLevel(level);
+		} catch (IOException exception) {
+			store.close();
+			throw new IllegalStateException(exception);
+		}
+	}
+
+	/**
+	 * Appends all entities of the specified level.
+	 * 
+	 * @param level the level to append
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IOException if a mapped segment cannot be created
+	 */
+	public MapFaceStore addLevel(MapLevel level) throws IOException {
+		Objects.requireNonNull(level, "Level must not be null");
+		for (int i = 0; i < level.getEntityCount(); i++)
+			this.addEntity(level.getEntity(i));
+		return this;
+	}
+
+	/**
+	 * Appends a copy of the specified entity. Its properties are copied to the heap and its brushes and faces to the
+	 * off-heap storage, so the entity can be discarded afterwards.
+	 * 
+	 * @param entity the entity to append
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IOException if a mapped segment cannot be created
+	 */
+	public MapFaceStore addEntity(MapEntity entity) throws IOException {
+		Objects.requireNonNull(entity, "Entity must not be null");
+		this.check();
+		MapEntity properties = new MapEntity();
+		for (Map.Entry<String, String> property : entity.getProperties().getProperties().entrySet())
+			properties.getProperties().set(property.getKey(), property.getValue());
+		int index = this.entities.size();
+		if (index + 1 >= this.entityBrushes.length)
+			this.entityBrushes = Arrays.copyOf(this.entityBrushes, this.entityBrushes.length * 2);
+		this.entities.add(properties);
+		this.entityBrushes[index] = this.brushes.getSize();
+		for (int i = 0; i < entity.getBrushCount(); i++) {
+			MapBrush brush = entity.getBrush(i);
+			int brushIndex = this.brushes.add();
+			this.brushes.segment(brushIndex).putInt(this.brushes.offset(brushIndex), this.faces.getSize());
+			MapFace target = brush.isInstance() ? new MapFace() : null;
+			for (int j = 0; j < brush.getFaceCount(); j++) {
+				int faceIndex = this.faces.add();
+				MapStoredFace.write(this, this.faces.segment(faceIndex), this.faces.offset(faceIndex),
+						brush.readFace(j, target));
+			}
+		}
+		this.entityBrushes[index + 1] = this.brushes.getSize();
+		return this;
+	}
+
+	int addTexture(String texture) {
+		Integer index = this.textureIndices.get(texture);
+		if (Objects.isNull(index)) {
+			index = this.textures.size();
+			this.textures.add(texture);
+			this.textureIndices.put(texture, index);
+		}
+		return index;
+	}
+
+	ByteBuffer getFaceSegment(int index) {
+		this.check();
+		if (index < 0 || index >= this.faces.getSize())
+			throw new IndexOutOfBoundsException(String.format("Face index %s out of bounds for %s faces", index,
+					this.faces.getSize()));
+		return this.faces.segment(index);
+	}
+
+	int getFaceOffset(int index) {
+		return this.faces.offset(index);
+	}
+
+	/**
+	 * Creates a new flyweight positioned on the first face.
+	 * 
+	 * @return the flyweight
+	 */
+	public MapStoredFace face() {
+		this.check();
+		return new MapStoredFace(this);
+	}
+
+	/**
+	 * Creates a new flyweight positioned on the specified face.
+	 * 
+	 * @param index the flat index of the face
+	 * 
+	 * @return the flyweight
+	 */
+	public MapStoredFace face(int index) {
+		return this.face().setIndex(index);
+	}
+
+	/**
+	 * Returns the number of stored entities.
+	 * 
+	 * @return the number of entities
+	 */
+	public int getEntityCount() {
+		this.check();
+		return this.entities.size();
+	}
+
+	/**
+	 * Returns the heap copy of the specified entity. The returned entity holds the properties only, its brushes are
+	 * accessed through the store.
+	 * 
+	 * @param index the index of the entity
+	 * 
+	 * @return the entity without brushes
+	 */
+	public MapEntity getEntity(int index) {
+		this.check();
+		return this.entities.get(index);
+	}
+
+	/**
+	 * Returns the flat index of the first brush of the specified entity.
+	 * 
+	 * @param entity the index of the entity
+	 * 
+	 * @return the index of the first brush
+	 */
+	public int getFirstBrush(int entity) {
+		this.check();
+		if (entity < 0 || entity >= this.entities.size())
+			throw new IndexOutOfBoundsException(String.format("Entity index %s out of bounds for %s entities", entity,
+					this.entities.size()));
+		return this.entityBrushes[entity];
+	}
+
+	/**
+	 * Returns the number of brushes of the specified entity.
+	 * 
+	 * @param entity the index of the entity
+	 * 
+	 * @return the number of brushes
+	 */
+	public int getBrushCount(int entity) {
+		int first = this.getFirstBrush(entity);
+		return this.entityBrushes[entity + 1] - first;
+	}
+
+	/**
+	 * Returns the total number of stored brushes.
+	 * 
+	 * @return the number of brushes
+	 */
+	public int getBrushCount() {
+		this.check();
+		return this.brushes.getSize();
+	}
+
+	/**
+	 * Returns the flat index of the first face of the specified brush.
+	 * 
+	 * @param brush the flat index of the brush
+	 * 
+	 * @return the index of the first face
+	 */
+	public int getFirstFace(int brush) {
+		this.check();
+		if (brush < 0 || brush >= this.brushes.getSize())
+			throw new IndexOutOfBoundsException(String.format("Brush index %s out of bounds for %s brushes", brush,
+					this.brushes.getSize()));
+		return this.brushes.segment(brush).getInt(this.brushes.offset(brush));
+	}
+
+	/**
+	 * Returns the number of faces of the specified brush.
+	 * 
+	 * @param brush the flat index of the brush
+	 * 
+	 * @return the number of faces
+	 */
+	public int getFaceCount(int brush) {
+		int first = this.getFirstFace(brush);
+		int end = brush + 1 < this.brushes.getSize() ? this.getFirstFace(brush + 1) : this.faces.getSize();
+		return end - first;
+	}
+
+	/**
+	 * Returns the total number of stored faces.
+	 * 
+	 * @return the number of faces
+	 */
+	public int getFaceCount() {
+		this.check();
+		return this.faces.getSize();
+	}
+
+	/**
+	 * Returns an unmodifiable list of the distinct texture names, indexed by texture index.
+	 * 
+	 * @return the list of textures
+	 */
+	public List<String> getTextures() {
+		this.check();
+		return this.texturesView;
+	}
+
+	/**
+	 * Returns the name of the texture at the specified index.
+	 * 
+	 * @param index the index of the texture
+	 * 
+	 * @return the texture name
+	 */
+	public String getTexture(int index) {
+		this.check();
+		return this.textures.get(index);
+	}
+
+	/**
+	 * Creates a heap {@link MapLevel} containing copies of all stored entities, brushes and faces.
+	 * 
+	 * @return the level
+	 */
+	public MapLevel toLevel() {
+		this.check();
+		MapLevel level = new MapLevel();
+		MapStoredFace face = new MapStoredFace(this);
+		for (int i = 0; i < this.entities.size(); i++) {
+			MapEntity entity = new MapEntity();
+			for (Map.Entry<String, String> property : this.entities.get(i).getProperties().getProperties().entrySet())
+				entity.getProperties().set(property.getKey(), property.getValue());
+			for (int brush = this.entityBrushes[i]; brush < this.entityBrushes[i + 1]; brush++) {
+				MapBrush target = new MapBrush();
+				int first = this.getFirstFace(brush);
+				int count = this.getFaceCount(brush);
+				for (int j = 0; j < count; j++)
+					target.addFace(face.setIndex(first + j).copyTo(new MapFace()));
+				entity.addBrush(target);
+			}
+			level.addEntity(entity);
+		}
+		return level;
+	}
+
+	/**
+	 * Checks whether the store has been closed.
+	 * 
+	 * @return {@code true} if the store is closed
+	 */
+	public boolean isClosed() {
+		return this.closed;
+	}
+
+	/**
+	 * Releases the off-heap memory, closes and deletes the scratch files. Flyweights of this store must not be used
+	 * afterwards. Closing a closed store has no effect.
+	 */
+	@Override
+	public void close() {
+		if (this.closed)
+			return;
+		this.closed = true;
+		this.faces.free();
+		this.brushes.free();
+		for (FileChannel channel : this.channels)
+			try {
+				channel.close();
+			} catch (IOException exception) {}
+		for (Path file : this.files)
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException exception) {}
+	}
+
+	void check() {
+		if (this.closed)
+			throw new IllegalStateException("Store is closed");
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapFaceStore [entities=%s, brushes=%s, faces=%s, mapped=%s, closed=%s]",
+				this.entities.size(), this.brushes.getSize(), this.faces.getSize(), this.channels.length > 0,
+				this.closed);
+	}
+
+}
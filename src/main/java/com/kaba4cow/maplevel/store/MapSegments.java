@@ -0,0 +1,75 @@
+package com.kaba4cow.maplevel.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A growable array of fixed-size records stored in off-heap segments of {@code 2^16} records. Segments are either
+ * direct buffers or consecutive regions of a memory-mapped file; growing adds a segment and never copies existing
+ * records.
+ */
+class MapSegments {
+
+	static final int SEGMENT_SHIFT = 16;
+	static final int SEGMENT_MASK = (1 << MapSegments.SEGMENT_SHIFT) - 1;
+
+	private final int recordSize;
+	private final FileChannel channel;
+	private ByteBuffer[] segments;
+	private int segmentCount;
+	private int size;
+
+	MapSegments(int recordSize, FileChannel channel) {
+		this.recordSize = recordSize;
+		this.channel = channel;
+		this.segments = new ByteBuffer[4];
+		this.segmentCount = 0;
+		this.size = 0;
+	}
+
+	int getSize() {
+		return this.size;
+	}
+
+	int add() throws IOException {
+		int index = this.size;
+		if ((index >> MapSegments.SEGMENT_SHIFT) == this.segmentCount)
+			this.grow();
+		this.size++;
+		return index;
+	}
+
+	ByteBuffer segment(int index) {
+		return this.segments[index >> MapSegments.SEGMENT_SHIFT];
+	}
+
+	int offset(int index) {
+		return (index & MapSegments.SEGMENT_MASK) * this.recordSize;
+	}
+
+	private void grow() throws IOException {
+		if (this.segmentCount == this.segments.length)
+			this.segments = Arrays.copyOf(this.segments, this.segments.length * 2);
+		int bytes = this.recordSize << MapSegments.SEGMENT_SHIFT;
+		ByteBuffer segment;
+		if (Objects.isNull(this.channel))
+			segment = ByteBuffer.allocateDirect(bytes);
+		else
+			segment = this.channel.map(FileChannel.MapMode.READ_WRITE, (long) this.segmentCount * bytes, bytes);
+		this.segments[this.segmentCount++] = segment.order(ByteOrder.nativeOrder());
+	}
+
+	void free() {
+		for (int i = 0; i < this.segmentCount; i++) {
+			MapBuffers.free(this.segments[i]);
+			this.segments[i] = null;
+		}
+		this.segmentCount = 0;
+		this.size = 0;
+	}
+
+}
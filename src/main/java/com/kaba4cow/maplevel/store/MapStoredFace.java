@@ -0,0 +1,270 @@
+package com.kaba4cow.maplevel.store;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import com.kaba4cow.maplevel.elements.MapAxis;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.elements.MapPoint;
+import com.kaba4cow.maplevel.elements.MapTransform;
+
+/**
+ * A flyweight accessor of a face stored in a {@link MapFaceStore}. The flyweight is positioned on a face by its flat
+ * index and reads and writes the off-heap record directly, so a single instance can visit any number of faces without
+ * allocating. Flyweights are not thread-safe, but separate flyweights of the same store can be used concurrently for
+ * reading.
+ */
+public class MapStoredFace {
+
+	private static final int POINTS = 0;
+	private static final int AXIS_U = 72;
+	private static final int AXIS_V = 88;
+	private static final int TRANSFORM = 104;
+	private static final int TEXTURE = 116;
+
+	private final MapFaceStore store;
+	private ByteBuffer segment;
+	private int offset;
+	private int index;
+
+	MapStoredFace(MapFaceStore store) {
+		this.store = store;
+		this.segment = null;
+		this.offset = 0;
+		this.index = -1;
+	}
+
+	static void write(MapFaceStore store, ByteBuffer segment, int offset, MapFace face) {
+		MapStoredFace.writePoint(segment, offset + MapStoredFace.POINTS, face.getPoint1());
+		MapStoredFace.writePoint(segment, offset + MapStoredFace.POINTS + 24, face.getPoint2());
+		MapStoredFace.writePoint(segment, offset + MapStoredFace.POINTS + 48, face.getPoint3());
+		MapStoredFace.writeAxis(segment, offset + MapStoredFace.AXIS_U, face.getAxisU());
+		MapStoredFace.writeAxis(segment, offset + MapStoredFace.AXIS_V, face.getAxisV());
+		MapTransform transform = face.getTransform();
+		segment.putFloat(offset + MapStoredFace.TRANSFORM, transform.getRotation());
+		segment.putFloat(offset + MapStoredFace.TRANSFORM + 4, transform.getScaleX());
+		segment.putFloat(offset + MapStoredFace.TRANSFORM + 8, transform.getScaleY());
+		segment.putInt(offset + MapStoredFace.TEXTURE, store.addTexture(face.getTexture()));
+	}
+
+	private static void writePoint(ByteBuffer segment, int offset, MapPoint point) {
+		segment.putDouble(offset, point.getExactX());
+		segment.putDouble(offset + 8, point.getExactY());
+		segment.putDouble(offset + 16, point.getExactZ());
+	}
+
+	private static void writeAxis(ByteBuffer segment, int offset, MapAxis axis) {
+		segment.putFloat(offset, axis.getX());
+		segment.putFloat(offset + 4, axis.getY());
+		segment.putFloat(offset + 8, axis.getZ());
+		segment.putFloat(offset + 12, axis.getOffset());
+	}
+
+	/**
+	 * Positions the flyweight on the specified face.
+	 * 
+	 * @param index the flat index of the face
+	 * 
+	 * @return a reference to this object
+	 * 
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 * @throws IllegalStateException     if the store is closed
+	 */
+	public MapStoredFace setIndex(int index) {
+		this.segment = this.store.getFaceSegment(index);
+		this.offset = this.store.getFaceOffset(index);
+		this.index = index;
+		return this;
+	}
+
+	/**
+	 * Returns the flat index of the current face.
+	 * 
+	 * @return the index of the face, or {@code -1} if the flyweight has not been positioned
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+
+	private ByteBuffer segment() {
+		if (Objects.isNull(this.segment))
+			throw new IllegalStateException("Flyweight is not positioned on a face");
+		this.store.check();
+		return this.segment;
+	}
+
+	/**
+	 * Returns the x coordinate of the specified plane point.
+	 * 
+	 * @param point the index of the point, from {@code 0} to {@code 2}
+	 * 
+	 * @return the x coordinate
+	 */
+	public double getPointX(int point) {
+		return this.segment().getDouble(this.pointOffset(point));
+	}
+
+	/**
+	 * Returns the y coordinate of the specified plane point.
+	 * 
+	 * @param point the index of the point, from {@code 0} to {@code 2}
+	 * 
+	 * @return the y coordinate
+	 */
+	public double getPointY(int point) {
+		return this.segment().getDouble(this.pointOffset(point) + 8);
+	}
+
+	/**
+	 * Returns the z coordinate of the specified plane point.
+	 * 
+	 * @param point the index of the point, from {@code 0} to {@code 2}
+	 * 
+	 * @return the z coordinate
+	 */
+	public double getPointZ(int point) {
+		return this.segment().getDouble(this.pointOffset(point) + 16);
+	}
+
+	/**
+	 * Sets the coordinates of the specified plane point.
+	 * 
+	 * @param point the index of the point, from {@code 0} to {@code 2}
+	 * @param x     the x coordinate
+	 * @param y     the y coordinate
+	 * @param z     the z coordinate
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapStoredFace setPoint(int point, double x, double y, double z) {
+		ByteBuffer segment = this.segment();
+		int offset = this.pointOffset(point);
+		segment.putDouble(offset, x);
+		segment.putDouble(offset + 8, y);
+		segment.putDouble(offset + 16, z);
+		return this;
+	}
+
+	private int pointOffset(int point) {
+		if (point < 0 || point > 2)
+			throw new IndexOutOfBoundsException(String.format("Point index %s out of bounds", point));
+		return this.offset + MapStoredFace.POINTS + point * 24;
+	}
+
+	/**
+	 * Returns a component of the U texture axis.
+	 * 
+	 * @param component {@code 0}, {@code 1} or {@code 2} for the x, y or z component, {@code 3} for the offset
+	 * 
+	 * @return the component
+	 */
+	public float getAxisU(int component) {
+		return this.segment().getFloat(this.axisOffset(MapStoredFace.AXIS_U, component));
+	}
+
+	/**
+	 * Returns a component of the V texture axis.
+	 * 
+	 * @param component {@code 0}, {@code 1} or {@code 2} for the x, y or z component, {@code 3} for the offset
+	 * 
+	 * @return the component
+	 */
+	public float getAxisV(int component) {
+		return this.segment().getFloat(this.axisOffset(MapStoredFace.AXIS_V, component));
+	}
+
+	private int axisOffset(int axis, int component) {
+		if (component < 0 || component > 3)
+			throw new IndexOutOfBoundsException(String.format("Axis component %s out of bounds", component));
+		return this.offset + axis + component * 4;
+	}
+
+	/**
+	 * Returns the texture rotation.
+	 * 
+	 * @return the rotation
+	 */
+	public float getRotation() {
+		return this.segment().getFloat(this.offset + MapStoredFace.TRANSFORM);
+	}
+
+	/**
+	 * Returns the horizontal texture scale.
+	 * 
+	 * @return the horizontal scale
+	 */
+	public float getScaleX() {
+		return this.segment().getFloat(this.offset + MapStoredFace.TRANSFORM + 4);
+	}
+
+	/**
+	 * Returns the vertical texture scale.
+	 * 
+	 * @return the vertical scale
+	 */
+	public float getScaleY() {
+		return this.segment().getFloat(this.offset + MapStoredFace.TRANSFORM + 8);
+	}
+
+	/**
+	 * Returns the index of the face texture in {@link MapFaceStore#getTextures()}.
+	 * 
+	 * @return the texture index
+	 */
+	public int getTextureIndex() {
+		return this.segment().getInt(this.offset + MapStoredFace.TEXTURE);
+	}
+
+	/**
+	 * Returns the texture name of the face.
+	 * 
+	 * @return the texture name
+	 */
+	public String getTexture() {
+		return this.store.getTexture(this.getTextureIndex());
+	}
+
+	/**
+	 * Replaces the current face with the contents of the specified face.
+	 * 
+	 * @param face the face to copy from
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapStoredFace copyFrom(MapFace face) {
+		Objects.requireNonNull(face, "Face must not be null");
+		MapStoredFace.write(this.store, this.segment(), this.offset, face);
+		return this;
+	}
+
+	/**
+	 * Copies the current face into the specified heap face.
+	 * 
+	 * @param face the face to copy to
+	 * 
+	 * @return the specified face
+	 */
+	public MapFace copyTo(MapFace face) {
+		Objects.requireNonNull(face, "Face must not be null");
+		ByteBuffer segment = this.segment();
+		face.getPoint1().setExact(this.getPointX(0), this.getPointY(0), this.getPointZ(0));
+		face.getPoint2().setExact(this.getPointX(1), this.getPointY(1), this.getPointZ(1));
+		face.getPoint3().setExact(this.getPointX(2), this.getPointY(2), this.getPointZ(2));
+		MapStoredFace.readAxis(segment, this.offset + MapStoredFace.AXIS_U, face.getAxisU());
+		MapStoredFace.readAxis(segment, this.offset + MapStoredFace.AXIS_V, face.getAxisV());
+		face.getTransform().setRotation(this.getRotation()).setScaleX(this.getScaleX()).setScaleY(this.getScaleY());
+		face.setTexture(this.getTexture());
+		return face;
+	}
+
+	private static void readAxis(ByteBuffer segment, int offset, MapAxis axis) {
+		axis.setX(segment.getFloat(offset)).setY(segment.getFloat(offset + 4)).setZ(segment.getFloat(offset + 8))
+				.setOffset(segment.getFloat(offset + 12));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapStoredFace [index=%s]", this.index);
+	}
+
+}
@@ -0,0 +1,190 @@
+package com.kaba4cow.maplevel.validation;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapEntity;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.geometry.MapGeometryTable;
+import com.kaba4cow.maplevel.geometry.MapPlane;
+import com.kaba4cow.maplevel.geometry.MapPlaneTable;
+import com.kaba4cow.maplevel.geometry.MapPolygon;
+import com.kaba4cow.maplevel.geometry.MapPolygonizer;
+
+/**
+ * Shared state of a single {@link MapValidator} run. Face planes are deduplicated once into a {@link MapGeometryTable},
+ * brush polygons and entity target names are computed on first use and shared by all rules. All methods are
+ * thread-safe.
+ */
+public class MapValidationContext {
+
+	private final MapLevel level;
+	private final MapGeometryTable geometry;
+	private final int[] brushEntities;
+	private final int[] brushIndices;
+	private final AtomicReferenceArray<MapPolygon[]> polygons;
+	private volatile Set<String> targetNames;
+
+	MapValidationContext(MapLevel level) {
+		this.level = level;
+		this.geometry = MapGeometryTable.of(level);
+		this.brushEntities = new int[this.geometry.getBrushCount()];
+		this.brushIndices = new int[this.geometry.getBrushCount()];
+		for (int i = 0, index = 0; i < level.getEntityCount(); i++)
+			for (int j = 0; j < level.getEntity(i).getBrushCount(); j++, index++) {
+				this.brushEntities[index] = i;
+				this.brushIndices[index] = j;
+			}
+		this.polygons = new AtomicReferenceArray<>(this.geometry.getBrushCount());
+		this.targetNames = null;
+	}
+
+	int getBrushEntity(int index) {
+		return this.brushEntities[index];
+	}
+
+	int getBrushIndex(int index) {
+		return this.brushIndices[index];
+	}
+
+	/**
+	 * Returns the validated level.
+	 * 
+	 * @return the level
+	 */
+	public MapLevel getLevel() {
+		return this.level;
+	}
+
+	/**
+	 * Returns the geometry table of the level.
+	 * 
+	 * @return the geometry table
+	 */
+	public MapGeometryTable getGeometry() {
+		return this.geometry;
+	}
+
+	/**
+	 * Returns the shared plane of the specified face.
+	 * 
+	 * @param entityIndex the index of the entity
+	 * @param brushIndex  the index of the brush in the entity
+	 * @param faceIndex   the index of the face in the brush
+	 * 
+	 * @return the plane of the face, or {@code null} if the face points are colinear or coincident
+	 */
+	public MapPlane getPlane(int entityIndex, int brushIndex, int faceIndex) {
+		int plane = this.getPlaneIndex(entityIndex, brushIndex, faceIndex);
+		return plane < 0 ? null : this.geometry.getPlanes().getPlane(plane);
+	}
+
+	/**
+	 * Returns the index of the plane of the specified face in the {@link MapPlaneTable} of the geometry table.
+	 * 
+	 * @param entityIndex the index of the entity
+	 * @param brushIndex  the index of the brush in the entity
+	 * @param faceIndex   the index of the face in the brush
+	 * 
+	 * @return the plane index, or {@code -1} if the face points are colinear or coincident
+	 */
+	public int getPlaneIndex(int entityIndex, int brushIndex, int faceIndex) {
+		return this.geometry.getPlaneIndex(this.geometry.getFaceIndex(entityIndex, brushIndex, faceIndex));
+	}
+
+	/**
+	 * Returns the face polygons of the specified brush, computed from the shared planes on first use.
+	 * 
+	 * @param entityIndex the index of the entity
+	 * @param brushIndex  the index of the brush in the entity
+	 * 
+	 * @return an array of polygons in face order, containing {@code null} for degenerate faces or faces clipped away by
+	 *             the other brush planes
+	 */
+	public MapPolygon[] getPolygons(int entityIndex, int brushIndex) {
+		int index = this.geometry.getBrushIndex(entityIndex, brushIndex);
+		MapPolygon[] result = this.polygons.get(index);
+		if (Objects.isNull(result)) {
+			MapPlane[] planes = new MapPlane[this.geometry.getFaceCount(index)];
+			for (int i = 0; i < planes.length; i++)
+				planes[i] = this.getPlane(entityIndex, brushIndex, i);
+			result = MapPolygonizer.polygonize(planes);
+			if (!this.polygons.compareAndSet(index, null, result))
+				result = this.polygons.get(index);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the values of the {@code targetname} properties of all entities.
+	 * 
+	 * @return an unmodifiable set of target names
+	 */
+	public Set<String> getTargetNames() {
+		Set<String> result = this.targetNames;
+		if (Objects.isNull(result))
+			synchronized (this) {
+				result = this.targetNames;
+				if (Objects.isNull(result)) {
+					result = new HashSet<>();
+					for (int i = 0; i < this.level.getEntityCount(); i++) {
+						String name = this.level.getEntity(i).getProperties().get("targetname");
+						if (Objects.nonNull(name) && !name.isEmpty())
+							result.add(name);
+					}
+					this.targetNames = result = Collections.unmodifiableSet(result);
+				}
+			}
+		return result;
+	}
+
+	/**
+	 * Returns the specified entity.
+	 * 
+	 * @param entityIndex the index of the entity
+	 * 
+	 * @return the entity
+	 */
+	public MapEntity getEntity(int entityIndex) {
+		return this.level.getEntity(entityIndex);
+	}
+
+	/**
+	 * Returns the specified brush.
+	 * 
+	 * @param entityIndex the index of the entity
+	 * @param brushIndex  the index of the brush in the entity
+	 * 
+	 * @return the brush
+	 */
+	public MapBrush getBrush(int entityIndex, int brushIndex) {
+		return this.level.getEntity(entityIndex).getBrush(brushIndex);
+	}
+
+	/**
+	 * Returns the specified face for reading. The face of a prefab instance is a transformed copy created by
+	 * {@link MapBrush#readFace(int, MapFace)}, so validation does not detach instances from their prefabs. The returned
+	 * face must not be modified.
+	 * 
+	 * @param entityIndex the index of the entity
+	 * @param brushIndex  the index of the brush in the entity
+	 * @param faceIndex   the index of the face in the brush
+	 * 
+	 * @return the face
+	 */
+	public MapFace getFace(int entityIndex, int brushIndex, int faceIndex) {
+		MapBrush brush = this.getBrush(entityIndex, brushIndex);
+		return brush.readFace(faceIndex, brush.isInstance() ? new MapFace() : null);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapValidationContext [geometry=%s]", this.geometry);
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.kaba4cow.maplevel.validation;
+
+/**
+ * A problem found by a {@link MapValidationRule}. Indices that do not apply to the issue are {@code -1}.
+ */
+public class MapValidationIssue {
+
+	private final String rule;
+	private final MapValidationSeverity severity;
+	private final String message;
+	private final int entityIndex;
+	private final int brushIndex;
+	private final int faceIndex;
+
+	MapValidationIssue(String rule, MapValidationSeverity severity, String message, int entityIndex, int brushIndex,
+			int faceIndex) {
+		this.rule = rule;
+		this.severity = severity;
+		this.message = message;
+		this.entityIndex = entityIndex;
+		this.brushIndex = brushIndex;
+		this.faceIndex = faceIndex;
+	}
+
+	/**
+	 * Returns the name of the rule that reported the issue.
+	 * 
+	 * @return the rule name
+	 */
+	public String getRule() {
+		return this.rule;
+	}
+
+	/**
+	 * Returns the severity of the issue.
+	 * 
+	 * @return the severity
+	 */
+	public MapValidationSeverity getSeverity() {
+		return this.severity;
+	}
+
+	/**
+	 * Returns the description of the issue.
+	 * 
+	 * @return the message
+	 */
+	public String getMessage() {
+		return this.message;
+	}
+
+	/**
+	 * Returns the index of the entity in the level.
+	 * 
+	 * @return the entity index, or {@code -1}
+	 */
+	public int getEntityIndex() {
+		return this.entityIndex;
+	}
+
+	/**
+	 * Returns the index of the brush in its entity.
+	 * 
+	 * @return the brush index, or {@code -1}
+	 */
+	public int getBrushIndex() {
+		return this.brushIndex;
+	}
+
+	/**
+	 * Returns the index of the face in its brush.
+	 * 
+	 * @return the face index, or {@code -1}
+	 */
+	public int getFaceIndex() {
+		return this.faceIndex;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"MapValidationIssue [rule=%s, severity=%s, message=%s, entityIndex=%s, brushIndex=%s, faceIndex=%s]",
+				this.rule, this.severity, this.message, this.entityIndex, this.brushIndex, this.faceIndex);
+	}
+
+}
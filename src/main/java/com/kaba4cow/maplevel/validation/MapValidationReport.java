@@ -0,0 +1,109 @@
+package com.kaba4cow.maplevel.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of a {@link MapValidator} run: the issues found, ordered by rule and then by entity, brush and face index,
+ * and the time spent in each rule.
+ */
+public class MapValidationReport {
+
+	private final List<MapValidationIssue> issues;
+	private final Map<String, Long> times;
+	private final long setupTime;
+
+	MapValidationReport(List<MapValidationIssue> issues, Map<String, Long> times, long setupTime) {
+		this.issues = Collections.unmodifiableList(issues);
+		this.times = Collections.unmodifiableMap(times);
+		this.setupTime = setupTime;
+	}
+
+	/**
+	 * Returns an unmodifiable list of all issues.
+	 * 
+	 * @return the list of issues
+	 */
+	public List<MapValidationIssue> getIssues() {
+		return this.issues;
+	}
+
+	/**
+	 * Returns the issues reported by the specified rule.
+	 * 
+	 * @param rule the name of the rule
+	 * 
+	 * @return a list of issues of the rule
+	 */
+	public List<MapValidationIssue> getIssues(String rule) {
+		List<MapValidationIssue> result = new ArrayList<>();
+		for (int i = 0; i < this.issues.size(); i++)
+			if (this.issues.get(i).getRule().equals(rule))
+				result.add(this.issues.get(i));
+		return result;
+	}
+
+	/**
+	 * Returns the number of issues with the specified severity.
+	 * 
+	 * @param severity the severity
+	 * 
+	 * @return the number of issues
+	 */
+	public int getIssueCount(MapValidationSeverity severity) {
+		int count = 0;
+		for (int i = 0; i < this.issues.size(); i++)
+			if (this.issues.get(i).getSeverity() == severity)
+				count++;
+		return count;
+	}
+
+	/**
+	 * Checks whether any errors were found.
+	 * 
+	 * @return {@code true} if there are issues with {@link MapValidationSeverity#ERROR} severity
+	 */
+	public boolean hasErrors() {
+		return this.getIssueCount(MapValidationSeverity.ERROR) > 0;
+	}
+
+	/**
+	 * Returns an unmodifiable map of the rule names to the wall-clock time spent running them, in nanoseconds, in rule
+	 * order. The construction of the shared context is not included, see {@link #getSetupTime()}.
+	 * 
+	 * @return the map of rule times
+	 */
+	public Map<String, Long> getTimes() {
+		return this.times;
+	}
+
+	/**
+	 * Returns the wall-clock time spent running the specified rule.
+	 * 
+	 * @param rule the name of the rule
+	 * 
+	 * @return the time in nanoseconds, or {@code 0} if the rule was not run
+	 */
+	public long getTime(String rule) {
+		return this.times.getOrDefault(rule, 0L);
+	}
+
+	/**
+	 * Returns the wall-clock time spent building the shared {@link MapValidationContext}.
+	 * 
+	 * @return the time in nanoseconds
+	 */
+	public long getSetupTime() {
+		return this.setupTime;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapValidationReport [errors=%s, warnings=%s, times=%s]",
+				this.getIssueCount(MapValidationSeverity.ERROR), this.getIssueCount(MapValidationSeverity.WARNING),
+				this.times);
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.kaba4cow.maplevel.validation;
+
+import java.util.Objects;
+
+/**
+ * A check run by {@link MapValidator}. Depending on its {@link MapValidationScope} the rule is invoked once for the
+ * level, or once for every entity or brush from multiple threads at the same time. Implementations must therefore not
+ * keep mutable state and should take shared derived data such as planes and polygons from the
+ * {@link MapValidationContext}.
+ */
+public abstract class MapValidationRule {
+
+	private final String name;
+	private final MapValidationScope scope;
+
+	/**
+	 * Creates a new rule.
+	 * 
+	 * @param name  the name of the rule
+	 * @param scope the scope of the rule
+	 */
+	protected MapValidationRule(String name, MapValidationScope scope) {
+		this.name = Objects.requireNonNull(name, "Name must not be null");
+		this.scope = Objects.requireNonNull(scope, "Scope must not be null");
+	}
+
+	/**
+	 * Checks a single element of the level.
+	 * 
+	 * @param context     the validation context
+	 * @param entityIndex the index of the entity, or {@code -1} for {@link MapValidationScope#LEVEL} rules
+	 * @param brushIndex  the index of the brush in its entity, or {@code -1} unless the scope is
+	 *                        {@link MapValidationScope#BRUSH}
+	 * @param sink        the sink to report the issues to
+	 */
+	public abstract void validate(MapValidationContext context, int entityIndex, int brushIndex,
+			MapValidationSink sink);
+
+	/**
+	 * Returns the name of the rule.
+	 * 
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the scope of the rule.
+	 * 
+	 * @return the scope
+	 */
+	public MapValidationScope getScope() {
+		return this.scope;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapValidationRule [name=%s, scope=%s]", this.name, this.scope);
+	}
+
+}
@@ -0,0 +1,241 @@
+package com.kaba4cow.maplevel.validation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import com.kaba4cow.maplevel.elements.MapBrush;
+import com.kaba4cow.maplevel.elements.MapFace;
+import com.kaba4cow.maplevel.elements.MapProperties;
+import com.kaba4cow.maplevel.geometry.MapPlane;
+import com.kaba4cow.maplevel.geometry.MapPolygon;
+
+/**
+ * A utility class providing the built-in {@link MapValidationRule} implementations.
+ */
+public class MapValidationRules {
+
+	private MapValidationRules() {}
+
+	/**
+	 * Returns all built-in rules with their default settings, in the order they are listed in this class.
+	 * 
+	 * @return the list of rules
+	 */
+	public static List<MapValidationRule> defaults() {
+		return Arrays.asList(MapValidationRules.degenerateFaces(), MapValidationRules.minimumFaces(4),
+				MapValidationRules.openBrushes(), MapValidationRules.missingTextures(),
+				MapValidationRules.duplicatePlanes(), MapValidationRules.missingClassname(),
+				MapValidationRules.brokenTargets());
+	}
+
+	/**
+	 * Returns a rule reporting faces with colinear or coincident points as errors.
+	 * 
+	 * @return the rule
+	 */
+	public static MapValidationRule degenerateFaces() {
+		return new MapValidationRule("degenerate-faces", MapValidationScope.BRUSH) {
+
+			@Override
+			public void validate(MapValidationContext context, int entityIndex, int brushIndex,
+					MapValidationSink sink) {
+				int faceCount = context.getBrush(entityIndex, brushIndex).getFaceCount();
+				for (int i = 0; i < faceCount; i++)
+					if (context.getPlaneIndex(entityIndex, brushIndex, i) < 0)
+						sink.error("Face points are colinear or coincident", entityIndex, brushIndex, i);
+			}
+
+		};
+	}
+
+	/**
+	 * Returns a rule reporting brushes with fewer than the specified number of faces as errors.
+	 * 
+	 * @param minimum the minimum number of faces
+	 * 
+	 * @return the rule
+	 */
+	public static MapValidationRule minimumFaces(int minimum) {
+		return new MapValidationRule("minimum-faces", MapValidationScope.BRUSH) {
+
+			@Override
+			public void validate(MapValidationContext context, int entityIndex, int brushIndex,
+					MapValidationSink sink) {
+				int faceCount = context.getBrush(entityIndex, brushIndex).getFaceCount();
+				if (faceCount < minimum)
+					sink.error(String.format("Brush has %s faces, at least %s are required", faceCount, minimum),
+							entityIndex, brushIndex, -1);
+			}
+
+		};
+	}
+
+	/**
+	 * Returns a rule reporting brushes whose planes do not enclose a finite volume as errors, and faces that do not
+	 * contribute to the brush volume as warnings. Such faces usually come from non-convex brush definitions.
+	 * 
+	 * @return the rule
+	 */
+	public static MapValidationRule openBrushes() {
+		return new MapValidationRule("open-brushes", MapValidationScope.BRUSH) {
+
+			@Override
+			public void validate(MapValidationContext context, int entityIndex, int brushIndex,
+					MapValidationSink sink) {
+				MapPolygon[] polygons = context.getPolygons(entityIndex, brushIndex);
+				int valid = 0;
+				boolean open = false;
+				for (int i = 0; i < polygons.length; i++) {
+					MapPolygon polygon = polygons[i];
+					if (Objects.nonNull(polygon)) {
+						valid++;
+						open |= MapValidationRules.isOpen(polygon, context.getPlane(entityIndex, brushIndex, i));
+					} else if (context.getPlaneIndex(entityIndex, brushIndex, i) >= 0)
+						sink.warning("Face does not contribute to the brush volume", entityIndex, brushIndex, i);
+				}
+				if (valid == 0 && polygons.length > 0)
+					sink.error("Brush has no volume", entityIndex, brushIndex, -1);
+				else if (open)
+					sink.error("Brush is not closed", entityIndex, brushIndex, -1);
+			}
+
+		};
+	}
+
+	private static boolean isOpen(MapPolygon polygon, MapPlane plane) {
+		MapPolygon base = MapPolygon.of(plane);
+		for (int i = 0; i < base.getVertexCount(); i++) {
+			int next = (i + 1) % base.getVertexCount();
+			double edgeX = base.getX(next) - base.getX(i);
+			double edgeY = base.getY(next) - base.getY(i);
+			double edgeZ = base.getZ(next) - base.getZ(i);
+			double length = Math.sqrt(edgeX * edgeX + edgeY * edgeY + edgeZ * edgeZ);
+			for (int j = 0; j < polygon.getVertexCount(); j++) {
+				double x = polygon.getX(j) - base.getX(i);
+				double y = polygon.getY(j) - base.getY(i);
+				double z = polygon.getZ(j) - base.getZ(i);
+				double crossX = y * edgeZ - z * edgeY;
+				double crossY = z * edgeX - x * edgeZ;
+				double crossZ = x * edgeY - y * edgeX;
+				if (Math.sqrt(crossX * crossX + crossY * crossY + crossZ * crossZ) < MapPlane.EPSILON * length)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns a rule reporting faces without a texture name as errors.
+	 * 
+	 * @return the rule
+	 */
+	public static MapValidationRule missingTextures() {
+		return MapValidationRules.missingTextures(texture -> true);
+	}
+
+	/**
+	 * Returns a rule reporting faces without a texture name as errors and faces with texture names not accepted by the
+	 * specified predicate as warnings.
+	 * 
+	 * @param known the predicate accepting the names of available textures, it must be thread-safe
+	 * 
+	 * @return the rule
+	 */
+	public static MapValidationRule missingTextures(Predicate<String> known) {
+		Objects.requireNonNull(known, "Predicate must not be null");
+		return new MapValidationRule("missing-textures", MapValidationScope.BRUSH) {
+
+			@Override
+			public void validate(MapValidationContext context, int entityIndex, int brushIndex,
+					MapValidationSink sink) {
+				MapBrush brush = context.getBrush(entityIndex, brushIndex);
+				MapFace target = brush.isInstance() ? new MapFace() : null;
+				for (int i = 0; i < brush.getFaceCount(); i++) {
+					String texture = brush.readFace(i, target).getTexture();
+					if (Objects.isNull(texture) || texture.trim().isEmpty())
+						sink.error("Face has no texture", entityIndex, brushIndex, i);
+					else if (!known.test(texture))
+						sink.warning(String.format("Unknown texture %s", texture), entityIndex, brushIndex, i);
+				}
+			}
+
+		};
+	}
+
+	/**
+	 * Returns a rule reporting faces lying on the same plane as an earlier face of their brush as warnings.
+	 * 
+	 * @return the rule
+	 */
+	public static MapValidationRule duplicatePlanes() {
+		return new MapValidationRule("duplicate-planes", MapValidationScope.BRUSH) {
+
+			@Override
+			public void validate(MapValidationContext context, int entityIndex, int brushIndex,
+					MapValidationSink sink) {
+				int faceCount = context.getBrush(entityIndex, brushIndex).getFaceCount();
+				for (int i = 1; i < faceCount; i++) {
+					int plane = context.getPlaneIndex(entityIndex, brushIndex, i);
+					if (plane < 0)
+						continue;
+					for (int j = 0; j < i; j++)
+						if (context.getPlaneIndex(entityIndex, brushIndex, j) == plane) {
+							sink.warning(String.format("Face duplicates the plane of face %s", j), entityIndex,
+									brushIndex, i);
+							break;
+						}
+				}
+			}
+
+		};
+	}
+
+	/**
+	 * Returns a rule reporting entities without a {@code classname} property as errors.
+	 * 
+	 * @return the rule
+	 */
+	public static MapValidationRule missingClassname() {
+		return new MapValidationRule("missing-classname", MapValidationScope.ENTITY) {
+
+			@Override
+			public void validate(MapValidationContext context, int entityIndex, int brushIndex,
+					MapValidationSink sink) {
+				String classname = context.getEntity(entityIndex).getProperties().get("classname");
+				if (Objects.isNull(classname) || classname.isEmpty())
+					sink.error("Entity has no classname", entityIndex, -1, -1);
+			}
+
+		};
+	}
+
+	/**
+	 * Returns a rule reporting {@code target} and {@code killtarget} properties that do not match the
+	 * {@code targetname} of any entity as warnings.
+	 * 
+	 * @return the rule
+	 */
+	public static MapValidationRule brokenTargets() {
+		return new MapValidationRule("broken-targets", MapValidationScope.ENTITY) {
+
+			@Override
+			public void validate(MapValidationContext context, int entityIndex, int brushIndex,
+					MapValidationSink sink) {
+				MapProperties properties = context.getEntity(entityIndex).getProperties();
+				MapValidationRules.checkTarget(context, properties, "target", entityIndex, sink);
+				MapValidationRules.checkTarget(context, properties, "killtarget", entityIndex, sink);
+			}
+
+		};
+	}
+
+	private static void checkTarget(MapValidationContext context, MapProperties properties, String key,
+			int entityIndex, MapValidationSink sink) {
+		String target = properties.get(key);
+		if (Objects.nonNull(target) && !target.isEmpty() && !context.getTargetNames().contains(target))
+			sink.warning(String.format("Property %s refers to missing entity %s", key, target), entityIndex, -1, -1);
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.kaba4cow.maplevel.validation;
+
+/**
+ * Defines which elements a {@link MapValidationRule} is invoked for.
+ */
+public enum MapValidationScope {
+
+	/**
+	 * The rule is invoked once for the whole level.
+	 */
+	LEVEL,
+
+	/**
+	 * The rule is invoked once for every entity, in parallel.
+	 */
+	ENTITY,
+
+	/**
+	 * The rule is invoked once for every brush, in parallel.
+	 */
+	BRUSH;
+
+}
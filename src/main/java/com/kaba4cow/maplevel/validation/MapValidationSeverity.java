@@ -0,0 +1,18 @@
+package com.kaba4cow.maplevel.validation;
+
+/**
+ * The severity of a {@link MapValidationIssue}.
+ */
+public enum MapValidationSeverity {
+
+	/**
+	 * The element is suspicious but can be compiled.
+	 */
+	WARNING,
+
+	/**
+	 * The element is invalid and will break compilation or gameplay.
+	 */
+	ERROR;
+
+}
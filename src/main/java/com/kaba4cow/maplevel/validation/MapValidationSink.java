@@ -0,0 +1,64 @@
+package com.kaba4cow.maplevel.validation;
+
+import java.util.Queue;
+
+/**
+ * Receives the issues reported by a single {@link MapValidationRule}. The sink may be used concurrently from the
+ * parallel invocations of the rule.
+ */
+public class MapValidationSink {
+
+	private final String rule;
+	private final Queue<MapValidationIssue> issues;
+
+	MapValidationSink(String rule, Queue<MapValidationIssue> issues) {
+		this.rule = rule;
+		this.issues = issues;
+	}
+
+	/**
+	 * Reports an issue.
+	 * 
+	 * @param severity    the severity of the issue
+	 * @param message     the description of the issue
+	 * @param entityIndex the index of the entity, or {@code -1}
+	 * @param brushIndex  the index of the brush in its entity, or {@code -1}
+	 * @param faceIndex   the index of the face in its brush, or {@code -1}
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapValidationSink report(MapValidationSeverity severity, String message, int entityIndex, int brushIndex,
+			int faceIndex) {
+		this.issues.add(new MapValidationIssue(this.rule, severity, message, entityIndex, brushIndex, faceIndex));
+		return this;
+	}
+
+	/**
+	 * Reports an error.
+	 * 
+	 * @param message     the description of the error
+	 * @param entityIndex the index of the entity, or {@code -1}
+	 * @param brushIndex  the index of the brush in its entity, or {@code -1}
+	 * @param faceIndex   the index of the face in its brush, or {@code -1}
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapValidationSink error(String message, int entityIndex, int brushIndex, int faceIndex) {
+		return this.report(MapValidationSeverity.ERROR, message, entityIndex, brushIndex, faceIndex);
+	}
+
+	/**
+	 * Reports a warning.
+	 * 
+	 * @param message     the description of the warning
+	 * @param entityIndex the index of the entity, or {@code -1}
+	 * @param brushIndex  the index of the brush in its entity, or {@code -1}
+	 * @param faceIndex   the index of the face in its brush, or {@code -1}
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapValidationSink warning(String message, int entityIndex, int brushIndex, int faceIndex) {
+		return this.report(MapValidationSeverity.WARNING, message, entityIndex, brushIndex, faceIndex);
+	}
+
+}
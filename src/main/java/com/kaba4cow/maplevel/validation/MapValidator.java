@@ -0,0 +1,160 @@
+package com.kaba4cow.maplevel.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.kaba4cow.maplevel.MapLevel;
+import com.kaba4cow.maplevel.profiling.MapEvent;
+import com.kaba4cow.maplevel.profiling.MapEventType;
+import com.kaba4cow.maplevel.profiling.MapProfiler;
+
+/**
+ * Runs a list of {@link MapValidationRule} objects over a {@link MapLevel}. The rules are run one after another, each
+ * as a parallel pass over the entities or brushes of the level on a {@link ForkJoinPool}, and share a single
+ * {@link MapValidationContext}.
+ */
+public class MapValidator {
+
+	private static final Comparator<MapValidationIssue> ISSUE_ORDER = Comparator
+			.comparingInt(MapValidationIssue::getEntityIndex).thenComparingInt(MapValidationIssue::getBrushIndex)
+			.thenComparingInt(MapValidationIssue::getFaceIndex);
+
+	private final List<MapValidationRule> rules;
+	private ForkJoinPool pool;
+
+	/**
+	 * Creates a new validator without rules using the common pool.
+	 */
+	public MapValidator() {
+		this.rules = new ArrayList<>();
+		this.pool = ForkJoinPool.commonPool();
+	}
+
+	/**
+	 * Creates a new validator with all rules of {@link MapValidationRules#defaults()} using the common pool.
+	 * 
+	 * @return the validator
+	 */
+	public static MapValidator withDefaultRules() {
+		MapValidator validator = new MapValidator();
+		for (MapValidationRule rule : MapValidationRules.defaults())
+			validator.addRule(rule);
+		return validator;
+	}
+
+	/**
+	 * Retrieves an unmodifiable list of the rules in the order they are run.
+	 * 
+	 * @return the list of rules
+	 */
+	public List<MapValidationRule> getRules() {
+		return Collections.unmodifiableList(this.rules);
+	}
+
+	/**
+	 * Adds a rule.
+	 * 
+	 * @param rule the rule to add
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapValidator addRule(MapValidationRule rule) {
+		this.rules.add(Objects.requireNonNull(rule, "Rule must not be null"));
+		return this;
+	}
+
+	/**
+	 * Removes a rule.
+	 * 
+	 * @param rule the rule to remove
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapValidator removeRule(MapValidationRule rule) {
+		this.rules.remove(rule);
+		return this;
+	}
+
+	/**
+	 * Returns the pool the rules are run on.
+	 * 
+	 * @return the pool
+	 */
+	public ForkJoinPool getPool() {
+		return this.pool;
+	}
+
+	/**
+	 * Sets the pool the rules are run on.
+	 * 
+	 * @param pool the pool
+	 * 
+	 * @return a reference to this object
+	 */
+	public MapValidator setPool(ForkJoinPool pool) {
+		this.pool = Objects.requireNonNull(pool, "Pool must not be null");
+		return this;
+	}
+
+	/**
+	 * Validates the specified level. The level must not be modified during validation.
+	 * 
+	 * @param level the level to validate
+	 * 
+	 * @return the validation report
+	 */
+	public MapValidationReport validate(MapLevel level) {
+		Objects.requireNonNull(level, "Level must not be null");
+		try (MapEvent event = MapProfiler.begin(MapEventType.VALIDATION)) {
+			event.setLevel(level);
+			long start = System.nanoTime();
+			MapValidationContext context = new MapValidationContext(level);
+			long setupTime = System.nanoTime() - start;
+			List<MapValidationIssue> issues = new ArrayList<>();
+			Map<String, Long> times = new LinkedHashMap<>();
+			for (MapValidationRule rule : this.rules) {
+				start = System.nanoTime();
+				ConcurrentLinkedQueue<MapValidationIssue> queue = new ConcurrentLinkedQueue<>();
+				MapValidationSink sink = new MapValidationSink(rule.getName(), queue);
+				this.run(rule, context, sink);
+				List<MapValidationIssue> ruleIssues = new ArrayList<>(queue);
+				ruleIssues.sort(MapValidator.ISSUE_ORDER);
+				issues.addAll(ruleIssues);
+				times.merge(rule.getName(), System.nanoTime() - start, Long::sum);
+			}
+			return new MapValidationReport(issues, times, setupTime);
+		}
+	}
+
+	private void run(MapValidationRule rule, MapValidationContext context, MapValidationSink sink) {
+		switch (rule.getScope()) {
+			case LEVEL:
+				rule.validate(context, -1, -1, sink);
+				break;
+			case ENTITY:
+				this.pool.submit(() -> IntStream.range(0, context.getLevel().getEntityCount()).parallel()
+						.forEach(index -> rule.validate(context, index, -1, sink))).join();
+				break;
+			case BRUSH:
+				this.pool.submit(() -> IntStream.range(0, context.getGeometry().getBrushCount()).parallel()
+						.forEach(index -> rule.validate(context, context.getBrushEntity(index),
+								context.getBrushIndex(index), sink)))
+						.join();
+				break;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MapValidator [rules=%s]", this.rules);
+	}
+
+}